@@ -0,0 +1,31 @@
+package bob;
+
+import bob.task.Task;
+import bob.tools.WorkloadGenerator;
+
+import java.util.List;
+
+/**
+ * Creates the task lists that benchmarks run on. The same seed always gives the same tasks.
+ */
+public class BenchmarkData {
+    public static final long SEED = 2103;
+    public static final int TAG_COUNT = 50;
+
+    /**
+     * Returns a new mutable list of the given number of tasks.
+     *
+     * @param count the number of tasks
+     * @param seed the seed that the tasks are generated from
+     */
+    public static List<Task> createTasks(int count, long seed) {
+        return new WorkloadGenerator(seed, TAG_COUNT).nextTasks(count);
+    }
+
+    /**
+     * Returns the tag that the most tasks are tagged with.
+     */
+    public static String getPopularTag() {
+        return new WorkloadGenerator(SEED, TAG_COUNT).getTag(0);
+    }
+}
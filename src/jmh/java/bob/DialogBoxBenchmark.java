@@ -0,0 +1,105 @@
+package bob;
+
+import bob.gui.DialogBox;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures how long it takes to show a message in a dialog box, on JavaFX running without a display.
+ * Dialog boxes may only be touched on the JavaFX Application Thread, so each invocation shows a batch of
+ * messages there, which keeps the cost of handing over to that thread out of the time per message.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DialogBoxBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    private Image userImage;
+    private Image bobImage;
+    private DialogBox reusedBox;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Runs JavaFX without a display, using the Monocle headless platform
+        System.setProperty("glass.platform", "Monocle");
+        System.setProperty("monocle.platform", "Headless");
+        System.setProperty("prism.order", "sw");
+
+        CountDownLatch latch = new CountDownLatch(1);
+        Platform.startup(latch::countDown);
+        if (!latch.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("JavaFX did not start");
+        }
+        userImage = new WritableImage(8, 8);
+        bobImage = new WritableImage(8, 8);
+        reusedBox = runOnFxThread(DialogBox::new);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Platform.exit();
+    }
+
+    private static <T> T runOnFxThread(Supplier<T> supplier) throws Exception {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future.get(60, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a new dialog box for each message, as each cell of the chat does once when it is created.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public DialogBox createDialog() throws Exception {
+        return runOnFxThread(() -> {
+            DialogBox box = null;
+            for (int i = 0; i < BATCH_SIZE; ++i) {
+                box = i % 2 == 0
+                        ? DialogBox.getUserDialog("todo read book " + i, userImage)
+                        : DialogBox.getBobDialog("added: [T][ ] read book " + i, bobImage, "TodoCommand");
+            }
+            return box;
+        });
+    }
+
+    /**
+     * Shows each message in the same dialog box, as a cell of the chat does when it is reused for another message.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public DialogBox reuseDialog() throws Exception {
+        return runOnFxThread(() -> {
+            for (int i = 0; i < BATCH_SIZE; ++i) {
+                if (i % 2 == 0) {
+                    reusedBox.showUserMessage("todo read book " + i, userImage);
+                } else {
+                    reusedBox.showBobMessage("added: [T][ ] read book " + i, bobImage, "TodoCommand");
+                }
+            }
+            return reusedBox;
+        });
+    }
+}
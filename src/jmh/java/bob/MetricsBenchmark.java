@@ -0,0 +1,35 @@
+package bob;
+
+import bob.metrics.Metrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+    private Metrics metrics;
+    private long nanos = 0;
+
+    @Setup
+    public void setUp() {
+        metrics = new Metrics();
+    }
+
+    @Benchmark
+    public Metrics recordCommand() {
+        // A command records three stages, with latencies spread over many buckets
+        nanos = (nanos + 7919) % 100_000_000;
+        metrics.record("TodoCommand", Metrics.Stage.PARSE, nanos);
+        metrics.record("TodoCommand", Metrics.Stage.EXECUTE, nanos);
+        metrics.record("TodoCommand", Metrics.Stage.RENDER, nanos);
+        return metrics;
+    }
+}
@@ -0,0 +1,40 @@
+package bob;
+
+import bob.command.Command;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+    @Param({"list", "todo Buy bread", "deadline Finish CS2103T iP /by 26/9 2359",
+        "event SDG Hackathon /from 25/9 /to 27/9 2359"})
+    public String input;
+
+    private Parser parser;
+
+    @Setup
+    public void setUp() {
+        parser = new Parser();
+    }
+
+    @Benchmark
+    public Map<String, String> tokenize() {
+        return Parser.tokenize(input);
+    }
+
+    @Benchmark
+    public Command parse() {
+        return parser.parse(input);
+    }
+}
@@ -0,0 +1,59 @@
+package bob;
+
+import bob.task.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    private Path directory;
+    private Storage loadStorage;
+    private Storage saveStorage;
+    private TaskList tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("bob-jmh");
+        tasks = new TaskList(BenchmarkData.createTasks(taskCount, BenchmarkData.SEED));
+
+        loadStorage = new Storage(directory.resolve("load.txt").toString());
+        loadStorage.save(tasks);
+        saveStorage = new Storage(directory.resolve("save.txt").toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(directory.resolve("load.txt"));
+        Files.deleteIfExists(directory.resolve("save.txt"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public List<Task> load() {
+        return loadStorage.load();
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        saveStorage.save(tasks);
+    }
+}
@@ -0,0 +1,67 @@
+package bob;
+
+import bob.command.FindCommand;
+import bob.output.NullSink;
+import bob.task.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TaskListBenchmark {
+    @Param({"1000", "100000"})
+    public int taskCount;
+
+    private TaskList tasks;
+    private Ui ui;
+    private Storage storage;
+    private FindCommand findCommand;
+    private String popularTag;
+
+    @Setup
+    public void setUp() {
+        tasks = new TaskList(BenchmarkData.createTasks(taskCount, BenchmarkData.SEED));
+        ui = new Ui(NullSink.INSTANCE);
+        // The find command never touches the storage
+        storage = new Storage("build/jmh-unused.txt");
+        findCommand = new FindCommand(Map.of("CMD", "find", "", "report"));
+        popularTag = BenchmarkData.getPopularTag();
+    }
+
+    @Benchmark
+    public List<Integer> getIndicesTaggedWith() {
+        return tasks.getIndicesTaggedWith(popularTag);
+    }
+
+    /**
+     * Removes a task from the middle of the list, then adds it back to the end so the list keeps its size.
+     */
+    @Benchmark
+    public Task removeFromMiddle() {
+        Task task = tasks.remove(tasks.size() / 2);
+        tasks.add(task);
+        return task;
+    }
+
+    @Benchmark
+    public String findCommand() {
+        findCommand.execute(tasks, ui, storage);
+        return ui.getLastMessage();
+    }
+
+    @Benchmark
+    public String toStringAll() {
+        return tasks.toString();
+    }
+}
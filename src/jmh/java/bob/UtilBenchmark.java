@@ -0,0 +1,48 @@
+package bob;
+
+import bob.util.DateTime;
+import bob.util.FormattedString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class UtilBenchmark {
+    private String findOutput;
+
+    @Setup
+    public void setUp() {
+        // Looks like the output of a find command with a hundred matches
+        TaskList tasks = new TaskList(BenchmarkData.createTasks(100, BenchmarkData.SEED));
+        findOutput = tasks.toString();
+    }
+
+    @Benchmark
+    public String colorSubstringIgnoringCase() {
+        return new FormattedString(findOutput).color(FormattedString.COLOR.BG_YELLOW, "report", true).toString();
+    }
+
+    @Benchmark
+    public String colorSubstring() {
+        return new FormattedString(findOutput).color(FormattedString.COLOR.BG_YELLOW, "report").toString();
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTime() {
+        return DateTime.parse("26/9/2024 2359");
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateOnly() {
+        return DateTime.parse("26/9");
+    }
+}
@@ -0,0 +1,188 @@
+package bob.tools;
+
+import bob.TaskList;
+import bob.metrics.LatencyHistogram;
+import bob.server.ApiServer;
+import bob.server.CommandService;
+import bob.util.JsonWriter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many concurrent local clients against the JSON API and reports the throughput and latency of the server.
+ * <p>
+ * Every client sends its requests one after another, alternating between adding a task and searching for the
+ * tasks it added, so reads and writes contend for the task list. Each client first sends some warmup requests
+ * that are not measured. Once all clients are done, the harness checks that every added task is in the list.
+ * <p>
+ * Usage: {@code ApiLoadHarness [--clients N] [--requests N] [--warmup N] [--out FILE]}, where the numbers of
+ * requests are per client. A fresh data file in a temporary directory is used, and deleted afterwards.
+ */
+public class ApiLoadHarness {
+    private final int clientCount;
+    private final int requestsPerClient;
+    private final int warmupRequestsPerClient;
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private long elapsedNanos;
+    private int taskCount;
+
+    private ApiLoadHarness(int clientCount, int requestsPerClient, int warmupRequestsPerClient) {
+        this.clientCount = clientCount;
+        this.requestsPerClient = requestsPerClient;
+        this.warmupRequestsPerClient = warmupRequestsPerClient;
+    }
+
+    private void run() throws IOException, InterruptedException, ExecutionException {
+        Path directory = Files.createTempDirectory("bob-api-load");
+        Path dataFile = directory.resolve("Bob.txt");
+        CommandService service = new CommandService(dataFile.toString());
+        ApiServer server = new ApiServer(service, 0);
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getPort();
+        HttpClient client = HttpClient.newHttpClient();
+        ExecutorService clients = Executors.newFixedThreadPool(clientCount);
+        try {
+            runClients(clients, client, baseUrl, false);
+            long start = System.nanoTime();
+            runClients(clients, client, baseUrl, true);
+            elapsedNanos = System.nanoTime() - start;
+            taskCount = service.read(TaskList::size);
+        } finally {
+            clients.shutdown();
+            server.stop(0);
+            Files.deleteIfExists(dataFile);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private void runClients(ExecutorService clients, HttpClient client, String baseUrl, boolean isMeasured)
+            throws InterruptedException, ExecutionException {
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int c = 0; c < clientCount; ++c) {
+            int clientId = c;
+            futures.add(clients.submit(() -> runClient(client, baseUrl, clientId, isMeasured)));
+        }
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+    }
+
+    private Void runClient(HttpClient client, String baseUrl, int clientId, boolean isMeasured) throws Exception {
+        int requestCount = isMeasured ? requestsPerClient : warmupRequestsPerClient;
+        for (int i = 0; i < requestCount; ++i) {
+            HttpRequest request;
+            if (i % 2 == 0) {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/commands"))
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"input\": \"todo task " + clientId + "-" + i + "\"}"))
+                        .build();
+            } else {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/find?keyword=" + clientId + "-"))
+                        .GET()
+                        .build();
+            }
+
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (isMeasured) {
+                latencies.record(System.nanoTime() - start);
+            }
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Request failed with " + response.statusCode() + ": "
+                        + response.body());
+            }
+        }
+        return null;
+    }
+
+    private long getRequestCount() {
+        return (long) clientCount * requestsPerClient;
+    }
+
+    private double getRequestsPerSecond() {
+        return getRequestCount() / (elapsedNanos / 1e9);
+    }
+
+    private int getExpectedTaskCount() {
+        // Every other request of every client adds a task
+        return clientCount * ((warmupRequestsPerClient + 1) / 2 + (requestsPerClient + 1) / 2);
+    }
+
+    private String toJson() {
+        return new JsonWriter().beginObject()
+                .name("clients").value(clientCount)
+                .name("requests").value(getRequestCount())
+                .name("seconds").value(elapsedNanos / 1e9)
+                .name("requestsPerSecond").value(getRequestsPerSecond())
+                .name("latencyMicros").beginObject()
+                .name("p50").value(latencies.getValueAtPercentile(50) / 1000.0)
+                .name("p90").value(latencies.getValueAtPercentile(90) / 1000.0)
+                .name("p99").value(latencies.getValueAtPercentile(99) / 1000.0)
+                .name("max").value(latencies.getMax() / 1000.0)
+                .endObject()
+                .endObject()
+                .toString();
+    }
+
+    private void printReport() {
+        System.out.printf("clients:            %d%n", clientCount);
+        System.out.printf("requests:           %d in %.3f s%n", getRequestCount(), elapsedNanos / 1e9);
+        System.out.printf("throughput:         %.0f requests/s%n", getRequestsPerSecond());
+        System.out.printf("latency (us):       p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n",
+                latencies.getValueAtPercentile(50) / 1000.0, latencies.getValueAtPercentile(90) / 1000.0,
+                latencies.getValueAtPercentile(99) / 1000.0, latencies.getMax() / 1000.0);
+        System.out.printf("tasks:              %d of %d expected%n", taskCount, getExpectedTaskCount());
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clientCount = 32;
+        int requestsPerClient = 200;
+        int warmupRequestsPerClient = 50;
+        Path outFile = null;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+            case "--clients":
+                clientCount = Integer.parseInt(args[i + 1]);
+                break;
+            case "--requests":
+                requestsPerClient = Integer.parseInt(args[i + 1]);
+                break;
+            case "--warmup":
+                warmupRequestsPerClient = Integer.parseInt(args[i + 1]);
+                break;
+            case "--out":
+                outFile = Path.of(args[i + 1]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        ApiLoadHarness harness = new ApiLoadHarness(clientCount, requestsPerClient, warmupRequestsPerClient);
+        harness.run();
+        harness.printReport();
+
+        if (outFile != null) {
+            Files.writeString(outFile, harness.toJson() + "\n");
+        }
+        if (harness.taskCount != harness.getExpectedTaskCount()) {
+            System.out.println("FAILED: some added tasks were lost");
+            System.exit(1);
+        }
+    }
+}
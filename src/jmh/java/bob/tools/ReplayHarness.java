@@ -0,0 +1,233 @@
+package bob.tools;
+
+import bob.Bob;
+import bob.metrics.LatencyHistogram;
+import bob.output.ConsoleSink;
+import bob.output.NullSink;
+import bob.util.Json;
+import bob.util.JsonWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays a recorded command stream through Bob end to end and reports how fast it went.
+ * <p>
+ * In {@code response} mode, every command goes through {@link Bob#getResponse(String)}, like the GUI does,
+ * and the latency of each command is recorded. In {@code stdin} mode, the whole stream is piped into
+ * {@link Bob#run()}, like the console does, with the output rendered to a stream that discards it,
+ * so only the overall throughput is known.
+ * <p>
+ * Usage: {@code ReplayHarness --commands FILE [--tasks FILE] [--mode response|stdin] [--warmup N] [--out FILE]
+ * [--baseline FILE] [--max-regression PERCENT]}. The initial task file is copied, never modified.
+ * With a baseline, which is the {@code --out} file of an earlier run, the harness exits with status 1 if
+ * the throughput dropped by more than the allowed percentage, 10% by default.
+ */
+public class ReplayHarness {
+    private final List<String> commands;
+    private final Path tasksFile;
+    private final boolean isStdinMode;
+
+    private long commandCount;
+    private long elapsedNanos;
+    private long allocatedBytes;
+    private long fileSize;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    private ReplayHarness(List<String> commands, Path tasksFile, boolean isStdinMode) {
+        this.commands = commands;
+        this.tasksFile = tasksFile;
+        this.isStdinMode = isStdinMode;
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread so far, or 0 if the JVM cannot tell.
+     */
+    private static long getAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * Replays the command stream once on a fresh copy of the task file.
+     *
+     * @param isMeasured whether the results of this run are kept
+     */
+    private void replay(boolean isMeasured) throws IOException {
+        Path directory = Files.createTempDirectory("bob-replay");
+        Path dataFile = directory.resolve("Bob.txt");
+        if (tasksFile != null) {
+            Files.copy(tasksFile, dataFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        try {
+            if (isStdinMode) {
+                replayThroughStdin(dataFile, isMeasured);
+            } else {
+                replayThroughGetResponse(dataFile, isMeasured);
+            }
+
+            if (isMeasured) {
+                fileSize = Files.exists(dataFile) ? Files.size(dataFile) : 0;
+            }
+        } finally {
+            Files.deleteIfExists(dataFile);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private void replayThroughGetResponse(Path dataFile, boolean isMeasured) {
+        Bob bob = new Bob(dataFile.toString(), NullSink.INSTANCE);
+
+        long startBytes = getAllocatedBytes();
+        long start = System.nanoTime();
+        for (String command : commands) {
+            long commandStart = System.nanoTime();
+            bob.getResponse(command);
+            if (isMeasured) {
+                latencies.record(System.nanoTime() - commandStart);
+            }
+        }
+
+        if (isMeasured) {
+            elapsedNanos = System.nanoTime() - start;
+            allocatedBytes = getAllocatedBytes() - startBytes;
+            commandCount = commands.size();
+        }
+    }
+
+    private void replayThroughStdin(Path dataFile, boolean isMeasured) {
+        String input = String.join("\n", commands) + "\n";
+        InputStream originalIn = System.in;
+        System.setIn(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+        try {
+            Bob bob = new Bob(dataFile.toString(), new ConsoleSink(new PrintStream(OutputStream.nullOutputStream())));
+
+            long startBytes = getAllocatedBytes();
+            long start = System.nanoTime();
+            bob.run();
+            if (isMeasured) {
+                elapsedNanos = System.nanoTime() - start;
+                allocatedBytes = getAllocatedBytes() - startBytes;
+                commandCount = commands.size();
+            }
+        } finally {
+            System.setIn(originalIn);
+        }
+    }
+
+    private double getCommandsPerSecond() {
+        return commandCount / (elapsedNanos / 1e9);
+    }
+
+    private String toJson() {
+        JsonWriter json = new JsonWriter().beginObject()
+                .name("mode").value(isStdinMode ? "stdin" : "response")
+                .name("commands").value(commandCount)
+                .name("seconds").value(elapsedNanos / 1e9)
+                .name("commandsPerSecond").value(getCommandsPerSecond())
+                .name("allocatedBytesPerCommand").value((double) allocatedBytes / commandCount)
+                .name("fileSizeBytes").value(fileSize);
+        if (!isStdinMode) {
+            json.name("latencyMicros").beginObject()
+                    .name("p50").value(latencies.getValueAtPercentile(50) / 1000.0)
+                    .name("p90").value(latencies.getValueAtPercentile(90) / 1000.0)
+                    .name("p99").value(latencies.getValueAtPercentile(99) / 1000.0)
+                    .name("p999").value(latencies.getValueAtPercentile(99.9) / 1000.0)
+                    .name("max").value(latencies.getMax() / 1000.0)
+                    .endObject();
+        }
+        return json.endObject().toString();
+    }
+
+    private void printReport() {
+        System.out.printf("mode:               %s%n", isStdinMode ? "stdin" : "response");
+        System.out.printf("commands:           %d in %.3f s%n", commandCount, elapsedNanos / 1e9);
+        System.out.printf("throughput:         %.0f commands/s%n", getCommandsPerSecond());
+        if (!isStdinMode) {
+            System.out.printf("latency (us):       p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                    latencies.getValueAtPercentile(50) / 1000.0, latencies.getValueAtPercentile(90) / 1000.0,
+                    latencies.getValueAtPercentile(99) / 1000.0, latencies.getValueAtPercentile(99.9) / 1000.0,
+                    latencies.getMax() / 1000.0);
+        }
+        System.out.printf("allocated/command:  %.0f bytes%n", (double) allocatedBytes / commandCount);
+        System.out.printf("final file size:    %d bytes%n", fileSize);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path commandsFile = null;
+        Path tasksFile = null;
+        boolean isStdinMode = false;
+        int warmupRuns = 1;
+        Path outFile = null;
+        Path baselineFile = null;
+        double maxRegressionPercent = 10;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+            case "--commands":
+                commandsFile = Path.of(args[i + 1]);
+                break;
+            case "--tasks":
+                tasksFile = Path.of(args[i + 1]);
+                break;
+            case "--mode":
+                isStdinMode = args[i + 1].equals("stdin");
+                break;
+            case "--warmup":
+                warmupRuns = Integer.parseInt(args[i + 1]);
+                break;
+            case "--out":
+                outFile = Path.of(args[i + 1]);
+                break;
+            case "--baseline":
+                baselineFile = Path.of(args[i + 1]);
+                break;
+            case "--max-regression":
+                maxRegressionPercent = Double.parseDouble(args[i + 1]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (commandsFile == null) {
+            throw new IllegalArgumentException("--commands is required");
+        }
+
+        ReplayHarness harness = new ReplayHarness(Files.readAllLines(commandsFile), tasksFile, isStdinMode);
+        for (int i = 0; i < warmupRuns; ++i) {
+            harness.replay(false);
+        }
+        harness.replay(true);
+        harness.printReport();
+
+        if (outFile != null) {
+            Files.writeString(outFile, harness.toJson() + "\n");
+        }
+
+        if (baselineFile != null) {
+            Map<String, Object> baseline = Json.parseObject(Files.readString(baselineFile));
+            double baselineThroughput = ((Number) baseline.get("commandsPerSecond")).doubleValue();
+            double change = (harness.getCommandsPerSecond() - baselineThroughput) / baselineThroughput * 100;
+            System.out.printf("vs baseline:        %+.1f%% (%.0f commands/s)%n", change, baselineThroughput);
+            if (change < -maxRegressionPercent) {
+                System.out.printf("FAILED: throughput regressed by more than %.1f%%%n", maxRegressionPercent);
+                System.exit(1);
+            }
+        }
+    }
+}
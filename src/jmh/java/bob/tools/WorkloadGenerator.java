@@ -0,0 +1,314 @@
+package bob.tools;
+
+import bob.Storage;
+import bob.task.Deadline;
+import bob.task.Event;
+import bob.task.Task;
+import bob.task.Todo;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates synthetic task files in the {@code Storage} encoding, and command streams that run on them.
+ * The same seed always generates the same output, so workloads of any size can be reproduced from a few numbers.
+ * <p>
+ * The distributions roughly follow a real task list: half the tasks are todos, descriptions are a few words long
+ * with a long tail, most tasks have zero or one tag and a few tags are much more popular than the rest,
+ * and dates cluster around the present. Command streams mostly add, mark and search, and every index they use
+ * is valid at the point it is executed.
+ * <p>
+ * Usage: {@code WorkloadGenerator [--tasks N] [--commands N] [--seed N] [--tags N] [--out DIRECTORY]},
+ * which writes {@code tasks.txt} and {@code commands.txt} to the directory.
+ */
+public class WorkloadGenerator {
+    /** All generated dates are within two years of this date. */
+    public static final LocalDateTime BASE_DATE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final String[] WORDS = {
+        "finish", "report", "buy", "bread", "milk", "prepare", "for", "the", "midterms", "grading", "hackathon",
+        "call", "mum", "dad", "read", "chapter", "submit", "assignment", "clean", "room", "project", "meeting",
+        "review", "pull", "request", "lecture", "tutorial", "lab", "quiz", "exam", "book", "flight", "hotel",
+        "pay", "rent", "bills", "gym", "run", "dentist", "appointment", "groceries", "laundry", "email", "team",
+        "update", "slides", "draft", "proposal", "fix", "bug", "deploy", "release", "plan", "trip", "birthday",
+        "gift", "party", "water", "plants", "walk", "dog", "renew", "passport", "insurance", "taxes", "budget"
+    };
+    private static final String[] TAG_NAMES = {
+        "URGENT", "work", "school", "home", "errands", "health", "finance", "family", "JustAnotherDay", "travel",
+        "reading", "chores", "social", "hobby", "admin"
+    };
+    private static final DateTimeFormatter INPUT_FORMATTER = DateTimeFormatter.ofPattern("d/M/uuuu HHmm");
+    private static final int MAX_DESCRIPTION_WORDS = 24;
+    private static final int PAGE_SIZE = 20;
+
+    private final Random random;
+    private final String[] tags;
+    private final ZipfSampler wordSampler;
+    private final ZipfSampler tagSampler;
+
+    /**
+     * Samples the ranks 0 to n - 1 with a probability proportional to {@code 1 / (rank + 1)^exponent}.
+     */
+    private static class ZipfSampler {
+        private final double[] cumulative;
+
+        ZipfSampler(int n, double exponent) {
+            cumulative = new double[n];
+            double total = 0;
+            for (int i = 0; i < n; ++i) {
+                total += 1 / Math.pow(i + 1, exponent);
+                cumulative[i] = total;
+            }
+            for (int i = 0; i < n; ++i) {
+                cumulative[i] /= total;
+            }
+        }
+
+        int sample(Random random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+
+    /**
+     * Constructs a generator.
+     *
+     * @param seed the seed that everything is generated from
+     * @param tagCount the number of distinct tags to use
+     */
+    public WorkloadGenerator(long seed, int tagCount) {
+        assert tagCount > 0 : "there should be at least one tag";
+        this.random = new Random(seed);
+        this.tags = new String[tagCount];
+        for (int i = 0; i < tagCount; ++i) {
+            tags[i] = i < TAG_NAMES.length ? TAG_NAMES[i] : "project" + (i - TAG_NAMES.length + 1);
+        }
+        this.wordSampler = new ZipfSampler(WORDS.length, 0.8);
+        this.tagSampler = new ZipfSampler(tagCount, 1.1);
+    }
+
+    /**
+     * Returns the tag with the given popularity rank, where 0 is the most popular.
+     */
+    public String getTag(int rank) {
+        return tags[rank];
+    }
+
+    private String nextDescription() {
+        // Geometric number of extra words, so most descriptions are short but a few are long
+        int wordCount = 1;
+        while (wordCount < MAX_DESCRIPTION_WORDS && random.nextDouble() < 0.7) {
+            ++wordCount;
+        }
+
+        StringBuilder description = new StringBuilder(WORDS[wordSampler.sample(random)]);
+        for (int i = 1; i < wordCount; ++i) {
+            description.append(' ').append(WORDS[wordSampler.sample(random)]);
+        }
+        return description.toString();
+    }
+
+    private String[] nextTags() {
+        double p = random.nextDouble();
+        int count = p < 0.45 ? 0 : p < 0.80 ? 1 : p < 0.95 ? 2 : 3;
+
+        Set<String> chosen = new LinkedHashSet<>();
+        for (int i = 0; i < count; ++i) {
+            chosen.add(tags[tagSampler.sample(random)]);
+        }
+        return chosen.toArray(new String[0]);
+    }
+
+    private LocalDateTime nextDate() {
+        // Normally distributed around three months after the base date, in quarter hours, within two years
+        double days = Math.max(-365, Math.min(365, 90 + random.nextGaussian() * 120));
+        long quarterHours = Math.round(days * 24 * 4);
+        return BASE_DATE.plusMinutes(quarterHours * 15);
+    }
+
+    private LocalDateTime nextEventEnd(LocalDateTime from) {
+        // Log-normal duration with a median of two hours, at most two weeks
+        double hours = Math.min(24 * 14, 2 * Math.exp(random.nextGaussian()));
+        return from.plusMinutes(15 + Math.round(hours * 60 / 15) * 15);
+    }
+
+    /**
+     * Returns a new random task. About 40% of tasks are done.
+     */
+    public Task nextTask() {
+        String description = nextDescription();
+        String[] taskTags = nextTags();
+        double p = random.nextDouble();
+
+        Task task;
+        if (p < 0.5) {
+            task = new Todo(description);
+        } else if (p < 0.8) {
+            task = new Deadline(description, nextDate());
+        } else {
+            LocalDateTime from = nextDate();
+            task = new Event(description, from, nextEventEnd(from));
+        }
+
+        // Tags passed to the constructor go through Set.of(), whose iteration order changes from run to run,
+        // so they are added one at a time to keep the encoded output the same for the same seed
+        for (String tag : taskTags) {
+            task.tag(tag);
+        }
+
+        if (random.nextDouble() < 0.4) {
+            task.mark();
+        }
+        return task;
+    }
+
+    /**
+     * Returns a new list of the given number of random tasks.
+     */
+    public List<Task> nextTasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            tasks.add(nextTask());
+        }
+        return tasks;
+    }
+
+    /**
+     * Writes the given number of random tasks as a {@code Storage} data file, with the IDs 1 to {@code count}.
+     * Tasks are written as they are generated, so the count is not limited by memory.
+     */
+    public void writeTasks(Writer out, long count) throws IOException {
+        out.write(Storage.encodeHeader(count + 1));
+        for (long i = 0; i < count; ++i) {
+            Task task = nextTask();
+            task.setId(i + 1);
+            out.write(Storage.encode(task));
+        }
+    }
+
+    /**
+     * Returns a random index from 1 to {@code taskCount}, biased towards recently added tasks.
+     */
+    private int nextIndex(int taskCount) {
+        if (random.nextDouble() < 0.5) {
+            return taskCount - random.nextInt(Math.min(taskCount, 100));
+        }
+        return 1 + random.nextInt(taskCount);
+    }
+
+    /**
+     * Writes the given number of random commands, one per line, followed by {@code bye}.
+     * Every command is valid when the commands are run in order on a list that starts with
+     * {@code initialTaskCount} tasks.
+     */
+    public void writeCommands(Writer out, long count, int initialTaskCount) throws IOException {
+        int taskCount = initialTaskCount;
+        for (long i = 0; i < count; ++i) {
+            String command = nextCommand(taskCount);
+            if (command.startsWith("todo ") || command.startsWith("deadline ") || command.startsWith("event ")) {
+                ++taskCount;
+            } else if (command.startsWith("delete ")) {
+                --taskCount;
+            }
+            out.write(command);
+            out.write('\n');
+        }
+        out.write("bye\n");
+    }
+
+    /**
+     * Returns a random command that is valid on a list of the given number of tasks.
+     */
+    public String nextCommand(int taskCount) {
+        int p = random.nextInt(100);
+        if (taskCount == 0) {
+            // Only adding makes sense on an empty list
+            p = random.nextInt(40);
+        }
+
+        if (p < 20) {
+            return "todo " + nextDescription();
+        } else if (p < 32) {
+            return "deadline " + nextDescription() + " /by " + INPUT_FORMATTER.format(nextDate());
+        } else if (p < 40) {
+            LocalDateTime from = nextDate();
+            return "event " + nextDescription() + " /from " + INPUT_FORMATTER.format(from)
+                    + " /to " + INPUT_FORMATTER.format(nextEventEnd(from));
+        } else if (p < 54) {
+            return "mark " + nextIndex(taskCount);
+        } else if (p < 58) {
+            return "unmark " + nextIndex(taskCount);
+        } else if (p < 70) {
+            return "find " + WORDS[wordSampler.sample(random)];
+        } else if (p < 76) {
+            return "tag #" + tags[tagSampler.sample(random)];
+        } else if (p < 82) {
+            return "tag " + nextIndex(taskCount) + " " + tags[tagSampler.sample(random)];
+        } else if (p < 85) {
+            return "untag " + nextIndex(taskCount);
+        } else if (p < 95) {
+            return "delete " + nextIndex(taskCount);
+        } else {
+            int pageCount = (taskCount + PAGE_SIZE - 1) / PAGE_SIZE;
+            return "list /page " + (1 + random.nextInt(pageCount)) + " /size " + PAGE_SIZE;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        long taskCount = 100_000;
+        long commandCount = 100_000;
+        long seed = 1;
+        int tagCount = 50;
+        Path directory = Path.of("build", "workload");
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+            case "--tasks":
+                taskCount = Long.parseLong(args[i + 1]);
+                break;
+            case "--commands":
+                commandCount = Long.parseLong(args[i + 1]);
+                break;
+            case "--seed":
+                seed = Long.parseLong(args[i + 1]);
+                break;
+            case "--tags":
+                tagCount = Integer.parseInt(args[i + 1]);
+                break;
+            case "--out":
+                directory = Path.of(args[i + 1]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        assert taskCount <= Integer.MAX_VALUE : "a task list holds at most Integer.MAX_VALUE tasks";
+
+        Files.createDirectories(directory);
+        WorkloadGenerator generator = new WorkloadGenerator(seed, tagCount);
+        Path tasksFile = directory.resolve("tasks.txt");
+        try (Writer out = new BufferedWriter(new FileWriter(tasksFile.toFile()), 1 << 16)) {
+            generator.writeTasks(out, taskCount);
+        }
+
+        Path commandsFile = directory.resolve("commands.txt");
+        try (Writer out = new BufferedWriter(new FileWriter(commandsFile.toFile()), 1 << 16)) {
+            generator.writeCommands(out, commandCount, (int) taskCount);
+        }
+
+        System.out.println("Wrote " + taskCount + " tasks to " + tasksFile + " and " + commandCount
+                + " commands to " + commandsFile);
+    }
+}
@@ -2,40 +2,164 @@ package bob;
 
 import bob.command.Command;
 import bob.exception.BobException;
+import bob.metrics.Metrics;
+import bob.output.ConsoleSink;
+import bob.output.OutputSink;
+import bob.reminder.ReminderService;
+import bob.server.ApiServer;
+import bob.server.NdjsonServer;
+import bob.task.Task;
 
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The main class of BobBot.
  * BobBot is a chatbot that helps users manage tasks.
  */
 public class Bob {
+    private static final String DATA_FILE_PATH = "data/Bob.txt";
+    private static final int DEFAULT_SERVER_PORT = 8080;
+
     private final Storage storage;
     private final Ui ui;
     private final Parser parser;
     private TaskList tasks;
+    private Storage.Loader loader;
+    private boolean isLoaded = false;
     private String commandType = "";
     private boolean isExit = false;
 
     /**
-     * Constructs a Bob instance that stores data at the given filePath.
+     * Constructs a Bob instance that stores data at the given filePath and outputs to the console.
      *
      * @param filePath where this instance of BobBot stores its data
      */
     public Bob(String filePath) {
-        ui = new Ui();
+        this(filePath, new ConsoleSink());
+    }
+
+    /**
+     * Constructs a Bob instance that stores data at the given filePath and outputs to the given sink.
+     *
+     * @param filePath where this instance of BobBot stores its data
+     * @param sink the sink that all output of this instance is sent to
+     */
+    public Bob(String filePath, OutputSink sink) {
+        this(filePath, sink, true);
+    }
+
+    /**
+     * Constructs a Bob instance that stores data at the given filePath and outputs to the given sink.
+     * If {@code isLoadedEagerly} is false, the task list starts out empty, and the data must be loaded
+     * with {@link #startLoading()} and {@link #loadChunk(int)}.
+     *
+     * @param filePath where this instance of BobBot stores its data
+     * @param sink the sink that all output of this instance is sent to
+     * @param isLoadedEagerly true if the data should be loaded before the constructor returns
+     */
+    public Bob(String filePath, OutputSink sink, boolean isLoadedEagerly) {
+        ui = new Ui(sink);
         storage = new Storage(filePath);
         parser = new Parser();
-        try {
-            tasks = new TaskList(storage.load());
-        } catch (BobException e) {
-            ui.printError(e.getMessage());
+        if (isLoadedEagerly) {
+            try {
+                tasks = storage.loadTaskList();
+            } catch (BobException e) {
+                ui.printError(e.getMessage());
+                tasks = new TaskList();
+            }
+            isLoaded = true;
+        } else {
             tasks = new TaskList();
         }
 
         ui.printGreeting();
     }
 
+    /**
+     * Starts loading the data of this Bob instance.
+     * The tasks that are already loaded can be used while the rest are being loaded.
+     */
+    public void startLoading() {
+        assert !isLoaded && loader == null : "data should only be loaded once";
+        loader = storage.openLoader();
+    }
+
+    /**
+     * Loads up to {@code maxTasks} more tasks into the task list.
+     * If the data file is corrupted, the task list is emptied and loading stops.
+     * If the data file cannot be read, loading stops and the data file is never saved over, since the tasks that
+     * could not be read would be lost.
+     *
+     * @param maxTasks the maximum number of tasks to load
+     * @return true if there may be more tasks to load, false once loading is complete
+     * @throws BobException if the data file is corrupted
+     * @throws UncheckedIOException if the data file cannot be read
+     */
+    public boolean loadChunk(int maxTasks) {
+        assert loader != null : "startLoading() should be called before loadChunk()";
+
+        List<Task> chunk = new ArrayList<>();
+        boolean hasMore;
+        try {
+            hasMore = loader.loadChunk(chunk, maxTasks);
+        } catch (BobException e) {
+            finishLoading();
+            tasks.reset();
+            throw e;
+        } catch (UncheckedIOException e) {
+            try {
+                loader.close();
+            } catch (UncheckedIOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            loader = null;
+            throw e;
+        }
+
+        tasks.addAll(chunk);
+        loader.restore(tasks);
+        if (!hasMore) {
+            finishLoading();
+        }
+        return hasMore;
+    }
+
+    private void finishLoading() {
+        loader.close();
+        loader = null;
+        isLoaded = true;
+    }
+
+    /**
+     * Returns the fraction of the data that has been loaded, from 0 to 1.
+     */
+    public double getLoadProgress() {
+        return loader == null ? 1 : loader.getProgress();
+    }
+
+    /**
+     * Checks if the given input is a command that does not modify the task list.
+     * Inputs that are not valid commands are considered read-only, since they only result in an error message.
+     *
+     * @param input the user's chat message
+     * @return true if executing the input does not modify the task list
+     */
+    public boolean isReadOnly(String input) {
+        try {
+            return parser.parse(input).isReadOnly();
+        } catch (BobException e) {
+            return true;
+        }
+    }
+
     public void run() {
         assert ui != null : "ui should not be null";
         assert storage != null : "storage should not be null";
@@ -47,15 +171,25 @@ public class Bob {
                 String input = ui.readInput();
 
                 assert input != null : "input should not be null";
-                Command c = parser.parse(input);
+                Command c = Metrics.getGlobal().parse(parser, input);
 
                 assert c != null : "command should not be null";
-                c.execute(tasks, ui, storage);
+                Metrics.getGlobal().execute(c, tasks, ui, storage);
                 isExit = c.isExit();
             } catch (BobException e) {
                 ui.printError(e.getMessage());
             }
         }
+        ui.flush();
+        dumpMetrics();
+    }
+
+    private static void dumpMetrics() {
+        try {
+            Metrics.getGlobal().dump(Metrics.FILE_PATH);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
     /**
@@ -64,15 +198,98 @@ public class Bob {
     public void exit() {
         assert storage != null : "storage should not be null";
 
+        // Never overwrite the data file with a partially loaded list
+        if (!isLoaded) {
+            dumpMetrics();
+            return;
+        }
+
         try {
             storage.save(tasks);
         } catch (IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            dumpMetrics();
+        }
+    }
+
+    /**
+     * Runs BobBot on the console, reminding the user of tasks that are coming up.
+     * With {@code --server [port]}, serves the JSON API instead.
+     * With {@code --server [port] --tenants <directory>}, serves the task lists of many users stored in the directory.
+     * With {@code --script <file> [--atomic]}, runs the commands in the file and exits.
+     * With {@code --ndjson}, answers newline-delimited JSON requests on the standard input until it ends.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 1 && args[0].equals("--script")) {
+            boolean isAtomic = args.length > 2 && args[2].equals("--atomic");
+            System.exit(runScript(args[1], isAtomic) ? 0 : 1);
         }
+
+        if (args.length > 0 && args[0].equals("--ndjson")) {
+            NdjsonServer.run(DATA_FILE_PATH);
+            dumpMetrics();
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("--server")) {
+            int port = DEFAULT_SERVER_PORT;
+            String tenantDirectory = null;
+            for (int i = 1; i < args.length; ++i) {
+                if (args[i].equals("--tenants") && i + 1 < args.length) {
+                    tenantDirectory = args[++i];
+                } else {
+                    port = Integer.parseInt(args[i]);
+                }
+            }
+
+            if (tenantDirectory != null) {
+                ApiServer.runTenants(tenantDirectory, port);
+            } else {
+                ApiServer.run(DATA_FILE_PATH, port);
+            }
+            return;
+        }
+
+        Bob bob = new Bob(DATA_FILE_PATH);
+        ReminderService reminders = new ReminderService(new ConsoleSink());
+        bob.addTaskListListener(reminders);
+        reminders.start();
+        bob.run();
+        reminders.stop();
     }
 
-    public static void main(String[] args) {
-        new Bob("data/Bob.txt").run();
+    /**
+     * Runs the commands in the given script file on the data file, reporting errors to the standard error.
+     *
+     * @param scriptPath the path of the script file
+     * @param isAtomic whether the data file should only be replaced if every command succeeded
+     * @return true if every command succeeded and the data was saved
+     */
+    private static boolean runScript(String scriptPath, boolean isAtomic) throws IOException {
+        PrintStream errors = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.err)));
+        ScriptRunner runner = new ScriptRunner(DATA_FILE_PATH, errors);
+
+        long start = System.nanoTime();
+        boolean isSuccessful;
+        try {
+            isSuccessful = runner.run(scriptPath, isAtomic);
+        } finally {
+            errors.flush();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Ran " + runner.getCommandCount() + " commands in " + elapsedMillis + " ms with "
+                + runner.getErrorCount() + " errors.");
+        if (isSuccessful || !isAtomic) {
+            System.out.println("Saved " + runner.getTaskCount() + " tasks to " + DATA_FILE_PATH + ".");
+        } else {
+            System.out.println("Nothing was saved, since the script had errors.");
+        }
+        dumpMetrics();
+        return isSuccessful;
     }
 
     /**
@@ -85,8 +302,8 @@ public class Bob {
         assert tasks != null : "tasks should not be null";
 
         try {
-            Command c = parser.parse(input);
-            c.execute(tasks, ui, storage);
+            Command c = Metrics.getGlobal().parse(parser, input);
+            Metrics.getGlobal().execute(c, tasks, ui, storage);
             commandType = c.getClass().getSimpleName();
             isExit = c.isExit();
         } catch (BobException e) {
@@ -96,6 +313,16 @@ public class Bob {
         return ui.getLastMessage();
     }
 
+    /**
+     * Registers a listener that is notified of every change to the task list of this Bob instance.
+     *
+     * @param listener the listener to register
+     * @see TaskList#addListener(TaskListListener)
+     */
+    public void addTaskListListener(TaskListListener listener) {
+        tasks.addListener(listener);
+    }
+
     /**
      * Returns the last message of this Bob instance.
      */
@@ -1,6 +1,8 @@
 package bob;
 
 import bob.gui.MainWindow;
+import bob.gui.Transcript;
+import bob.output.GuiSink;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -13,7 +15,8 @@ import java.io.IOException;
 
 public class Main extends Application {
 
-    private Bob bob = new Bob("data/Bob.txt");
+    private Bob bob;
+    private MainWindow mainWindow;
 
     @Override
     public void start(Stage stage) {
@@ -27,8 +30,16 @@ public class Main extends Application {
             Scene scene = new Scene(ap);
             stage.setScene(scene);
             stage.setMinHeight(220);
-            stage.setMinWidth(417);
-            fxmlLoader.<MainWindow>getController().setBob(bob);  // inject the Bob instance
+            stage.setMinWidth(657);
+            mainWindow = fxmlLoader.getController();
+            mainWindow.setTranscript(new Transcript("data/transcript.txt"));
+
+            // Everything Bob outputs goes straight to the window. The data is loaded in the background once the
+            // window is shown.
+            GuiSink sink = new GuiSink();
+            mainWindow.setSink(sink);
+            bob = new Bob("data/Bob.txt", sink, false);
+            mainWindow.setBobAndLoad(bob);  // inject the Bob instance
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
@@ -37,6 +48,10 @@ public class Main extends Application {
 
     @Override
     public void stop() {
-        bob.exit();
+        if (mainWindow != null) {
+            mainWindow.shutdown();
+        } else if (bob != null) {
+            bob.exit();
+        }
     }
 }
\ No newline at end of file
@@ -4,28 +4,43 @@ import bob.command.Command;
 import bob.exception.UnknownCommandException;
 import bob.util.ClassGetter;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * The Parser class handles interpreting user input and provides the appropriate commands to be executed.
  */
 public class Parser {
-    private static final String ARGUMENT_PREFIX = "/";
-    private HashMap<String, Class<? extends Command>> commandTable;
+    private static final char ARGUMENT_PREFIX = '/';
+    private final Map<String, Class<? extends Command>> commandTable;
 
     /**
-     * Constructs a parser instance and load commands into its search table from the <code>bob.command</code> package.
+     * Holds the table of all commands in the <code>bob.command</code> package.
+     * The package is only scanned once, the first time a parser is constructed, and the table is shared by all
+     * parsers since it never changes.
+     */
+    private static class CommandRegistry {
+        private static final Map<String, Class<? extends Command>> COMMAND_TABLE = loadCommands();
+        private static final Map<Class<? extends Command>, Constructor<? extends Command>> CONSTRUCTORS =
+                loadConstructors(COMMAND_TABLE);
+    }
+
+    /**
+     * Constructs a parser instance that uses the commands in the <code>bob.command</code> package.
      */
     public Parser() {
-        this.loadCommands();
+        this.commandTable = CommandRegistry.COMMAND_TABLE;
     }
 
-    private void loadCommands() {
+    private static Map<String, Class<? extends Command>> loadCommands() {
         // Create a new HashMap
-        commandTable = new HashMap<>();
+        Map<String, Class<? extends Command>> commandTable = new HashMap<>();
 
         // Get all classes from the bob.command package
         Set<Class<?>> allClasses = ClassGetter.getClassesFromPackage(Command.class.getPackageName());
@@ -49,6 +64,21 @@ public class Parser {
             // Map the value of "COMMAND" in the class with the class itself, and put it in the commandTable
             commandTable.put(command, clazz.asSubclass(Command.class));
         }
+
+        return Map.copyOf(commandTable);
+    }
+
+    private static Map<Class<? extends Command>, Constructor<? extends Command>> loadConstructors(
+            Map<String, Class<? extends Command>> commandTable) {
+        Map<Class<? extends Command>, Constructor<? extends Command>> constructors = new HashMap<>();
+        for (Class<? extends Command> clazz : commandTable.values()) {
+            try {
+                constructors.put(clazz, clazz.getConstructor(Map.class));
+            } catch (NoSuchMethodException e) {
+                // Commands without a constructor that takes the arguments cannot be created, see parse()
+            }
+        }
+        return Map.copyOf(constructors);
     }
 
     private Class<? extends Command> getCommand(String command) {
@@ -70,10 +100,14 @@ public class Parser {
         Map<String, String> tokenizedString = tokenize(string);
         Class<? extends Command> commandClazz = getCommand(tokenizedString.get("CMD"));
 
+        Constructor<? extends Command> constructor = CommandRegistry.CONSTRUCTORS.get(commandClazz);
+        if (constructor == null) {
+            throw new UnknownCommandException();
+        }
+
         try {
-            return commandClazz.getConstructor(Map.class).newInstance(tokenizedString);
-        } catch (NoSuchMethodException | InvocationTargetException |
-                 InstantiationException | IllegalAccessException e) {
+            return constructor.newInstance(tokenizedString);
+        } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
             throw new UnknownCommandException();
         }
     }
@@ -110,19 +144,69 @@ public class Parser {
         return map;
     }
 
+    /**
+     * Splits the given string before and after every argument name, which is a word that begins with
+     * ARGUMENT_PREFIX and is followed by a space or the end of the string. The space before and after an argument
+     * name is kept with the name. For example, <code>"a b /by c"</code> is split into
+     * <code>["a b", " /by ", "c"]</code>.
+     * This gives the same result as splitting with the regex <code>(?&lt;=D)|(?=D)</code>, where D is
+     * <code>((^| )/[^\s]+( |$))</code>, but is much faster than the regex, which needs an unbounded lookbehind.
+     */
     private static String[] splitArguments(String string) {
-        // delimiter matches any word that begins with ARGUMENT_PREFIX, given it is followed by whitespace
-        String delimiter = String.format("((^| )%s[^\\s]+( |$))", ARGUMENT_PREFIX);
+        int length = string.length();
+        TreeSet<Integer> boundaries = new TreeSet<>();
+        for (int i = 0; i < length; i++) {
+            if (string.charAt(i) != ARGUMENT_PREFIX || (i > 0 && string.charAt(i - 1) != ' ')) {
+                continue;
+            }
 
-        // Split the string by each argument, including the delimiter
-        return string.split(String.format("(?<=%1$s)|(?=%1$s)", delimiter));
+            // The name runs until the next whitespace, which must be a space if the name does not end the string
+            int end = i + 1;
+            while (end < length && !isWhitespace(string.charAt(end))) {
+                end++;
+            }
+            if (end == i + 1 || (end < length && string.charAt(end) != ' ')) {
+                continue;
+            }
+
+            boundaries.add(i == 0 ? 0 : i - 1);
+            boundaries.add(end < length ? end + 1 : length);
+        }
+
+        if (boundaries.isEmpty()) {
+            return new String[]{string};
+        }
+
+        List<String> pieces = new ArrayList<>();
+        int start = 0;
+        for (int boundary : boundaries) {
+            if (boundary > 0) {
+                pieces.add(string.substring(start, boundary));
+                start = boundary;
+            }
+        }
+        pieces.add(string.substring(start));
+
+        // Like String.split(), drop trailing empty pieces
+        int size = pieces.size();
+        while (size > 0 && pieces.get(size - 1).isEmpty()) {
+            size--;
+        }
+        return pieces.subList(0, size).toArray(new String[0]);
+    }
+
+    /**
+     * Checks if the given character is whitespace as defined by <code>\s</code> in a regex.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 
     private static void mapArguments(Map<String, String> map, String[] arguments) {
         // Iterate through each argument and its value
         for (int i = 0; i < arguments.length; i++) {
             String s = arguments[i].strip();
-            if (s.startsWith(ARGUMENT_PREFIX)) {
+            if (!s.isEmpty() && s.charAt(0) == ARGUMENT_PREFIX) {
                 // Map the argument name to its value if it exists, otherwise map to ""
                 String s1 = i == arguments.length - 1 ? "" : arguments[++i].strip();
                 map.put(s.substring(1), s1);
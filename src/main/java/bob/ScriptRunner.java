@@ -0,0 +1,115 @@
+package bob;
+
+import bob.command.Command;
+import bob.exception.BobException;
+import bob.metrics.Metrics;
+import bob.output.NullSink;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * Runs the commands in a script file, one per line, on a task list without rendering their output.
+ * Only errors are reported, together with the line number of the command that caused them.
+ * The task list is saved once, after the whole script has run. Blank lines are skipped, and
+ * {@code bye} stops the script early without saving on its own.
+ */
+public class ScriptRunner {
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final Storage storage;
+    private final Parser parser = new Parser();
+    private final Ui ui = new Ui(NullSink.INSTANCE);
+    private final PrintStream errors;
+    private TaskList tasks;
+    private long commandCount = 0;
+    private long errorCount = 0;
+
+    /**
+     * Constructs a script runner over the data stored at the given file path.
+     *
+     * @param filePath where the data is stored
+     * @param errors the stream that errors are reported to
+     */
+    public ScriptRunner(String filePath, PrintStream errors) {
+        this.storage = new Storage(filePath);
+        this.errors = errors;
+    }
+
+    /**
+     * Runs the given script and saves the task list.
+     * If the script is run atomically, the data file is replaced in one step, and left untouched if
+     * any command in the script failed.
+     *
+     * @param scriptPath the path of the script file
+     * @param isAtomic whether the data file should only be replaced if every command succeeded
+     * @return true if every command succeeded and the task list was saved
+     * @throws IOException if the script cannot be read or the data file cannot be written
+     */
+    public boolean run(String scriptPath, boolean isAtomic) throws IOException {
+        tasks = storage.loadTaskList();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(scriptPath), READ_BUFFER_SIZE)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                ++lineNumber;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                if (!runLine(line, lineNumber)) {
+                    break;
+                }
+            }
+        }
+
+        if (isAtomic && errorCount > 0) {
+            // Roll back by never writing the changes
+            return false;
+        }
+
+        if (isAtomic) {
+            storage.saveAtomically(tasks);
+        } else {
+            storage.save(tasks);
+        }
+        return errorCount == 0;
+    }
+
+    /**
+     * Runs a single line of the script.
+     *
+     * @return false if the script should stop
+     */
+    private boolean runLine(String line, long lineNumber) {
+        Command command;
+        try {
+            command = Metrics.getGlobal().parse(parser, line);
+            if (command.isExit()) {
+                return false;
+            }
+
+            ++commandCount;
+            Metrics.getGlobal().execute(command, tasks, ui, storage);
+        } catch (BobException e) {
+            ++errorCount;
+            errors.println("line " + lineNumber + ": " + e.getMessage().replace('\n', ' '));
+        }
+        return true;
+    }
+
+    public long getCommandCount() {
+        return commandCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public int getTaskCount() {
+        return tasks == null ? 0 : tasks.size();
+    }
+}
@@ -1,131 +1,190 @@
 package bob;
 
 import bob.exception.FileCorruptedException;
+import bob.exception.IncorrectArgumentException;
 import bob.exception.LineCorruptedException;
+import bob.index.DependencyGraph;
+import bob.jfr.StorageLoadEvent;
+import bob.jfr.StorageSaveEvent;
+import bob.metrics.Metrics;
 import bob.task.*;
 import bob.util.ClassGetter;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileInputStream;
 import java.io.FileWriter;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * The Storage class handles storing and reading data from files.
- * The formats for encoding and decoding is defined within each task type.
+ * The formats for encoding and decoding is defined within each task type. Every encoded task is prefixed by
+ * its ID, as in <code>#&lt;id&gt; &lt;encoded task&gt;</code>, and the file starts with a
+ * <code>@nextId &lt;id&gt;</code> header holding the ID that the next new task will be given.
+ * Lines without an ID, written by older versions, are still read, and their tasks are given new IDs.
+ * The tasks are followed by a <code>@depends &lt;id&gt; &lt;prerequisite id&gt;...</code> line for every task
+ * that depends on other tasks.
  */
 public class Storage {
     private final File file;
+    // Set once the data file could not be read in full, after which saving over it would lose the unread tasks
+    private boolean hasReadFailed = false;
     public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("ddMMuuuuHHmm");
-    private Class<? extends Task>[] taskClasses;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final char ID_PREFIX = '#';
+    private static final String NEXT_ID_HEADER = "@nextId ";
+    private static final String DEPENDS_PREFIX = "@depends ";
+
+    /**
+     * Holds the encoded letter and decode method of every task class in the {@code bob.task} package.
+     * The package is only scanned once, the first time a Storage instance is constructed, and the registry is shared
+     * by all Storage instances since it never changes.
+     */
+    private static class TaskRegistry {
+        private static final Map<Character, Method> DECODERS = new HashMap<>();
+        private static final Map<Class<? extends Task>, Character> ENCODED_LETTERS = new HashMap<>();
+
+        static {
+            loadTasks();
+        }
+
+        private static void loadTasks() {
+            // Get all classes from the bob.task package
+            Set<Class<?>> allClasses = ClassGetter.getClassesFromPackage(Task.class.getPackageName());
+            assert allClasses != null : "The set of all classes should not be null";
+
+            // Iterate through the classes in the bob.task package
+            for (Class<?> clazz : allClasses) {
+                // If the class does not inherit bob.task.Task, ignore it
+                if (!Task.class.isAssignableFrom(clazz) || clazz.equals(Task.class)) {
+                    continue;
+                }
+
+                try {
+                    // Map the ENCODED_LETTER of the class to its decode(String) method
+                    char encodedLetter = (char) clazz.getDeclaredField("ENCODED_LETTER").get(null);
+                    Method decodeMethod = clazz.getMethod("decode", String.class);
+                    DECODERS.put(encodedLetter, decodeMethod);
+                    ENCODED_LETTERS.put(clazz.asSubclass(Task.class), encodedLetter);
+                } catch (NoSuchMethodException | NoSuchFieldException |
+                         IllegalAccessException | ClassCastException ignored) {
+                    // If this class did not declare a public decode(String) method or ENCODED_LETTER char field,
+                    // ignore it
+                }
+            }
+        }
+    }
 
     /**
      * Constructs a Storage instance that stores and reads files at the given file path,
-     * and loads task classes from the {@code bob.task} package.
+     * using the task classes from the {@code bob.task} package.
      *
      * @param filePath where this instance stores and reads data from
      */
     public Storage(String filePath) {
         file = new File(filePath);
-        this.loadTasks();
-    }
 
-    private void createFile() throws IOException {
-        file.getParentFile().mkdirs();
-        file.createNewFile();
+        // Make sure the task classes are loaded before any file is read
+        assert !TaskRegistry.DECODERS.isEmpty() : "there should be at least one task class";
     }
 
-    private void loadTasks() {
-        // Create a new ArrayList
-        ArrayList<Class<? extends Task>> list = new ArrayList<>();
-
-        // Get all classes from the bob.task package
-        Set<Class<?>> allClasses = ClassGetter.getClassesFromPackage(Task.class.getPackageName());
-        assert allClasses != null : "The set of all classes should not be null";
-
-        // Iterate through the classes in the bob.task package
-        for (Class<?> clazz : allClasses) {
-            // If the class does not inherit bob.task.Task, ignore it
-            if (!Task.class.isAssignableFrom(clazz) || clazz.equals(Task.class)) {
-                continue;
-            }
-
-            // Add the class to the list
-            list.add(clazz.asSubclass(Task.class));
+    private void createFile() throws IOException {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
         }
-
-        // Initialize this.taskClasses and add all classes to it
-        // At no point in the program is any Object added to taskClasses, except here.
-        // Since we only add Class<? extends Task> into the array, it can be safely cast.
-        @SuppressWarnings("unchecked")
-        Class<? extends Task>[] a = (Class<? extends Task>[]) new Class[list.size()];
-        this.taskClasses = a;
-        list.toArray(this.taskClasses);
+        file.createNewFile();
     }
 
     /**
-     * Decodes the given string by calling the static {@code decode()} method on each task class known by this
-     * Storage instance.
+     * Decodes the given string by calling the static {@code decode()} method of the task class whose
+     * {@code ENCODED_LETTER} is the first character of the string.
      *
      * @param encodedString the string to be decoded
      * @return the decoded Task instance
-     * @throws IllegalArgumentException if the given string does not follow any of the formats
+     * @throws LineCorruptedException if the given string does not follow any of the formats
      */
     private Task decode(String encodedString) throws LineCorruptedException {
         assert encodedString != null : "Encoded string should not be null";
 
-        // Iterate through each known task class
-        for (Class<? extends Task> taskClass : taskClasses) {
+        if (encodedString.charAt(0) == ID_PREFIX) {
+            int end = encodedString.indexOf(' ');
+            long id;
             try {
-                // If encodedLetter of this taskClass is not the 1st char of encodedString, continue
-                char encodedLetter = (char) taskClass.getDeclaredField("ENCODED_LETTER").get(null);
-                if (encodedString.charAt(0) != encodedLetter) {
-                    continue;
-                }
-
-                // Invoke the decode(String) method on this taskClass
-                Method decodeMethod = taskClass.getMethod("decode", String.class);
-                return (Task) decodeMethod.invoke(null, encodedString.substring(1));
-            } catch (NoSuchMethodException | NoSuchFieldException |
-                     IllegalAccessException | ClassCastException ignored) {
-                // If this taskClass did not declare a public decode(String) method or encodedLetter char field,
-                // ignore it
-            } catch (InvocationTargetException e) {
-                // If the invoked decode(String) method threw an exception, the line is corrupted
+                id = Long.parseLong(encodedString, 1, end, 10);
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                throw new LineCorruptedException();
+            }
+            if (id <= Task.NO_ID || end + 1 >= encodedString.length()) {
                 throw new LineCorruptedException();
             }
+
+            Task task = decode(encodedString.substring(end + 1));
+            task.setId(id);
+            return task;
         }
 
         // If this string corresponds to no known task class, the line is corrupted
-        throw new LineCorruptedException();
+        Method decodeMethod = TaskRegistry.DECODERS.get(encodedString.charAt(0));
+        if (decodeMethod == null) {
+            throw new LineCorruptedException();
+        }
+
+        try {
+            return (Task) decodeMethod.invoke(null, encodedString.substring(1));
+        } catch (IllegalAccessException | ClassCastException e) {
+            throw new LineCorruptedException();
+        } catch (InvocationTargetException e) {
+            // If the invoked decode(String) method threw an exception, the line is corrupted
+            throw new LineCorruptedException();
+        }
     }
 
     /**
-     * Encodes the given task.
+     * Encodes the given task as a line of the data file, prefixed by its ID.
      *
      * @param task the task to encode
-     * @return the encoded string. Returns an empty string with linebreak the given task is not of a known class.
+     * @return the encoded line, including the line break. Returns an empty string if the given task is not of a
+     *         known class.
      */
-    private String encode(Task task) {
+    public static String encode(Task task) {
         assert task != null : "task should not be null";
 
-        char encodedLetter;
-        try {
-            encodedLetter = (char) task.getClass().getDeclaredField("ENCODED_LETTER").get(null);
-        } catch (IllegalAccessException | NoSuchFieldException | NullPointerException e) {
-            assert true : "the task class " + task.getClass().getSimpleName() + " did not declare"
-                    + "a public static ENCODED_LETTER char field";
+        Character encodedLetter = TaskRegistry.ENCODED_LETTERS.get(task.getClass());
+        if (encodedLetter == null) {
+            assert false : "the task class " + task.getClass().getSimpleName() + " did not declare"
+                    + " a public static ENCODED_LETTER char field";
             return "";
         }
 
-        return encodedLetter + task.encode() + "\n";
+        return String.valueOf(ID_PREFIX) + task.getId() + ' ' + encodedLetter + task.encode() + "\n";
+    }
+
+    /**
+     * Returns the header line that the data file starts with.
+     *
+     * @param nextId the ID that the next new task will be given
+     * @return the header line, including the line break
+     */
+    public static String encodeHeader(long nextId) {
+        return NEXT_ID_HEADER + nextId + "\n";
     }
 
     /**
@@ -135,28 +194,267 @@ public class Storage {
      * @throws FileCorruptedException if any line in the file does not follow the format
      */
     public List<Task> load() {
+        List<Task> tasks = new ArrayList<>();
+        try (Loader loader = openLoader()) {
+            loader.loadChunk(tasks, Integer.MAX_VALUE);
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Reads a task list from the file at the file path of this Storage instance, together with the
+     * dependencies between its tasks and the IDs that were already used.
+     *
+     * @return the task list. Returns an empty list if the file does not exist
+     * @throws FileCorruptedException if any line in the file does not follow the format
+     */
+    public TaskList loadTaskList() {
+        List<Task> loadedTasks = new ArrayList<>();
+        try (Loader loader = openLoader()) {
+            loader.loadChunk(loadedTasks, Integer.MAX_VALUE);
+            TaskList tasks = new TaskList(loadedTasks);
+            loader.restore(tasks);
+            return tasks;
+        }
+    }
+
+    /**
+     * Opens a loader that reads data from the file at the file path of this Storage instance a chunk at a time.
+     * The loader should be closed once it is no longer needed.
+     *
+     * @return a loader over the file. The loader loads no tasks if the file does not exist
+     */
+    public Loader openLoader() {
         if (!file.exists()) {
-            return new ArrayList<>();
+            return new Loader(null, 0);
         }
 
-        List<Task> tasks = new ArrayList<>();
-        Scanner scanner;
         try {
-            scanner = new Scanner(file);
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
+            return new Loader(new CountingInputStream(openStream()), file.length());
+        } catch (IOException e) {
+            hasReadFailed = true;
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens a stream over the data file. Can be overridden to read the data from elsewhere.
+     */
+    InputStream openStream() throws IOException {
+        return new FileInputStream(file);
+    }
+
+    /**
+     * Returns true if reading the data file failed part way, in which case the tasks read from it are incomplete
+     * and the data file should not be saved over.
+     */
+    public boolean hasReadFailed() {
+        return hasReadFailed;
+    }
+
+    /**
+     * Counts the bytes read from a stream, so that the progress of reading a file can be measured in the same
+     * unit as the length of the file.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count = 0;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                ++count;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    /**
+     * Reads and decodes the lines of a data file incrementally, so that a caller can make use of the tasks
+     * that are already loaded and report progress while the rest of the file is being read.
+     */
+    public class Loader implements Closeable {
+        private final BufferedReader reader;
+        // The bytes read by the reader so far, which run ahead of the lines decoded by at most its buffer
+        private final CountingInputStream input;
+        private final long totalLength;
+        private final StorageLoadEvent event = new StorageLoadEvent();
+        private long lineCount = 0;
+        private long corruptedLineCount = 0;
+        private long nextId = Task.NO_ID;
+        // The dependencies read so far, each as the ID of a task followed by the IDs of its prerequisites
+        private final List<long[]> dependencies = new ArrayList<>();
+        private boolean isDone;
+        private boolean isClosed = false;
+
+        private Loader(CountingInputStream input, long totalLength) {
+            this.input = input;
+            this.reader = input == null ? null : new BufferedReader(new InputStreamReader(input));
+            this.totalLength = totalLength;
+            this.isDone = input == null;
+            event.begin();
+        }
+
+        /**
+         * Decodes up to {@code maxTasks} more tasks and adds them to the given list.
+         * Corrupted lines are skipped.
+         *
+         * @param tasks the list that decoded tasks are added to
+         * @param maxTasks the maximum number of tasks to decode
+         * @return true if there may be more tasks to load, false if the end of the file is reached
+         * @throws FileCorruptedException if the file cannot be decoded
+         */
+        public boolean loadChunk(List<Task> tasks, int maxTasks) {
+            assert tasks != null : "tasks should not be null";
+
+            int count = 0;
+            while (!isDone && count < maxTasks) {
+                String line;
+                try {
+                    line = reader.readLine();
+                } catch (IOException e) {
+                    hasReadFailed = true;
+                    throw new UncheckedIOException(e);
+                }
+
+                if (line == null) {
+                    isDone = true;
+                    break;
+                }
+                ++lineCount;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (line.startsWith(NEXT_ID_HEADER)) {
+                    readHeader(line);
+                    continue;
+                }
+                if (line.startsWith(DEPENDS_PREFIX)) {
+                    readDependencies(line);
+                    continue;
+                }
+
+                try {
+                    tasks.add(decode(line));
+                    ++count;
+                } catch (LineCorruptedException ignored) {
+                    ++corruptedLineCount;
+                } catch (RuntimeException e) {
+                    throw new FileCorruptedException();
+                }
+            }
+
+            return !isDone;
         }
 
-        while (scanner.hasNext()) {
+        private void readHeader(String line) {
             try {
-                tasks.add(decode(scanner.nextLine()));
-            } catch (LineCorruptedException ignored) {
-            } catch (RuntimeException e) {
-                throw new FileCorruptedException();
+                nextId = Math.max(nextId, Long.parseLong(line.substring(NEXT_ID_HEADER.length()).trim()));
+            } catch (NumberFormatException e) {
+                ++corruptedLineCount;
             }
         }
 
-        return tasks;
+        private void readDependencies(String line) {
+            String[] ids = line.substring(DEPENDS_PREFIX.length()).trim().split(" ");
+            long[] dependency = new long[ids.length];
+            try {
+                for (int i = 0; i < ids.length; ++i) {
+                    dependency[i] = Long.parseLong(ids[i]);
+                }
+            } catch (NumberFormatException e) {
+                ++corruptedLineCount;
+                return;
+            }
+            dependencies.add(dependency);
+        }
+
+        /**
+         * Applies what was read so far besides the tasks themselves to the given task list, which holds the
+         * tasks loaded so far: the IDs that were already used, and the dependencies between the tasks.
+         * Dependencies on tasks that are not in the list are skipped.
+         *
+         * @param tasks the task list to apply to
+         */
+        public void restore(TaskList tasks) {
+            tasks.reserveIds(nextId);
+
+            for (long[] dependency : dependencies) {
+                int index = tasks.indexOf(dependency[0]);
+                for (int i = 1; i < dependency.length && index >= 0; ++i) {
+                    int prerequisite = tasks.indexOf(dependency[i]);
+                    if (prerequisite < 0) {
+                        continue;
+                    }
+                    try {
+                        tasks.addDependency(index, prerequisite);
+                    } catch (IncorrectArgumentException e) {
+                        // A file that was edited by hand may have a cycle, which is broken here
+                        ++corruptedLineCount;
+                    }
+                }
+            }
+            dependencies.clear();
+        }
+
+        /**
+         * Returns the fraction of the file that has been read, from 0 to 1.
+         */
+        public double getProgress() {
+            if (isDone || totalLength == 0) {
+                return 1;
+            }
+            return Math.min(1, (double) input.count / totalLength);
+        }
+
+        @Override
+        public void close() {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            isDone = true;
+            if (reader == null) {
+                return;
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = file.getPath();
+                event.lines = lineCount;
+                // Counted below the decoder, so these are bytes of the file rather than chars
+                event.bytes = input.count;
+                event.corruptedLines = corruptedLineCount;
+                event.commit();
+            }
+
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
     /**
@@ -166,14 +464,95 @@ public class Storage {
      * @throws IOException if the file cannot be opened
      */
     public void save(TaskList tasks) throws IOException {
+        save(tasks, false);
+    }
+
+    /**
+     * Saves the given task list in the file at the file path of this storage instance, so that the file
+     * either keeps its old contents or has all the new contents, even if saving fails part way.
+     * The tasks are written to a temporary file next to the data file, which then replaces the data file.
+     *
+     * @param tasks the task list to be saved in the file
+     * @throws IOException if the file cannot be written or replaced
+     */
+    public void saveAtomically(TaskList tasks) throws IOException {
+        save(tasks, true);
+    }
+
+    private void save(TaskList tasks, boolean isAtomic) throws IOException {
+        StorageSaveEvent event = new StorageSaveEvent();
+        event.begin();
+        long start = System.nanoTime();
         if (!file.exists()) {
             createFile();
         }
 
-        FileWriter fw = new FileWriter(file, false);
-        for (Task task : tasks) {
-            fw.write(encode(task));
+        long characterCount;
+        if (isAtomic) {
+            File temporaryFile = new File(file.getPath() + ".tmp");
+            try {
+                characterCount = write(temporaryFile, tasks);
+                try {
+                    Files.move(temporaryFile.toPath(), file.toPath(),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporaryFile.toPath());
+            }
+        } else {
+            characterCount = write(file, tasks);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = file.getPath();
+            event.tasks = tasks.size();
+            event.characters = characterCount;
+            event.commit();
+        }
+        Metrics.getGlobal().record(Metrics.SAVE, Metrics.Stage.PERSIST, System.nanoTime() - start);
+    }
+
+    /**
+     * Writes the encoded tasks to the given file, replacing its contents.
+     *
+     * @return the number of characters written
+     */
+    private long write(File target, TaskList tasks) throws IOException {
+        long characterCount = 0;
+        try (Writer writer = new BufferedWriter(new FileWriter(target, false), WRITE_BUFFER_SIZE)) {
+            String header = encodeHeader(tasks.getNextId());
+            writer.write(header);
+            characterCount += header.length();
+            for (Task task : tasks) {
+                String encodedTask = encode(task);
+                writer.write(encodedTask);
+                characterCount += encodedTask.length();
+            }
+
+            DependencyGraph dependencies = tasks.getDependencies();
+            if (dependencies.size() == 0) {
+                return characterCount;
+            }
+            StringBuilder line = new StringBuilder();
+            for (Task task : tasks) {
+                long[] prerequisiteIds = dependencies.getPrerequisiteIds(task.getId());
+                if (prerequisiteIds.length == 0) {
+                    continue;
+                }
+
+                line.setLength(0);
+                line.append(DEPENDS_PREFIX).append(task.getId());
+                for (long prerequisiteId : prerequisiteIds) {
+                    line.append(' ').append(prerequisiteId);
+                }
+                line.append('\n');
+                writer.append(line);
+                characterCount += line.length();
+            }
         }
-        fw.close();
+        return characterCount;
     }
 }
@@ -1,21 +1,46 @@
 package bob;
 
+import bob.index.DependencyGraph;
+import bob.index.DueQueue;
+import bob.index.SortedView;
+import bob.index.TagIndex;
+import bob.index.TrigramIndex;
+import bob.task.Recurring;
 import bob.task.Task;
+import bob.util.LongHashMap;
 
+import java.time.LocalDate;
 import java.util.*;
 
 /**
  * Represents a list of tasks.
+ * Every task in the list has an ID that is assigned when it is first added and never reused,
+ * so a task can be found by its ID no matter how its position changes.
  */
 public class TaskList implements Iterable<Task> {
     private final List<Task> tasks;
     private final Set<String> tags = new HashSet<>();
+    private final List<TaskListListener> listeners = new ArrayList<>();
+    private final LongHashMap<Task> tasksById = new LongHashMap<>();
+    private final DependencyGraph dependencies = new DependencyGraph();
+    private final DueQueue dueQueue = new DueQueue();
+    private final TagIndex tagIndex = new TagIndex();
+    // Created the first time each combination is listed, and kept up to date from then on
+    private final SortedView[][] views =
+            new SortedView[SortedView.Order.values().length][SortedView.Filter.values().length];
+    private TrigramIndex trigramIndex;
+    private long nextId = 1;
+    // Tasks are only ever appended, so their IDs increase along the list unless the data file was edited by hand
+    private boolean isSortedById = true;
 
     /**
      * Constructs an empty task list.
      */
     public TaskList() {
         this.tasks = new ArrayList<>();
+        addListener(dependencies);
+        addListener(dueQueue);
+        addListener(tagIndex);
     }
 
     /**
@@ -25,8 +50,79 @@ public class TaskList implements Iterable<Task> {
      */
     public TaskList(List<Task> tasks) {
         this.tasks = tasks;
-        for (Task task : tasks) {
+        for (int i = 0; i < tasks.size(); ++i) {
+            Task task = tasks.get(i);
             this.tags.addAll(List.of(task.getTags()));
+            register(i, task);
+        }
+        addListener(dependencies);
+        addListener(dueQueue);
+        addListener(tagIndex);
+    }
+
+    /**
+     * Indexes the given task, which was just placed at the given index, by its ID.
+     * Tasks without an ID, or whose ID is already taken, are given the next unused ID.
+     */
+    private void register(int index, Task task) {
+        long id = task.getId();
+        if (id == Task.NO_ID || tasksById.containsKey(id)) {
+            id = nextId;
+            task.setId(id);
+        }
+        nextId = Math.max(nextId, id + 1);
+        tasksById.put(id, task);
+
+        if (index > 0 && tasks.get(index - 1).getId() > id) {
+            isSortedById = false;
+        }
+    }
+
+    /**
+     * Makes sure that IDs below the given ID are never assigned to new tasks, even if no task in this list
+     * has them any more.
+     *
+     * @param nextId the lowest ID that may be assigned to the next new task
+     */
+    public void reserveIds(long nextId) {
+        this.nextId = Math.max(this.nextId, nextId);
+    }
+
+    /**
+     * Returns the ID that the next new task will be given.
+     */
+    public long getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Registers a listener that is notified of every change to this list.
+     * The listener is first notified of every task already in this list, as if they were just added.
+     *
+     * @param listener the listener to register
+     */
+    public void addListener(TaskListListener listener) {
+        assert listener != null : "listener should not be null";
+
+        listeners.add(listener);
+        for (int i = 0; i < tasks.size(); ++i) {
+            listener.onAdded(i, tasks.get(i));
+        }
+    }
+
+    /**
+     * Unregisters a listener of this list.
+     *
+     * @param listener the listener to unregister
+     */
+    public void removeListener(TaskListListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireUpdated(int index) {
+        Task task = tasks.get(index);
+        for (TaskListListener listener : listeners) {
+            listener.onUpdated(index, task);
         }
     }
 
@@ -46,6 +142,31 @@ public class TaskList implements Iterable<Task> {
      */
     public void add(Task task) {
         tasks.add(task);
+        register(tasks.size() - 1, task);
+        for (TaskListListener listener : listeners) {
+            listener.onAdded(tasks.size() - 1, task);
+        }
+    }
+
+    /**
+     * Adds all the given tasks to the end of this list.
+     *
+     * @param newTasks the tasks to be added
+     */
+    public void addAll(List<Task> newTasks) {
+        int start = tasks.size();
+        tasks.addAll(newTasks);
+        for (int i = start; i < tasks.size(); ++i) {
+            Task task = tasks.get(i);
+            this.tags.addAll(List.of(task.getTags()));
+            register(i, task);
+        }
+
+        for (TaskListListener listener : listeners) {
+            for (int i = start; i < tasks.size(); ++i) {
+                listener.onAdded(i, tasks.get(i));
+            }
+        }
     }
 
     /**
@@ -58,6 +179,7 @@ public class TaskList implements Iterable<Task> {
     public Task remove(int index) {
         String[] taskTags = tasks.get(index).getTags();
         Task t = tasks.remove(index);
+        tasksById.remove(t.getId());
 
         for (String tag : taskTags) {
             if (getIndicesTaggedWith(tag).isEmpty()) {
@@ -65,6 +187,9 @@ public class TaskList implements Iterable<Task> {
             }
         }
 
+        for (TaskListListener listener : listeners) {
+            listener.onRemoved(index, t);
+        }
         return t;
     }
 
@@ -79,6 +204,50 @@ public class TaskList implements Iterable<Task> {
         return tasks.get(index);
     }
 
+    /**
+     * Returns the task with the given ID in this list.
+     *
+     * @param id the ID of the task
+     * @return the task with the given ID, or null if there is no such task in this list
+     */
+    public Task getById(long id) {
+        return tasksById.get(id);
+    }
+
+    /**
+     * Returns the current index of the task with the given ID in this list.
+     *
+     * @param id the ID of the task
+     * @return the index of the task, or -1 if there is no such task in this list
+     */
+    public int indexOf(long id) {
+        Task task = tasksById.get(id);
+        if (task == null) {
+            return -1;
+        }
+
+        if (!isSortedById) {
+            return tasks.indexOf(task);
+        }
+
+        int low = 0;
+        int high = tasks.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = tasks.get(mid).getId();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        assert false : "a task that is indexed by its ID should be in the list";
+        return -1;
+    }
+
     /**
      * Returns the number of tasks in this list.
      *
@@ -94,6 +263,61 @@ public class TaskList implements Iterable<Task> {
     public void reset() {
         tasks.clear();
         tags.clear();
+        tasksById.clear();
+        isSortedById = true;
+        for (TaskListListener listener : listeners) {
+            listener.onReset();
+        }
+    }
+
+    /**
+     * Marks the task at index {@code i} in this list as done.
+     *
+     * @param i the index of the task to be marked
+     */
+    public void mark(int i) {
+        tasks.get(i).mark();
+        fireUpdated(i);
+    }
+
+    /**
+     * Marks the task at index {@code i} in this list as not done.
+     *
+     * @param i the index of the task to be unmarked
+     */
+    public void unmark(int i) {
+        tasks.get(i).unmark();
+        fireUpdated(i);
+    }
+
+    /**
+     * Marks the occurrence on the given date of the recurring task at index {@code i} as done.
+     *
+     * @param i the index of the recurring task
+     * @param date the date of the occurrence
+     * @return false if the task does not occur on that date, or the occurrence is already done
+     */
+    public boolean markOccurrence(int i, LocalDate date) {
+        boolean isMarked = ((Recurring) tasks.get(i)).markOccurrence(date);
+        if (isMarked) {
+            fireUpdated(i);
+        }
+        return isMarked;
+    }
+
+    /**
+     * Marks the occurrence on the given date of the recurring task at index {@code i} as not done.
+     *
+     * @param i the index of the recurring task
+     * @param date the date of the occurrence
+     * @return false if the task does not occur on that date, or the occurrence is not done
+     */
+    public boolean unmarkOccurrence(int i, LocalDate date) {
+        boolean isUnmarked = ((Recurring) tasks.get(i)).unmarkOccurrence(date);
+        if (isUnmarked) {
+            fireUpdated(i);
+        }
+        return isUnmarked;
     }
 
     /**
@@ -114,7 +338,11 @@ public class TaskList implements Iterable<Task> {
      */
     public boolean tag(int i, String tagName) {
         this.tags.add(tagName);
-        return tasks.get(i).tag(tagName);
+        boolean isTagged = tasks.get(i).tag(tagName);
+        if (isTagged) {
+            fireUpdated(i);
+        }
+        return isTagged;
     }
 
     /**
@@ -129,6 +357,9 @@ public class TaskList implements Iterable<Task> {
         if (getIndicesTaggedWith(tagName).isEmpty()) {
             tags.remove(tagName);
         }
+        if (b) {
+            fireUpdated(i);
+        }
         return b;
     }
 
@@ -147,6 +378,110 @@ public class TaskList implements Iterable<Task> {
                 tags.remove(tag);
             }
         }
+        fireUpdated(i);
+    }
+
+    /**
+     * Returns the dependencies between the tasks in this list, which are kept up to date as the list changes.
+     */
+    public DependencyGraph getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Returns the deadlines and events in this list that are not done, in the order that they should be
+     * worked on, which is kept up to date as the list changes.
+     */
+    public DueQueue getDueQueue() {
+        return dueQueue;
+    }
+
+    /**
+     * Returns the tasks in this list by their tags, which are kept up to date as the list changes.
+     */
+    public TagIndex getTagIndex() {
+        return tagIndex;
+    }
+
+    /**
+     * Returns the tasks in this list that pass the given filter, sorted in the given order, which are kept up to
+     * date as the list changes. Each view is built the first time it is asked for.
+     * It is safe to call this from many threads that only read this list.
+     *
+     * @param order the order that the tasks are sorted in
+     * @param filter the filter that the tasks must pass
+     * @return the view
+     */
+    public synchronized SortedView getView(SortedView.Order order, SortedView.Filter filter) {
+        SortedView view = views[order.ordinal()][filter.ordinal()];
+        if (view == null) {
+            view = new SortedView(order, filter);
+            addListener(view);
+            views[order.ordinal()][filter.ordinal()] = view;
+        }
+        return view;
+    }
+
+    /**
+     * Returns the index of the words in the descriptions of the tasks in this list, which is kept up to date as
+     * the list changes. The index is built the first time it is asked for.
+     * It is safe to call this from many threads that only read this list.
+     */
+    public synchronized TrigramIndex getTrigramIndex() {
+        if (trigramIndex == null) {
+            trigramIndex = new TrigramIndex();
+            addListener(trigramIndex);
+        }
+        return trigramIndex;
+    }
+
+    /**
+     * Makes the task at index {@code i} depend on the task at index {@code prerequisite}.
+     *
+     * @param i the index of the dependent task
+     * @param prerequisite the index of the task that must be done first
+     * @return true if the task did not already depend on the prerequisite
+     * @throws bob.exception.IncorrectArgumentException if the dependency would form a cycle
+     */
+    public boolean addDependency(int i, int prerequisite) {
+        boolean isAdded = dependencies.addDependency(tasks.get(i), tasks.get(prerequisite));
+        if (isAdded) {
+            fireUpdated(i);
+        }
+        return isAdded;
+    }
+
+    /**
+     * Removes the dependency of the task at index {@code i} on the task at index {@code prerequisite}.
+     *
+     * @param i the index of the dependent task
+     * @param prerequisite the index of the prerequisite
+     * @return true if the task depended on the prerequisite
+     */
+    public boolean removeDependency(int i, int prerequisite) {
+        boolean isRemoved = dependencies.removeDependency(tasks.get(i).getId(), tasks.get(prerequisite).getId());
+        if (isRemoved) {
+            fireUpdated(i);
+        }
+        return isRemoved;
+    }
+
+    /**
+     * Removes every dependency of the task at index {@code i} on other tasks.
+     *
+     * @param i the index of the task
+     * @return the number of dependencies removed
+     */
+    public int removeDependencies(int i) {
+        long id = tasks.get(i).getId();
+        long[] prerequisiteIds = dependencies.getPrerequisiteIds(id);
+        for (long prerequisiteId : prerequisiteIds) {
+            dependencies.removeDependency(id, prerequisiteId);
+        }
+        if (prerequisiteIds.length > 0) {
+            fireUpdated(i);
+        }
+        return prerequisiteIds.length;
     }
 
     /**
@@ -180,22 +515,81 @@ public class TaskList implements Iterable<Task> {
     }
 
     /**
-     * Returns the string representation of each task in this list, prefixed by its index (starting from 1)
-     * and followed by a linebreak.
+     * Appends the string representation of the task at the given index, prefixed by its index (starting from 1),
+     * to the given builder.
+     *
+     * @param builder the builder to append to
+     * @param index index of the task
+     * @return the given builder
+     * @throws IndexOutOfBoundsException if the index is out of range (index &lt; 0 || index &gt;= size())
      */
-    @Override
-    public String toString() {
-        StringBuilder text = new StringBuilder();
+    public StringBuilder appendTask(StringBuilder builder, int index) {
+        return appendTask(builder, index, false);
+    }
+
+    /**
+     * Appends the string representation of the task at the given index, prefixed by its index (starting from 1)
+     * and optionally its ID, to the given builder. For example, <code>3.#17 [T][ ] read book</code>.
+     *
+     * @param builder the builder to append to
+     * @param index index of the task
+     * @param isIdShown true if the ID of the task should be shown
+     * @return the given builder
+     * @throws IndexOutOfBoundsException if the index is out of range (index &lt; 0 || index &gt;= size())
+     */
+    public StringBuilder appendTask(StringBuilder builder, int index, boolean isIdShown) {
+        Task task = tasks.get(index);
+        builder.append(index + 1).append(".");
+        if (isIdShown) {
+            builder.append('#').append(task.getId()).append(' ');
+        }
+        return builder.append(task);
+    }
+
+    /**
+     * Returns the string representation of the tasks from index {@code from} (inclusive) to {@code to} (exclusive),
+     * each prefixed by its index (starting from 1) and separated by a linebreak.
+     *
+     * @param from index of the first task
+     * @param to index after the last task
+     * @return the string representation of the tasks in the range
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public String toString(int from, int to) {
+        return toString(from, to, false);
+    }
 
-        int i;
-        for (i = 0; i < tasks.size() - 1; ++i) {
-            text.append(i + 1).append(".").append(tasks.get(i)).append("\n");
+    /**
+     * Returns the string representation of the tasks from index {@code from} (inclusive) to {@code to} (exclusive),
+     * each prefixed by its index (starting from 1) and optionally its ID, and separated by a linebreak.
+     *
+     * @param from index of the first task
+     * @param to index after the last task
+     * @param isIdShown true if the IDs of the tasks should be shown
+     * @return the string representation of the tasks in the range
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public String toString(int from, int to, boolean isIdShown) {
+        StringBuilder text = new StringBuilder();
+        for (int i = from; i < to; ++i) {
+            if (i > from) {
+                text.append("\n");
+            }
+            appendTask(text, i, isIdShown);
         }
-        text.append(i + 1).append(".").append(tasks.get(i));
 
         return text.toString();
     }
 
+    /**
+     * Returns the string representation of each task in this list, prefixed by its index (starting from 1)
+     * and separated by a linebreak.
+     */
+    @Override
+    public String toString() {
+        return toString(0, tasks.size());
+    }
+
     /**
      * Returns an iterator over the tasks in this list.
      *
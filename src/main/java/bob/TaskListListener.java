@@ -0,0 +1,45 @@
+package bob;
+
+import bob.task.Task;
+
+/**
+ * Receives fine-grained change events from a {@code TaskList}.
+ * Every event carries the index of the affected task at the time of the change, so listeners can apply each
+ * change as a delta instead of re-reading the whole list. All methods do nothing by default.
+ *
+ * @see TaskList#addListener(TaskListListener)
+ */
+public interface TaskListListener {
+    /**
+     * Called after a task is added to the list.
+     *
+     * @param index index of the added task
+     * @param task the added task
+     */
+    default void onAdded(int index, Task task) {
+    }
+
+    /**
+     * Called after a task is removed from the list.
+     *
+     * @param index index that the task had before it was removed
+     * @param task the removed task
+     */
+    default void onRemoved(int index, Task task) {
+    }
+
+    /**
+     * Called after a task in the list is modified, for example marked or tagged.
+     *
+     * @param index index of the modified task
+     * @param task the modified task
+     */
+    default void onUpdated(int index, Task task) {
+    }
+
+    /**
+     * Called after all tasks are removed from the list.
+     */
+    default void onReset() {
+    }
+}
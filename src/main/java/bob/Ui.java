@@ -1,15 +1,18 @@
 package bob;
 
+import bob.output.ConsoleSink;
+import bob.output.OutputSink;
 import bob.util.FormattedString;
 
 import java.util.Scanner;
 
 /**
  * The Ui class handles interactions with the user, including reading inputs and printing outputs.
+ * All output is delegated to an {@link OutputSink}.
  */
 public class Ui {
-    private static final String SEPARATOR = "____________________________________________________________";
-    private static final String LINE_PREFIX = "    ";
+    /** Maximum number of lines of a streamed message that are kept as the last message. */
+    public static final int STREAM_PREVIEW_LINES = 50;
     private static final String LOGO = """
          .----------------. .----------------. .----------------.
         | .--------------. | .--------------. | .--------------. |
@@ -23,15 +26,32 @@ public class Ui {
         | '--------------' | '--------------' | '--------------' |
         '----------------' '----------------' '----------------'
         """;
-    private final Scanner scanner;
+    private final OutputSink sink;
+    private Scanner scanner;
     private String lastMessage = "";
+    private StringBuilder streamPreview;
+    private int streamedLines;
+    private long renderNanos;
 
+    /**
+     * Constructs a Ui instance that outputs to the console.
+     */
     public Ui() {
-        this.scanner = new Scanner(System.in);
+        this(new ConsoleSink());
     }
 
     /**
-     * Outputs the given text formatted as: <br>
+     * Constructs a Ui instance that outputs to the given sink.
+     *
+     * @param sink the sink that all output is sent to
+     */
+    public Ui(OutputSink sink) {
+        assert sink != null : "sink should not be null";
+        this.sink = sink;
+    }
+
+    /**
+     * Outputs the given text as a single message. On the console, it is formatted as: <br>
      * <pre>
      *     ____________________________________________________________
      *      &lt;text&gt;
@@ -46,7 +66,7 @@ public class Ui {
     }
 
     /**
-     * Outputs the given {@code FormattedString} as: <br>
+     * Outputs the given {@code FormattedString} as a single message. On the console, it is formatted as: <br>
      * <pre>
      *     ____________________________________________________________
      *      &lt;str&gt;
@@ -58,19 +78,66 @@ public class Ui {
     public void printWithFormat(FormattedString str) {
         assert str != null : "str should not be null";
 
-        String t = SEPARATOR + "\n "
-                + str.toString().replace("\n", "\n ")
-                + "\n" + SEPARATOR;
-        System.out.println(LINE_PREFIX + t.replace("\n", "\n" + LINE_PREFIX) + "\n");
+        long start = System.nanoTime();
+        sink.print(str);
+        renderNanos += System.nanoTime() - start;
         lastMessage = str.getUnformatted();
     }
 
+    /**
+     * Starts a message that is output line by line with {@link #printLine(CharSequence)}.
+     * Only the first few lines of the message are kept as the last message.
+     */
+    public void beginStream() {
+        assert streamPreview == null : "a stream should not already be open";
+        streamPreview = new StringBuilder();
+        streamedLines = 0;
+        long start = System.nanoTime();
+        sink.beginBlock();
+        renderNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Outputs one line of the message started by {@link #beginStream()}.
+     *
+     * @param line the line to output
+     */
+    public void printLine(CharSequence line) {
+        assert streamPreview != null : "beginStream() should be called before printLine()";
+        assert line != null : "line should not be null";
+
+        if (streamedLines < STREAM_PREVIEW_LINES) {
+            if (streamedLines > 0) {
+                streamPreview.append('\n');
+            }
+            streamPreview.append(line);
+        }
+        ++streamedLines;
+        sink.printLine(line);
+    }
+
+    /**
+     * Ends the message started by {@link #beginStream()}.
+     */
+    public void endStream() {
+        assert streamPreview != null : "beginStream() should be called before endStream()";
+
+        if (streamedLines > STREAM_PREVIEW_LINES) {
+            streamPreview.append("\n... and ").append(streamedLines - STREAM_PREVIEW_LINES).append(" more");
+        }
+        lastMessage = streamPreview.toString();
+        streamPreview = null;
+        long start = System.nanoTime();
+        sink.endBlock();
+        renderNanos += System.nanoTime() - start;
+    }
+
     /**
      * Outputs the logo, then the greeting message:
      * "Hey there! Bob at your service. Let's roll up our sleeves and get to work!"
      */
     public void printGreeting() {
-        System.out.println(LOGO);
+        sink.printRaw(LOGO);
         printWithFormat("Hey there! Bob at your service.\n"
                 + "Let's roll up our sleeves and get to work!");
     }
@@ -89,7 +156,11 @@ public class Ui {
      */
     public void printError(String errorMessage) {
         assert errorMessage != null : "Error message should not be null";
-        printWithFormat(new FormattedString(errorMessage).color(FormattedString.COLOR.RED));
+        FormattedString str = new FormattedString(errorMessage).color(FormattedString.COLOR.RED);
+        long start = System.nanoTime();
+        sink.printError(str);
+        renderNanos += System.nanoTime() - start;
+        lastMessage = str.getUnformatted();
     }
 
     /**
@@ -98,9 +169,37 @@ public class Ui {
      * @return the string that was input
      */
     public String readInput() {
+        // Make sure everything is shown before waiting for the user
+        sink.flush();
+
+        if (scanner == null) {
+            scanner = new Scanner(System.in);
+        }
         return scanner.nextLine();
     }
 
+    /**
+     * Flushes any output that is still buffered.
+     */
+    public void flush() {
+        long start = System.nanoTime();
+        sink.flush();
+        renderNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Returns the time spent sending output to the sink since the last call, and resets it.
+     * Lines of a streamed message are only buffered by most sinks, so they are counted when the stream is
+     * ended or flushed rather than one by one.
+     *
+     * @return the time spent in nanoseconds
+     */
+    public long takeRenderNanos() {
+        long nanos = renderNanos;
+        renderNanos = 0;
+        return nanos;
+    }
+
     /**
      * Returns the unformatted last output of this Ui instance.
      *
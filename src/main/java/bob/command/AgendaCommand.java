@@ -0,0 +1,119 @@
+package bob.command;
+
+import bob.Storage;
+import bob.TaskList;
+import bob.Ui;
+import bob.exception.IncorrectArgumentException;
+import bob.task.Deadline;
+import bob.task.Event;
+import bob.task.Recurring;
+import bob.task.Task;
+import bob.util.DateTime;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a command to show what happens in a window of time, day by day. The expected format is:
+ * <pre>agenda [/from &lt;date&gt;] [/to &lt;date&gt;]</pre>
+ * The window starts today and lasts a week unless given. Every occurrence of a recurring task in the window is
+ * shown, together with the deadlines that are due and the events that start in it.
+ * Occurrences are only computed for the window, so a task that repeats for years costs no more than a
+ * task that repeats once.
+ */
+public class AgendaCommand extends Command {
+    public static final String COMMAND = "agenda";
+    private static final int DEFAULT_DAYS = 7;
+
+    private static class Item {
+        private final LocalDateTime time;
+        private final int index;
+        private final String text;
+
+        private Item(LocalDateTime time, int index, String text) {
+            this.time = time;
+            this.index = index;
+            this.text = text;
+        }
+    }
+
+    public AgendaCommand(Map<String, String> arguments) {
+        super(arguments);
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        String fromArgument = arguments.get("from");
+        LocalDateTime from = fromArgument == null || fromArgument.isBlank()
+                ? LocalDate.now().atStartOfDay()
+                : DateTime.parse(fromArgument);
+        String toArgument = arguments.get("to");
+        LocalDateTime to = toArgument == null || toArgument.isBlank()
+                ? from.plusDays(DEFAULT_DAYS)
+                : DateTime.parse(toArgument);
+        if (!to.isAfter(from)) {
+            throw new IncorrectArgumentException("an end of the agenda that is after its start");
+        }
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); ++i) {
+            addItems(items, i, tasks.get(i), from, to);
+        }
+        if (items.isEmpty()) {
+            ui.printWithFormat("Nothing is happening from " + DateTime.format(from) + " to " + DateTime.format(to)
+                    + ".");
+            return;
+        }
+
+        items.sort(Comparator.<Item, LocalDateTime>comparing(item -> item.time).thenComparingInt(item -> item.index));
+        StringBuilder str = new StringBuilder("Here is your agenda:");
+        LocalDate day = null;
+        for (Item item : items) {
+            if (!item.time.toLocalDate().equals(day)) {
+                day = item.time.toLocalDate();
+                str.append("\n").append(day.getDayOfWeek().toString(), 0, 3).append(" ").append(day).append(":");
+            }
+            str.append("\n  ").append(item.time.toLocalTime()).append(" ")
+                    .append(item.index + 1).append(".").append(item.text);
+        }
+        ui.printWithFormat(str.toString());
+    }
+
+    private static void addItems(List<Item> items, int index, Task task, LocalDateTime from, LocalDateTime to) {
+        if (task instanceof Recurring) {
+            Recurring recurring = (Recurring) task;
+            for (LocalDateTime occurrence : recurring.getOccurrences(from, to)) {
+                String status = recurring.isOccurrenceDone(occurrence.toLocalDate()) ? "X" : " ";
+                items.add(new Item(occurrence, index, "[R][" + status + "] " + task.getDescription()));
+            }
+            return;
+        }
+
+        LocalDateTime time;
+        if (task instanceof Deadline) {
+            time = ((Deadline) task).getBy();
+        } else if (task instanceof Event) {
+            time = ((Event) task).getFrom();
+        } else {
+            return;
+        }
+
+        if (!time.isBefore(from) && time.isBefore(to)) {
+            items.add(new Item(time, index, task.toString()));
+        }
+    }
+}
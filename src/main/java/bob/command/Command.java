@@ -3,6 +3,7 @@ package bob.command;
 import bob.Storage;
 import bob.TaskList;
 import bob.Ui;
+import bob.exception.IncorrectArgumentException;
 
 import java.util.Map;
 
@@ -27,6 +28,49 @@ public abstract class Command {
      */
     public abstract boolean isExit();
 
+    /**
+     * Returns true if this command only reads the task list and never modifies it.
+     * Read-only commands can be executed while the task list is still being loaded.
+     *
+     * @return true if this command does not modify the task list, false otherwise
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * Returns the number of arguments given to this command, including the unnamed argument if any,
+     * but not the command word itself.
+     */
+    public int getArgumentCount() {
+        return arguments.containsKey("CMD") ? arguments.size() - 1 : arguments.size();
+    }
+
+    /**
+     * Returns the index of the task that the given argument refers to, either by its position in the list
+     * (starting from 1) or by its ID, written as {@code #<id>}.
+     *
+     * @param tasks the task list that the task is in
+     * @param argument the position or ID of the task
+     * @return the index of the task in the list
+     * @throws IncorrectArgumentException if the argument is not a number, or no task has that position or ID
+     */
+    protected static int parseTaskIndex(TaskList tasks, String argument) {
+        boolean isId = argument.startsWith("#");
+        long number;
+        try {
+            number = Long.parseLong(isId ? argument.substring(1) : argument);
+        } catch (NumberFormatException e) {
+            throw new IncorrectArgumentException(isId ? "an integer for the task ID" : "an integer");
+        }
+
+        int index = isId ? tasks.indexOf(number) : (int) Math.max(-1, Math.min(number - 1, Integer.MAX_VALUE));
+        if (index < 0 || index >= tasks.size()) {
+            throw new IncorrectArgumentException(isId ? "the ID of an existing task" : "a valid index");
+        }
+        return index;
+    }
+
     /**
      * Executes this command.
      *
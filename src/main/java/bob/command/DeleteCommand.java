@@ -3,7 +3,6 @@ package bob.command;
 import bob.Storage;
 import bob.TaskList;
 import bob.Ui;
-import bob.exception.IncorrectArgumentException;
 import bob.exception.MissingArgumentException;
 import bob.task.Task;
 
@@ -12,6 +11,7 @@ import java.util.Map;
 /**
  * Represents a command to delete a task. The expected format is:
  * <pre>delete &lt;index&gt;</pre>
+ * The task can also be given by its ID, as in <code>delete #&lt;id&gt;</code>.
  */
 public class DeleteCommand extends Command {
     /**
@@ -36,15 +36,7 @@ public class DeleteCommand extends Command {
             throw new MissingArgumentException("index of the task that you want to delete");
         }
 
-        int index;
-        try {
-            index = Integer.parseInt(argument) - 1;
-        } catch (NumberFormatException e) {
-            throw new IncorrectArgumentException("an integer");
-        }
-        if (index < 0 || index >= tasks.size()) {
-            throw new IncorrectArgumentException("a valid index");
-        }
+        int index = parseTaskIndex(tasks, argument);
 
         Task task = tasks.remove(index);
         ui.printWithFormat("OK, I've removed this task:\n"
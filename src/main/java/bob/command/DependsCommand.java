@@ -0,0 +1,76 @@
+package bob.command;
+
+import bob.Storage;
+import bob.TaskList;
+import bob.Ui;
+import bob.exception.MissingArgumentException;
+
+import java.util.Map;
+
+/**
+ * Represents a command to make a task depend on another task, or to show what a task depends on.
+ * The expected format is:
+ * <pre>depends &lt;index&gt; [/on &lt;index&gt;]</pre>
+ * Either task can also be given by its ID, as in <code>depends #&lt;id&gt; /on #&lt;id&gt;</code>.
+ * Without {@code /on}, the prerequisites of the task are shown.
+ */
+public class DependsCommand extends Command {
+    public static final String COMMAND = "depends";
+
+    public DependsCommand(Map<String, String> arguments) {
+        super(arguments);
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        // Only adding a dependency modifies the list, showing the prerequisites does not
+        return !arguments.containsKey("on");
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        String argument = arguments.get("");
+        if (argument == null || argument.isBlank()) {
+            throw new MissingArgumentException("index of the task that depends on another task");
+        }
+        int index = parseTaskIndex(tasks, argument);
+
+        if (!arguments.containsKey("on")) {
+            printPrerequisites(tasks, ui, index);
+            return;
+        }
+
+        String prerequisiteArgument = arguments.get("on");
+        if (prerequisiteArgument == null || prerequisiteArgument.isBlank()) {
+            throw new MissingArgumentException("index of the task that has to be done first");
+        }
+        int prerequisite = parseTaskIndex(tasks, prerequisiteArgument);
+
+        if (tasks.addDependency(index, prerequisite)) {
+            ui.printWithFormat("OK, this task now has to wait for task " + (prerequisite + 1) + ":\n"
+                    + tasks.get(index));
+        } else {
+            ui.printWithFormat("Looks like this task already waits for task " + (prerequisite + 1) + ":\n"
+                    + tasks.get(index));
+        }
+    }
+
+    private static void printPrerequisites(TaskList tasks, Ui ui, int index) {
+        long[] prerequisiteIds = tasks.getDependencies().getPrerequisiteIds(tasks.get(index).getId());
+        if (prerequisiteIds.length == 0) {
+            ui.printWithFormat("This task does not depend on any other task:\n" + tasks.get(index));
+            return;
+        }
+
+        StringBuilder str = new StringBuilder("This task has to wait for:");
+        for (long prerequisiteId : prerequisiteIds) {
+            tasks.appendTask(str.append("\n  "), tasks.indexOf(prerequisiteId));
+        }
+        ui.printWithFormat(str.toString());
+    }
+}
@@ -21,10 +21,13 @@ public class ExitCommand extends Command {
 
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) {
-        try {
-            storage.save(tasks);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        // Never overwrite the data file with a partially loaded list
+        if (!storage.hasReadFailed()) {
+            try {
+                storage.save(tasks);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
         }
         ui.printExit();
     }
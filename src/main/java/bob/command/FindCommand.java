@@ -3,14 +3,33 @@ package bob.command;
 import bob.Storage;
 import bob.TaskList;
 import bob.Ui;
+import bob.exception.IncorrectArgumentException;
 import bob.exception.MissingArgumentException;
+import bob.index.TrigramIndex;
+import bob.query.Query;
+import bob.query.QueryPlan;
 import bob.task.Task;
+import bob.util.EditDistance;
 import bob.util.FormattedString;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
+/**
+ * Represents a command to find tasks by their descriptions. The expected format is:
+ * <pre>find &lt;keyword&gt;</pre> or <pre>find /fuzzy &lt;words&gt;</pre> or
+ * <pre>find [/explain] &lt;query&gt;</pre>
+ * Without {@code /fuzzy}, the tasks whose descriptions contain the keyword are found, ignoring case.
+ * With {@code /fuzzy}, the tasks with a word close to each of the given words are found, allowing for a typo
+ * in short words and two in longer ones, and the closest matches are listed first.
+ * A valid query with quotes, brackets or tags, or any search with {@code /explain}, is a {@link Query}, such as
+ * <code>"exam" and #URGENT and not done and due &lt; 1/10</code>, which is run by a {@link QueryPlan} that
+ * uses the indices of the task list. With {@code /explain}, the plan is shown after the matching tasks.
+ * Other text, such as <code>(draft</code>, is searched for as a keyword.
+ */
 public class FindCommand extends Command {
     public static final String COMMAND = "find";
 
@@ -23,10 +42,25 @@ public class FindCommand extends Command {
         return false;
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) {
+        if (arguments.containsKey("fuzzy")) {
+            findFuzzy(tasks, ui);
+            return;
+        }
+        String argument = arguments.get("");
+        if (arguments.containsKey("explain") || (argument != null && Query.isQuery(argument))) {
+            findByQuery(tasks, ui);
+            return;
+        }
+
         // Check if keyword is provided
-        String keyword = arguments.get("");
+        String keyword = argument;
         if (keyword == null || keyword.isBlank()) {
             throw new MissingArgumentException("the keyword to search by");
         }
@@ -36,12 +70,101 @@ public class FindCommand extends Command {
         List<Integer> foundIndices = getIndices(taskList, keyword); // Get the list of indices of matching tasks
         String listString = getTasksAtIndices(taskList, foundIndices);
         FormattedString formattedList = new FormattedString(listString)
-                .color(FormattedString.COLOR.BG_YELLOW, keyword, true);
+                .color(FormattedString.COLOR.BG_YELLOW, Pattern.quote(keyword), true);
 
 
         ui.printWithFormat(new FormattedString("Here are the matching tasks in your list:").append(formattedList));
     }
 
+    private void findFuzzy(TaskList tasks, Ui ui) {
+        String terms = arguments.get("fuzzy").isBlank() ? arguments.get("") : arguments.get("fuzzy");
+        Set<String> words = TrigramIndex.toWords(terms == null ? "" : terms);
+        if (words.isEmpty()) {
+            throw new MissingArgumentException("words to search for");
+        }
+        for (String word : words) {
+            if (word.length() > EditDistance.MAX_PATTERN_LENGTH) {
+                throw new IncorrectArgumentException("words of at most " + EditDistance.MAX_PATTERN_LENGTH
+                        + " letters to search for");
+            }
+        }
+
+        List<TrigramIndex.Match> matches = tasks.getTrigramIndex().search(words);
+        if (matches.isEmpty()) {
+            ui.printWithFormat("None of your tasks are anything like \"" + terms.trim() + "\".");
+            return;
+        }
+
+        FormattedString message = new FormattedString("Here are the closest matching tasks in your list:");
+        StringBuilder line = new StringBuilder();
+        for (TrigramIndex.Match match : matches) {
+            Task task = match.getTask();
+            line.setLength(0);
+            String lineString = tasks.appendTask(line.append("\n"), tasks.indexOf(task.getId())).toString();
+
+            // Only the words of the description are highlighted, not the index, tags or dates around it
+            int start = getDescriptionStart(lineString, task);
+            int end = start + task.getDescription().length();
+            FormattedString description = new FormattedString(task.getDescription());
+            for (String word : match.getWords()) {
+                description.colorWord(FormattedString.COLOR.BG_YELLOW, word);
+            }
+            message.append(lineString.substring(0, start)).append(description).append(lineString.substring(end));
+        }
+
+        ui.printWithFormat(message);
+    }
+
+    /**
+     * Returns where the description of the given task starts in the given line, which shows the task as in
+     * <code>3.[T][ ] #tag description</code>.
+     */
+    private static int getDescriptionStart(String line, Task task) {
+        StringBuilder tagsAsString = new StringBuilder();
+        for (String tag : task.getTags()) {
+            tagsAsString.append(" #").append(tag);
+        }
+        // The description follows the status and the tags, which is the first ] followed by them
+        int statusEnd = line.indexOf("]" + tagsAsString + " " + task.getDescription());
+        assert statusEnd >= 0 : "the line should show the description of the task";
+        return statusEnd + 1 + tagsAsString.length() + 1;
+    }
+
+    private void findByQuery(TaskList tasks, Ui ui) {
+        String text = arguments.containsKey("explain") && !arguments.get("explain").isBlank()
+                ? arguments.get("explain")
+                : arguments.get("");
+        if (text == null || text.isBlank()) {
+            throw new MissingArgumentException("query to search by");
+        }
+
+        Query query = Query.parse(text);
+        QueryPlan plan = new QueryPlan(query, tasks);
+        List<Integer> indices = plan.execute();
+
+        FormattedString message;
+        if (indices.isEmpty()) {
+            message = new FormattedString("None of your tasks match " + text.trim() + ".");
+        } else {
+            StringBuilder listString = new StringBuilder();
+            for (int index : indices) {
+                listString.append("\n");
+                tasks.appendTask(listString, index);
+            }
+            FormattedString formattedList = new FormattedString(listString.toString());
+            for (String keyword : query.getKeywords()) {
+                formattedList.color(FormattedString.COLOR.BG_YELLOW, Pattern.quote(keyword), true);
+            }
+            message = new FormattedString("Here are the matching tasks in your list:").append(formattedList);
+        }
+
+        if (arguments.containsKey("explain")) {
+            message.append("\n\nHere is how I searched, with the number of tasks I expected and found"
+                    + " after each step:\n" + plan.explain());
+        }
+        ui.printWithFormat(message);
+    }
+
     private static List<Integer> getIndices(List<Task> taskList, String keyword) {
         List<Integer> indices = new ArrayList<>();
 
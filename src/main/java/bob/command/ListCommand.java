@@ -3,12 +3,29 @@ package bob.command;
 import bob.Storage;
 import bob.TaskList;
 import bob.Ui;
+import bob.exception.IncorrectArgumentException;
+import bob.index.SortedView;
+import bob.task.Task;
 
+import java.util.Locale;
 import java.util.Map;
 
+/**
+ * Represents a command to list tasks. The expected format is:
+ * <pre>list [/sort due|status|type|desc] [/filter done|open|todo|deadline|event|recurring]
+ *      [/page &lt;page&gt; [/size &lt;size&gt;]] [/stream] [/ids]</pre>
+ * With {@code /sort} or {@code /filter}, the tasks are listed from a {@link SortedView} of the task list,
+ * which is kept sorted as the list changes, so listing a page of them does not sort the whole list.
+ * With {@code /page}, only the tasks on the given page are shown.
+ * With {@code /ids}, every task is also shown with its ID, which can be used instead of its index.
+ * With {@code /stream}, tasks are written straight to the output in fixed-size chunks instead of being
+ * collected into a single string, in the order of the view if there is one.
+ */
 public class ListCommand extends Command {
 
     public static final String COMMAND = "list";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int STREAM_CHUNK_SIZE = 256;
 
     public ListCommand(Map<String, String> arguments) {
         super(arguments);
@@ -19,12 +36,151 @@ public class ListCommand extends Command {
         return false;
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) {
+        SortedView view = null;
+        if (arguments.containsKey("sort") || arguments.containsKey("filter")) {
+            view = tasks.getView(parseOrder(), parseFilter());
+        }
+
         if (tasks.isEmpty()) {
             ui.printWithFormat("You have not added any tasks yet.");
+        } else if (view != null && view.size() == 0) {
+            ui.printWithFormat("You have no " + view.getFilter().name().toLowerCase(Locale.ROOT) + " tasks.");
+        } else if (arguments.containsKey("stream")) {
+            streamTasks(tasks, view, ui);
+        } else if (arguments.containsKey("page") || arguments.containsKey("size")) {
+            printPage(tasks, view, ui);
+        } else if (view != null) {
+            ui.printWithFormat(appendTasks(new StringBuilder(), tasks, view, 0, view.size()).toString());
         } else {
-            ui.printWithFormat(tasks.toString());
+            ui.printWithFormat(tasks.toString(0, tasks.size(), isIdShown()));
+        }
+    }
+
+    private SortedView.Order parseOrder() {
+        String argument = arguments.get("sort");
+        if (argument == null) {
+            return SortedView.Order.ADDED;
+        }
+
+        switch (argument.trim().toLowerCase(Locale.ROOT)) {
+        case "due":
+            return SortedView.Order.DUE;
+        case "status":
+            return SortedView.Order.STATUS;
+        case "type":
+            return SortedView.Order.TYPE;
+        case "desc":
+        case "description":
+            return SortedView.Order.DESCRIPTION;
+        default:
+            throw new IncorrectArgumentException("due, status, type or desc after /sort");
         }
     }
+
+    private SortedView.Filter parseFilter() {
+        String argument = arguments.get("filter");
+        if (argument == null) {
+            return SortedView.Filter.ALL;
+        }
+
+        try {
+            return SortedView.Filter.valueOf(argument.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IncorrectArgumentException("done, open, todo, deadline, event or recurring after /filter");
+        }
+    }
+
+    private void streamTasks(TaskList tasks, SortedView view, Ui ui) {
+        StringBuilder line = new StringBuilder();
+
+        ui.beginStream();
+        if (view == null) {
+            for (int i = 0; i < tasks.size(); ++i) {
+                line.setLength(0);
+                ui.printLine(tasks.appendTask(line, i, isIdShown()));
+
+                // Hand each full chunk to the output, so that memory use does not grow with the list
+                if ((i + 1) % STREAM_CHUNK_SIZE == 0) {
+                    ui.flush();
+                }
+            }
+        } else {
+            // Only one chunk of the view is taken out at a time, for the same reason
+            for (int from = 0; from < view.size(); from += STREAM_CHUNK_SIZE) {
+                for (Task task : view.get(from, Math.min(from + STREAM_CHUNK_SIZE, view.size()))) {
+                    line.setLength(0);
+                    ui.printLine(tasks.appendTask(line, tasks.indexOf(task.getId()), isIdShown()));
+                }
+                ui.flush();
+            }
+        }
+        ui.endStream();
+    }
+
+    private void printPage(TaskList tasks, SortedView view, Ui ui) {
+        int count = view == null ? tasks.size() : view.size();
+        int size = parsePositiveInt("size", DEFAULT_PAGE_SIZE);
+        // Rounded up without adding to count, which would overflow for a size near Integer.MAX_VALUE
+        int pageCount = count / size + (count % size == 0 ? 0 : 1);
+        int page = parsePositiveInt("page", 1);
+        if (page > pageCount) {
+            throw new IncorrectArgumentException("a page number between 1 and " + pageCount);
+        }
+
+        int from = (page - 1) * size;
+        int to = Math.min(from + size, count);
+        String header = "Page " + page + " of " + pageCount
+                + " (tasks " + (from + 1) + "-" + to + " of " + count + "):\n";
+        if (view == null) {
+            ui.printWithFormat(header + tasks.toString(from, to, isIdShown()));
+        } else {
+            ui.printWithFormat(appendTasks(new StringBuilder(header), tasks, view, from, to).toString());
+        }
+    }
+
+    /**
+     * Appends the tasks from position {@code from} to position {@code to} of the given view, each prefixed by
+     * its index in the task list, so that it can still be marked or deleted by that index.
+     */
+    private StringBuilder appendTasks(StringBuilder text, TaskList tasks, SortedView view, int from, int to) {
+        boolean isFirst = true;
+        for (Task task : view.get(from, to)) {
+            if (!isFirst) {
+                text.append("\n");
+            }
+            isFirst = false;
+            tasks.appendTask(text, tasks.indexOf(task.getId()), isIdShown());
+        }
+        return text;
+    }
+
+    private boolean isIdShown() {
+        return arguments.containsKey("ids");
+    }
+
+    private int parsePositiveInt(String name, int defaultValue) {
+        String argument = arguments.get(name);
+        if (argument == null || argument.isBlank()) {
+            return defaultValue;
+        }
+
+        int value;
+        try {
+            value = Integer.parseInt(argument);
+        } catch (NumberFormatException e) {
+            throw new IncorrectArgumentException("an integer for the " + name);
+        }
+        if (value < 1) {
+            throw new IncorrectArgumentException("a positive " + name);
+        }
+
+        return value;
+    }
 }
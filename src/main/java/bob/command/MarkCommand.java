@@ -5,7 +5,10 @@ import bob.TaskList;
 import bob.Ui;
 import bob.exception.IncorrectArgumentException;
 import bob.exception.MissingArgumentException;
+import bob.task.Recurring;
+import bob.util.DateTime;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 public class MarkCommand extends Command {
@@ -27,18 +30,46 @@ public class MarkCommand extends Command {
             throw new MissingArgumentException("index of the task that you want to mark");
         }
 
-        int index;
-        try {
-            index = Integer.parseInt(argument) - 1;
-        } catch (NumberFormatException e) {
-            throw new IncorrectArgumentException("an integer");
-        }
-        if (index < 0 || index >= tasks.size()) {
-            throw new IncorrectArgumentException("a valid index");
+        int index = parseTaskIndex(tasks, argument);
+        if (arguments.containsKey("on")) {
+            markOccurrence(tasks, ui, index);
+            return;
+        } else if (tasks.get(index) instanceof Recurring) {
+            markNextOccurrence(tasks, ui, index);
+            return;
         }
 
-        tasks.get(index).mark();
+        tasks.mark(index);
         ui.printWithFormat("Nice! I've marked this task as done:\n"
                 + tasks.get(index));
     }
+
+    private void markNextOccurrence(TaskList tasks, Ui ui, int index) {
+        LocalDateTime next = ((Recurring) tasks.get(index)).getNextOccurrence();
+        if (next == null) {
+            ui.printWithFormat("Looks like every occurrence of this task is already done:\n" + tasks.get(index));
+            return;
+        }
+
+        tasks.markOccurrence(index, next.toLocalDate());
+        ui.printWithFormat("Nice! I've marked the occurrence on " + DateTime.format(next) + " as done:\n"
+                + tasks.get(index));
+    }
+
+    private void markOccurrence(TaskList tasks, Ui ui, int index) {
+        if (!(tasks.get(index) instanceof Recurring)) {
+            throw new IncorrectArgumentException("a recurring task to mark a single occurrence");
+        }
+        String date = arguments.get("on");
+        if (date == null || date.isBlank()) {
+            throw new MissingArgumentException("date of the occurrence");
+        }
+
+        if (tasks.markOccurrence(index, DateTime.parse(date).toLocalDate())) {
+            ui.printWithFormat("Nice! I've marked this occurrence as done:\n" + tasks.get(index));
+        } else {
+            ui.printWithFormat("Looks like that occurrence was already done, or this task does not occur then:\n"
+                    + tasks.get(index));
+        }
+    }
 }
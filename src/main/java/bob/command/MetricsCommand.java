@@ -0,0 +1,38 @@
+package bob.command;
+
+import bob.Storage;
+import bob.TaskList;
+import bob.Ui;
+import bob.metrics.Metrics;
+
+import java.util.Map;
+
+/**
+ * Shows how long each stage of handling each command has taken so far, and how many errors were raised.
+ */
+public class MetricsCommand extends Command {
+    public static final String COMMAND = "metrics";
+
+    public MetricsCommand(Map<String, String> arguments) {
+        super(arguments);
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        ui.beginStream();
+        for (String line : Metrics.getGlobal().report()) {
+            ui.printLine(line);
+        }
+        ui.endStream();
+    }
+}
@@ -0,0 +1,63 @@
+package bob.command;
+
+import bob.Storage;
+import bob.TaskList;
+import bob.Ui;
+import bob.exception.IncorrectArgumentException;
+import bob.task.Task;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a command to show the deadlines and events that should be worked on next. The expected format is:
+ * <pre>next [&lt;count&gt;]</pre>
+ * Tasks tagged {@code p1}, {@code p2} or {@code p3} come first, in that order, and tasks that are due sooner
+ * come first within each priority. Tasks that are done are never shown.
+ */
+public class NextCommand extends Command {
+    public static final String COMMAND = "next";
+    private static final int DEFAULT_COUNT = 5;
+
+    public NextCommand(Map<String, String> arguments) {
+        super(arguments);
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        int count = DEFAULT_COUNT;
+        String argument = arguments.get("");
+        if (argument != null && !argument.isBlank()) {
+            try {
+                count = Integer.parseInt(argument);
+            } catch (NumberFormatException e) {
+                throw new IncorrectArgumentException("an integer for the number of tasks");
+            }
+            if (count < 1) {
+                throw new IncorrectArgumentException("a positive number of tasks");
+            }
+        }
+
+        List<Task> nextTasks = tasks.getDueQueue().peek(count);
+        if (nextTasks.isEmpty()) {
+            ui.printWithFormat("You have no deadlines or events coming up.");
+            return;
+        }
+
+        StringBuilder str = new StringBuilder("Here is what you should work on next:");
+        for (Task task : nextTasks) {
+            tasks.appendTask(str.append("\n"), tasks.indexOf(task.getId()));
+        }
+        ui.printWithFormat(str.toString());
+    }
+}
@@ -0,0 +1,44 @@
+package bob.command;
+
+import bob.Storage;
+import bob.TaskList;
+import bob.Ui;
+
+import java.util.Map;
+
+/**
+ * Represents a command to list the tasks that are not done, but whose prerequisites are all done.
+ * The expected format is:
+ * <pre>ready</pre>
+ */
+public class ReadyCommand extends Command {
+    public static final String COMMAND = "ready";
+
+    public ReadyCommand(Map<String, String> arguments) {
+        super(arguments);
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        if (tasks.getDependencies().getReadyIds().isEmpty()) {
+            ui.printWithFormat("There are no tasks that you can do right now.");
+            return;
+        }
+
+        StringBuilder str = new StringBuilder("These tasks are ready to be done:");
+        for (long id : tasks.getDependencies().getReadyIds()) {
+            tasks.appendTask(str.append("\n"), tasks.indexOf(id));
+        }
+        ui.printWithFormat(str.toString());
+    }
+}
@@ -0,0 +1,61 @@
+package bob.command;
+
+import bob.Storage;
+import bob.TaskList;
+import bob.Ui;
+import bob.exception.MissingArgumentException;
+import bob.task.Recurrence;
+import bob.task.Recurring;
+import bob.task.Task;
+import bob.util.DateTime;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Represents a command to create a recurring task. The expected format is:
+ * <pre>recur &lt;desc&gt; /every &lt;rule&gt; /from &lt;date&gt; [/until &lt;date&gt;]</pre>
+ * The rule is either a short form such as {@code week}, {@code 2 days} or {@code monday,thursday}, or an
+ * RRULE-like rule such as {@code FREQ=MONTHLY;INTERVAL=1;COUNT=12}.
+ */
+public class RecurCommand extends Command {
+    public static final String COMMAND = "recur";
+
+    public RecurCommand(Map<String, String> arguments) {
+        super(arguments);
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        String desc = arguments.get("");
+        if (desc == null || desc.isBlank()) {
+            throw new MissingArgumentException("description of the recurring task");
+        }
+
+        String every = arguments.get("every");
+        if (every == null || every.isBlank()) {
+            throw new MissingArgumentException("'every' argument to say how often the task repeats");
+        }
+
+        String from = arguments.get("from");
+        if (from == null || from.isBlank()) {
+            throw new MissingArgumentException("'from' argument to say when the task first happens");
+        }
+
+        LocalDateTime start = DateTime.parse(from);
+        Recurrence rule = Recurrence.parse(every, start.toLocalDate());
+        String until = arguments.get("until");
+        if (until != null && !until.isBlank()) {
+            rule = rule.until(DateTime.parse(until).toLocalDate());
+        }
+
+        Task task = new Recurring(desc, rule, start.toLocalTime());
+        tasks.add(task);
+        ui.printWithFormat("added: " + task);
+    }
+}
@@ -21,6 +21,21 @@ public class TagCommand extends Command {
         return false;
     }
 
+    @Override
+    public boolean isReadOnly() {
+        // Only tagging a task modifies the list, listing tags does not
+        String argument = this.arguments.get("");
+        return argument == null || isTagName(argument);
+    }
+
+    /**
+     * Returns true if the argument names a tag to list, as in {@code tag #URGENT}, rather than a task to tag,
+     * which may also start with {@code #} when it is given by its ID, as in {@code tag #17 URGENT}.
+     */
+    private static boolean isTagName(String argument) {
+        return argument.startsWith("#") && !argument.contains(" ");
+    }
+
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) {
         String argument = this.arguments.get("");
@@ -29,7 +44,7 @@ public class TagCommand extends Command {
             return;
         }
 
-        if (argument.startsWith("#")) {
+        if (isTagName(argument)) {
             printTasksTaggedWith(tasks, ui, argument.substring(1));
         } else {
             tagTask(tasks, ui, argument);
@@ -78,15 +93,7 @@ public class TagCommand extends Command {
     private void tagTask(TaskList tasks, Ui ui, String argument) {
         String[] args = argument.split(" ", 3);
 
-        int index;
-        try {
-            index = Integer.parseInt(args[0]) - 1;
-        } catch (NumberFormatException e) {
-            throw new IncorrectArgumentException("an integer for the task index");
-        }
-        if (index < 0 || index >= tasks.size()) {
-            throw new IncorrectArgumentException("a valid index");
-        }
+        int index = parseTaskIndex(tasks, args[0]);
 
         if (args.length < 2) {
             throw new MissingArgumentException("name of the tag");
@@ -0,0 +1,52 @@
+package bob.command;
+
+import bob.Storage;
+import bob.TaskList;
+import bob.Ui;
+import bob.exception.MissingArgumentException;
+
+import java.util.Map;
+
+/**
+ * Represents a command to remove dependencies of a task. The expected format is:
+ * <pre>undepends &lt;index&gt; [/on &lt;index&gt;]</pre>
+ * Either task can also be given by its ID. Without {@code /on}, every dependency of the task is removed.
+ */
+public class UndependsCommand extends Command {
+    public static final String COMMAND = "undepends";
+
+    public UndependsCommand(Map<String, String> arguments) {
+        super(arguments);
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        String argument = arguments.get("");
+        if (argument == null || argument.isBlank()) {
+            throw new MissingArgumentException("index of the task that you want to stop waiting");
+        }
+        int index = parseTaskIndex(tasks, argument);
+
+        String prerequisiteArgument = arguments.get("on");
+        if (prerequisiteArgument == null || prerequisiteArgument.isBlank()) {
+            int count = tasks.removeDependencies(index);
+            ui.printWithFormat("OK, I've removed " + count + " dependencies from this task:\n"
+                    + tasks.get(index));
+            return;
+        }
+
+        int prerequisite = parseTaskIndex(tasks, prerequisiteArgument);
+        if (tasks.removeDependency(index, prerequisite)) {
+            ui.printWithFormat("OK, this task no longer waits for task " + (prerequisite + 1) + ":\n"
+                    + tasks.get(index));
+        } else {
+            ui.printWithFormat("Looks like this task did not wait for task " + (prerequisite + 1) + ":\n"
+                    + tasks.get(index));
+        }
+    }
+}
@@ -5,6 +5,8 @@ import bob.TaskList;
 import bob.Ui;
 import bob.exception.IncorrectArgumentException;
 import bob.exception.MissingArgumentException;
+import bob.task.Recurring;
+import bob.util.DateTime;
 
 import java.util.Map;
 
@@ -27,18 +29,31 @@ public class UnmarkCommand extends Command {
             throw new MissingArgumentException("index of the task that you want to unmark");
         }
 
-        int index;
-        try {
-            index = Integer.parseInt(argument) - 1;
-        } catch (NumberFormatException e) {
-            throw new IncorrectArgumentException("an integer");
-        }
-        if (index < 0 || index >= tasks.size()) {
-            throw new IncorrectArgumentException("a valid index");
+        int index = parseTaskIndex(tasks, argument);
+        if (arguments.containsKey("on")) {
+            unmarkOccurrence(tasks, ui, index);
+            return;
         }
 
-        tasks.get(index).unmark();
+        tasks.unmark(index);
         ui.printWithFormat("OK, I've marked this task as not done:\n"
                 + tasks.get(index));
     }
+
+    private void unmarkOccurrence(TaskList tasks, Ui ui, int index) {
+        if (!(tasks.get(index) instanceof Recurring)) {
+            throw new IncorrectArgumentException("a recurring task to unmark a single occurrence");
+        }
+        String date = arguments.get("on");
+        if (date == null || date.isBlank()) {
+            throw new MissingArgumentException("date of the occurrence");
+        }
+
+        if (tasks.unmarkOccurrence(index, DateTime.parse(date).toLocalDate())) {
+            ui.printWithFormat("OK, I've marked this occurrence as not done:\n" + tasks.get(index));
+        } else {
+            ui.printWithFormat("Looks like that occurrence was not done, or this task does not occur then:\n"
+                    + tasks.get(index));
+        }
+    }
 }
@@ -3,7 +3,6 @@ package bob.command;
 import bob.Storage;
 import bob.TaskList;
 import bob.Ui;
-import bob.exception.IncorrectArgumentException;
 import bob.exception.MissingArgumentException;
 
 import java.util.Map;
@@ -29,15 +28,7 @@ public class UntagCommand extends Command {
 
         String[] args = argument.split(" ", 2);
 
-        int index;
-        try {
-            index = Integer.parseInt(args[0]) - 1;
-        } catch (NumberFormatException e) {
-            throw new IncorrectArgumentException("an integer");
-        }
-        if (index < 0 || index >= tasks.size()) {
-            throw new IncorrectArgumentException("a valid index");
-        }
+        int index = parseTaskIndex(tasks, args[0]);
 
         if (args.length == 1) {
             tasks.unTag(index);
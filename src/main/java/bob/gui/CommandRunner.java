@@ -0,0 +1,209 @@
+package bob.gui;
+
+import bob.Bob;
+import bob.exception.BobException;
+import bob.output.GuiSink;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Runs commands on a Bob instance away from the JavaFX Application Thread.
+ * All work is done on a single dedicated thread, so commands are executed one at a time in the order they
+ * were submitted, and the Bob instance is never accessed concurrently.
+ * <p>
+ * The runner can also load the data of the Bob instance in the background. While loading, read-only commands
+ * run against the tasks loaded so far, and all other commands are held back until loading completes.
+ * <p>
+ * The reply to each command is whatever the Bob instance outputs to its {@code GuiSink} while running it.
+ */
+public class CommandRunner {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 60;
+    private static final int LOAD_CHUNK_SIZE = 10_000;
+
+    /**
+     * The outcome of a single command.
+     */
+    public static class Result {
+        private final String response;
+        private final String commandType;
+        private final boolean isExit;
+
+        private Result(String response, String commandType, boolean isExit) {
+            this.response = response;
+            this.commandType = commandType;
+            this.isExit = isExit;
+        }
+
+        public String getResponse() {
+            return response;
+        }
+
+        public String getCommandType() {
+            return commandType;
+        }
+
+        public boolean isExit() {
+            return isExit;
+        }
+    }
+
+    private final Bob bob;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bob-commands");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only accessed from the runner's thread
+    private boolean isLoading = false;
+    private final List<Runnable> deferred = new ArrayList<>();
+    // The messages output by the command being run, or null between commands
+    private List<String> reply = null;
+
+    /**
+     * Constructs a command runner for the given Bob instance, which outputs to the given sink.
+     * The Bob instance must not be used directly once it is handed to a runner, and the listener of the sink
+     * is replaced by the runner.
+     *
+     * @param bob the Bob instance that commands are run on
+     * @param sink the sink that the Bob instance outputs to
+     * @param otherMessages receives the messages that the Bob instance outputs between commands
+     */
+    public CommandRunner(Bob bob, GuiSink sink, GuiSink.Listener otherMessages) {
+        assert bob != null : "bob should not be null";
+        this.bob = bob;
+        sink.setListener((text, isError) -> {
+            if (reply != null) {
+                reply.add(text);
+            } else {
+                otherMessages.onMessage(text, isError);
+            }
+        });
+    }
+
+    /**
+     * Loads the data of the Bob instance in chunks, interleaved with the commands submitted in the meantime.
+     * The Bob instance must have been constructed without loading its data.
+     *
+     * @param onProgress called with the fraction of the data loaded so far, from 0 to 1, after each chunk
+     * @param onLoaded called once loading completes, with an error message if the data could not be loaded,
+     *                 or null otherwise
+     */
+    public void load(DoubleConsumer onProgress, Consumer<String> onLoaded) {
+        executor.execute(() -> {
+            isLoading = true;
+            try {
+                bob.startLoading();
+            } catch (RuntimeException e) {
+                finishLoading(onLoaded, getReadError(e));
+                return;
+            }
+            loadNextChunk(onProgress, onLoaded);
+        });
+    }
+
+    private static String getReadError(RuntimeException e) {
+        return "I couldn't read all of your saved tasks, so I won't save over them: " + e.getMessage();
+    }
+
+    private void loadNextChunk(DoubleConsumer onProgress, Consumer<String> onLoaded) {
+        boolean hasMore;
+        String error = null;
+        try {
+            hasMore = bob.loadChunk(LOAD_CHUNK_SIZE);
+        } catch (BobException e) {
+            hasMore = false;
+            error = e.getMessage();
+        } catch (RuntimeException e) {
+            // Such as an UncheckedIOException, after which the data file is left as it is
+            hasMore = false;
+            error = getReadError(e);
+        }
+        onProgress.accept(bob.getLoadProgress());
+
+        if (hasMore) {
+            // Queue the next chunk behind the commands that were submitted in the meantime
+            executor.execute(() -> loadNextChunk(onProgress, onLoaded));
+            return;
+        }
+
+        finishLoading(onLoaded, error);
+    }
+
+    /**
+     * Runs the commands that were held back while loading, whether or not loading succeeded.
+     */
+    private void finishLoading(Consumer<String> onLoaded, String error) {
+        isLoading = false;
+        onLoaded.accept(error);
+        deferred.forEach(Runnable::run);
+        deferred.clear();
+    }
+
+    /**
+     * Submits the given input to be executed after all previously submitted inputs.
+     *
+     * @param input the user's chat message
+     * @return a future that completes with the result of the command
+     */
+    public CompletableFuture<Result> submit(String input) {
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            // Once a command is held back, every later command is held back too, to keep them in order
+            if (isLoading && (!deferred.isEmpty() || !bob.isReadOnly(input))) {
+                deferred.add(() -> run(input, future));
+            } else {
+                run(input, future);
+            }
+        });
+        return future;
+    }
+
+    private void run(String input, CompletableFuture<Result> future) {
+        reply = new ArrayList<>();
+        try {
+            bob.getResponse(input);
+            future.complete(new Result(String.join("\n", reply), bob.getCommandType(), bob.isExit()));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            reply = null;
+        }
+    }
+
+    /**
+     * Saves the data of the Bob instance once all submitted commands have been executed and loading has
+     * completed, then stops the runner. Waits for the save to complete.
+     */
+    public void shutdown() {
+        CompletableFuture<Void> exit = new CompletableFuture<>();
+        Runnable saveAndExit = () -> {
+            try {
+                bob.exit();
+            } finally {
+                exit.complete(null);
+            }
+        };
+        executor.execute(() -> {
+            if (isLoading) {
+                deferred.add(saveAndExit);
+            } else {
+                saveAndExit.run();
+            }
+        });
+
+        try {
+            exit.get(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        executor.shutdown();
+    }
+}
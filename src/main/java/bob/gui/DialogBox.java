@@ -1,53 +1,124 @@
 package bob.gui;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
 import javafx.scene.paint.ImagePattern;
 import javafx.scene.shape.Circle;
 
-import java.io.IOException;
+import java.util.Map;
 
 /**
- * Represents a dialog box containing an avatar and a speech bubble
+ * Represents a dialog box containing an avatar and a speech bubble.
+ * A dialog box can be reused to show a different message.
+ * Its nodes are built directly in code, so creating a dialog box does not involve any FXML parsing.
  */
 public class DialogBox extends HBox {
+    private static final String STYLESHEET = DialogBox.class.getResource("/css/dialog-box.css").toExternalForm();
+    private static final double DEFAULT_WIDTH = 400;
+    private static final double PICTURE_RADIUS = 50;
 
-    @FXML
-    private Label dialog;
-    @FXML
-    private Circle displayPicture;
+    // Extra style class of Bob's reply for each command type. Command types that are not in this table
+    // are shown with the default reply style.
+    private static final Map<String, String> COMMAND_STYLES = Map.of(
+            "TodoCommand", "add-label",
+            "DeadlineCommand", "add-label",
+            "EventCommand", "add-label",
+            "MarkCommand", "marked-label",
+            "DeleteCommand", "delete-label",
+            "Error", "error-label",
+            "Pending", "pending-label");
+
+    // Only accessed from the JavaFX Application Thread. The user and Bob each have a single avatar, so only the
+    // pattern of the latest avatar of each is kept, and it is only made again if the avatar changes.
+    private static Image userImage;
+    private static ImagePattern userPattern;
+    private static Image bobImage;
+    private static ImagePattern bobPattern;
+
+    private final Label dialog;
+    private final Circle displayPicture;
+    private final VBox pictureContainer;
+
+    /**
+     * Constructs an empty dialog box.
+     */
+    public DialogBox() {
+        dialog = new Label();
+        dialog.setId("dialog");
+        dialog.setWrapText(true);
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+
+        displayPicture = new Circle(PICTURE_RADIUS, PICTURE_RADIUS, PICTURE_RADIUS);
+        displayPicture.setId("displayPicture");
+
+        pictureContainer = new VBox(displayPicture);
+        pictureContainer.setAlignment(Pos.BOTTOM_RIGHT);
+
+        this.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        this.setPrefWidth(DEFAULT_WIDTH);
+        this.setPadding(new Insets(15.0, 5.0, 15.0, 5.0));
+        this.getStylesheets().add(STYLESHEET);
+        this.setAlignment(Pos.TOP_RIGHT);
+        this.getChildren().setAll(dialog, pictureContainer);
+    }
 
     public DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/views/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        this();
+        showUserMessage(text, img);
+    }
 
+    /**
+     * Shows the given text as a message from the user, with the text on the left and the ImageView on the right.
+     *
+     * @param text the text of the message
+     * @param img the avatar of the user
+     */
+    public void showUserMessage(String text, Image img) {
+        if (img != userImage) {
+            userImage = img;
+            userPattern = new ImagePattern(img);
+        }
         dialog.setText(text);
-        displayPicture.setFill(new ImagePattern(img));
+        displayPicture.setFill(userPattern);
+
+        this.setAlignment(Pos.TOP_RIGHT);
+        if (this.getChildren().get(0) != dialog) {
+            this.getChildren().setAll(dialog, pictureContainer);
+        }
+        dialog.getStyleClass().setAll("label");
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Shows the given text as a reply from Bob, with the ImageView on the left and text on the right.
+     *
+     * @param text the text of the reply
+     * @param img the avatar of Bob
+     * @param commandType the type of the command that Bob is replying to
      */
-    private void flip() {
+    public void showBobMessage(String text, Image img, String commandType) {
+        if (img != bobImage) {
+            bobImage = img;
+            bobPattern = new ImagePattern(img);
+        }
+        dialog.setText(text);
+        displayPicture.setFill(bobPattern);
+
         this.setAlignment(Pos.TOP_LEFT);
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        FXCollections.reverse(tmp);
-        this.getChildren().setAll(tmp);
-        dialog.getStyleClass().add("reply-label");
+        if (this.getChildren().get(0) != pictureContainer) {
+            this.getChildren().setAll(pictureContainer, dialog);
+        }
+
+        String style = COMMAND_STYLES.get(commandType);
+        if (style == null) {
+            dialog.getStyleClass().setAll("label", "reply-label");
+        } else {
+            dialog.getStyleClass().setAll("label", "reply-label", style);
+        }
     }
 
     public static DialogBox getUserDialog(String s, Image i) {
@@ -55,30 +126,8 @@ public class DialogBox extends HBox {
     }
 
     public static DialogBox getBobDialog(String s, Image i, String commandType) {
-        var db = new DialogBox(s, i);
-        db.flip();
-        db.changeDialogStyle(commandType);
+        var db = new DialogBox();
+        db.showBobMessage(s, i, commandType);
         return db;
     }
-
-    private void changeDialogStyle(String commandType) {
-        switch(commandType) {
-        case "TodoCommand":
-        case "DeadlineCommand":
-        case "EventCommand":
-            dialog.getStyleClass().add("add-label");
-            break;
-        case "MarkCommand":
-            dialog.getStyleClass().add("marked-label");
-            break;
-        case "DeleteCommand":
-            dialog.getStyleClass().add("delete-label");
-            break;
-        case "Error":
-            dialog.getStyleClass().add("error-label");
-            break;
-        default:
-            // Do nothing
-        }
-    }
-}
\ No newline at end of file
+}
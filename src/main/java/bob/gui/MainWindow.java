@@ -1,62 +1,308 @@
 package bob.gui;
 
 import bob.Bob;
+import bob.output.GuiSink;
+import bob.reminder.ReminderService;
+import bob.task.Task;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.ScrollBar;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Controller for the main GUI.
  */
 public class MainWindow extends AnchorPane {
+    // Number of most recent messages kept in memory while the conversation is scrolled to the bottom
+    private static final int MAX_MESSAGES = 200;
+    // Number of messages kept in memory while scrolling back through older messages
+    private static final int MAX_SCROLLBACK_MESSAGES = 1000;
+    // Number of older messages read from the transcript each time the top of the conversation is reached
+    private static final int SCROLLBACK_PAGE_SIZE = 50;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<Message> dialogList;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressBar loadProgress;
+    @FXML
+    private ListView<Task> taskPanel;
 
-    private Bob bob;
+    private GuiSink sink;
+    private CommandRunner runner;
+    private ReminderService reminders;
+    // Only used from the transcript thread, so that reading and writing the file never holds up the GUI
+    private Transcript transcript;
+    private final ExecutorService transcriptExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bob-transcript");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final TaskListAdapter taskListAdapter = new TaskListAdapter();
+    private final ObservableList<Message> messages = FXCollections.observableArrayList();
+    // The most recent messages, set aside while scrolling back through older ones, or null if they are shown
+    private List<Message> latestMessages = null;
+    private boolean isLoadingOlderMessages = false;
 
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/user_avatar.jpg"));
     private Image bobImage = new Image(this.getClass().getResourceAsStream("/images/Bob_avatar.jpg"));
 
     @FXML
     public void initialize() {
-        dialogContainer.heightProperty().addListener((observable, oldValue, newValue) -> scrollPane.setVvalue(1.0));
+        // Only the visible messages are turned into nodes, and cells are recycled while scrolling
+        dialogList.setItems(messages);
+        dialogList.setCellFactory(listView -> new MessageCell(listView, userImage, bobImage));
+        dialogList.setFocusTraversable(false);
+        dialogList.skinProperty().addListener((observable, oldSkin, newSkin) -> watchScrollBar());
+
+        // The task panel is kept up to date by applying each change to the task list as it happens
+        taskPanel.setItems(taskListAdapter.getItems());
+        taskPanel.setCellFactory(listView -> new TaskCell());
+    }
+
+    /**
+     * Loads older messages from the transcript whenever the conversation is scrolled to the top.
+     */
+    private void watchScrollBar() {
+        for (Node node : dialogList.lookupAll(".scroll-bar")) {
+            if (!(node instanceof ScrollBar) || ((ScrollBar) node).getOrientation() != Orientation.VERTICAL) {
+                continue;
+            }
+
+            ScrollBar scrollBar = (ScrollBar) node;
+            scrollBar.valueProperty().addListener((observable, oldValue, newValue) -> {
+                boolean isScrolledUpToTop = newValue.doubleValue() <= scrollBar.getMin()
+                        && newValue.doubleValue() < oldValue.doubleValue();
+                if (isScrolledUpToTop) {
+                    loadOlderMessages();
+                }
+            });
+        }
+    }
+
+    /**
+     * Injects the transcript that the conversation is logged to, and shows its most recent messages once they
+     * have been read.
+     */
+    public void setTranscript(Transcript t) {
+        transcript = t;
+        isLoadingOlderMessages = true;
+        transcriptExecutor.execute(() -> {
+            List<Message> recentMessages = transcript.readBefore(transcript.getLength(), MAX_MESSAGES);
+            // Messages shown in the meantime are not in the transcript yet, so they are newer
+            Platform.runLater(() -> {
+                isLoadingOlderMessages = false;
+                addOlderMessages(recentMessages);
+                dialogList.scrollTo(messages.size() - 1);
+            });
+        });
+    }
+
+    private void loadOlderMessages() {
+        if (transcript == null || isLoadingOlderMessages || messages.isEmpty()) {
+            return;
+        }
+
+        isLoadingOlderMessages = true;
+        List<Message> shownMessages = List.copyOf(messages);
+        transcriptExecutor.execute(() -> {
+            // Messages whose exchange was written to the transcript before now have their offsets by now
+            List<Message> olderMessages = transcript.readBefore(getOldestTranscriptOffset(shownMessages),
+                    SCROLLBACK_PAGE_SIZE);
+            Platform.runLater(() -> {
+                isLoadingOlderMessages = false;
+                // The messages read are only older than those shown if the oldest shown message is the same
+                boolean isStillOldest = !messages.isEmpty() && messages.get(0) == shownMessages.get(0);
+                if (!olderMessages.isEmpty() && isStillOldest) {
+                    addOlderMessages(olderMessages);
+                    dialogList.scrollTo(olderMessages.size());
+                }
+            });
+        });
+    }
+
+    /**
+     * Returns the transcript offset of the oldest of the given messages that is in the transcript.
+     * Only called from the transcript thread.
+     */
+    private long getOldestTranscriptOffset(List<Message> shownMessages) {
+        for (Message message : shownMessages) {
+            if (message.getTranscriptOffset() >= 0) {
+                return message.getTranscriptOffset();
+            }
+        }
+
+        // None of the messages in memory are in the transcript yet, so they are all newer than the transcript
+        return transcript.getLength();
     }
 
-    /** Injects the Bob instance */
+    /**
+     * Adds the given messages before every message in memory. If that is too many messages, the most recent
+     * ones are set aside, including any placeholders for replies that are still pending, and are shown again
+     * as they were once a new message arrives.
+     */
+    private void addOlderMessages(List<Message> olderMessages) {
+        messages.addAll(0, olderMessages);
+        if (messages.size() <= MAX_SCROLLBACK_MESSAGES) {
+            return;
+        }
+
+        if (latestMessages == null) {
+            latestMessages = new ArrayList<>(messages.subList(Math.max(0, messages.size() - MAX_MESSAGES),
+                    messages.size()));
+        }
+        messages.remove(MAX_SCROLLBACK_MESSAGES, messages.size());
+    }
+
+    /**
+     * Shows the messages output to the given sink, such as Bob's greeting, until a Bob instance that outputs to it
+     * is injected, after which the replies to commands are shown in place of their placeholders.
+     * Should be called before the Bob instance is constructed, so that no message is missed.
+     */
+    public void setSink(GuiSink s) {
+        sink = s;
+        sink.setListener(this::showBobMessage);
+    }
+
+    private void showBobMessage(String text, boolean isError) {
+        Platform.runLater(() -> addMessages(Message.fromBob(text, isError ? "Error" : "")));
+    }
+
+    /** Injects the Bob instance, which outputs to the sink. The Bob instance should not be used directly afterwards. */
     public void setBob(Bob b) {
-        bob = b;
-        String greeting = bob.getLastMessage();
-        if (!greeting.isBlank()) {
-            dialogContainer.getChildren().add(DialogBox.getBobDialog(greeting, bobImage, ""));
+        assert sink != null : "setSink() should be called before setBob()";
+        b.addTaskListListener(taskListAdapter);
+        startReminders(b);
+        runner = new CommandRunner(b, sink, this::showBobMessage);
+    }
+
+    /**
+     * Shows a message whenever a task of the given Bob instance is coming up.
+     */
+    private void startReminders(Bob b) {
+        GuiSink reminderSink = new GuiSink();
+        reminderSink.setListener(this::showBobMessage);
+        reminders = new ReminderService(reminderSink);
+        b.addTaskListListener(reminders);
+        reminders.start();
+    }
+
+    /**
+     * Injects a Bob instance whose data has not been loaded yet, and loads the data in the background.
+     * A progress bar is shown until loading completes. Input is accepted immediately.
+     */
+    public void setBobAndLoad(Bob b) {
+        setBob(b);
+        loadProgress.setVisible(true);
+        runner.load(
+                progress -> Platform.runLater(() -> loadProgress.setProgress(progress)),
+                error -> Platform.runLater(() -> {
+                    loadProgress.setVisible(false);
+                    if (error != null) {
+                        addMessages(Message.fromBob(error, "Error"));
+                    }
+                }));
+    }
+
+    /**
+     * Saves the data of the Bob instance once all pending commands have been executed.
+     */
+    public void shutdown() {
+        if (reminders != null) {
+            reminders.stop();
+        }
+        if (runner != null) {
+            runner.shutdown();
+        }
+        if (transcript != null) {
+            // Queued behind the exchanges that are still being written
+            transcriptExecutor.execute(transcript::close);
+        }
+        transcriptExecutor.shutdown();
+        try {
+            transcriptExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
+    private void addMessages(Message... newMessages) {
+        if (latestMessages != null) {
+            messages.setAll(latestMessages);
+            latestMessages = null;
+        }
+
+        messages.addAll(newMessages);
+        if (messages.size() > MAX_MESSAGES) {
+            // Older messages remain in the transcript and are read back when scrolling up
+            messages.remove(0, messages.size() - MAX_MESSAGES);
+        }
+        dialogList.scrollTo(messages.size() - 1);
+    }
+
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Bob's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Replaces the placeholder for a reply with the actual reply, and logs the exchange to the transcript.
+     */
+    private void completeExchange(Message userMessage, Message pending, Message reply) {
+        // Replies that arrive while shutting down are no longer logged
+        if (transcript != null && !transcriptExecutor.isShutdown()) {
+            transcriptExecutor.execute(() -> transcript.append(userMessage, reply));
+        }
+
+        // The message being replaced is almost always near the end of the list, which may be set aside
+        List<Message> latest = latestMessages != null ? latestMessages : messages;
+        int index = latest.lastIndexOf(pending);
+        if (index >= 0) {
+            latest.set(index, reply);
+        }
+    }
+
+    /**
+     * Adds two messages to the conversation, one echoing user input and the other a placeholder for Bob's reply,
+     * then submits the input to be executed in the background. The placeholder is replaced once the reply arrives,
+     * and both messages are then logged to the transcript.
+     * Clears the user input immediately, so that the user can keep typing.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = bob.getResponse(input);
-        String commandType = bob.getCommandType();
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getBobDialog(response, bobImage, commandType)
-        );
         userInput.clear();
-        if (bob.isExit()) {
-            Platform.exit();
-        }
+
+        Message userMessage = Message.fromUser(input);
+        Message pending = Message.pending();
+        addMessages(userMessage, pending);
+
+        runner.submit(input).whenComplete((result, e) -> Platform.runLater(() -> {
+            if (e != null) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                Message error = Message.fromBob(String.valueOf(cause.getMessage()), "Error");
+                completeExchange(userMessage, pending, error);
+                return;
+            }
+
+            completeExchange(userMessage, pending, Message.fromBob(result.getResponse(), result.getCommandType()));
+            if (result.isExit()) {
+                Platform.exit();
+            }
+        }));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package bob.gui;
+
+/**
+ * Represents a single message in the conversation shown by the GUI.
+ * Messages are plain data; {@code MessageCell} turns the visible ones into nodes.
+ */
+public class Message {
+    /**
+     * The party that sent a message.
+     */
+    public enum Sender {
+        USER,
+        BOB
+    }
+
+    private final Sender sender;
+    private final String text;
+    private final String commandType;
+    // Where this message starts in the transcript file, or -1 if it has not been written to the transcript.
+    // Set by the thread that writes the transcript, while the message may be shown on another
+    private volatile long transcriptOffset = -1;
+
+    /**
+     * Constructs a message.
+     *
+     * @param sender the party that sent the message
+     * @param text the text of the message
+     * @param commandType the simple class name of the command that produced the message, or "" if there is none
+     */
+    public Message(Sender sender, String text, String commandType) {
+        assert sender != null : "sender should not be null";
+        assert text != null : "text should not be null";
+        assert commandType != null : "commandType should not be null";
+
+        this.sender = sender;
+        this.text = text;
+        this.commandType = commandType;
+    }
+
+    public static Message fromUser(String text) {
+        return new Message(Sender.USER, text, "");
+    }
+
+    public static Message fromBob(String text, String commandType) {
+        return new Message(Sender.BOB, text, commandType);
+    }
+
+    /**
+     * Returns a placeholder for a reply from Bob that has not arrived yet.
+     */
+    public static Message pending() {
+        return new Message(Sender.BOB, "...", "Pending");
+    }
+
+    public Sender getSender() {
+        return sender;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getCommandType() {
+        return commandType;
+    }
+
+    long getTranscriptOffset() {
+        return transcriptOffset;
+    }
+
+    void setTranscriptOffset(long transcriptOffset) {
+        this.transcriptOffset = transcriptOffset;
+    }
+}
@@ -0,0 +1,50 @@
+package bob.gui;
+
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+
+/**
+ * A recycled list cell that shows a {@code Message} in a single {@code DialogBox}.
+ * The dialog box is created once per cell and updated whenever the cell is reused for another message.
+ */
+public class MessageCell extends ListCell<Message> {
+    // Leaves room for the vertical scroll bar, so that wrapped text never overflows
+    private static final double SCROLL_BAR_ALLOWANCE = 20;
+
+    private final DialogBox dialogBox = new DialogBox();
+    private final Image userImage;
+    private final Image bobImage;
+
+    /**
+     * Constructs a cell for the given list view.
+     *
+     * @param listView the list view that the cell belongs to
+     * @param userImage the avatar of the user
+     * @param bobImage the avatar of Bob
+     */
+    public MessageCell(ListView<Message> listView, Image userImage, Image bobImage) {
+        this.userImage = userImage;
+        this.bobImage = bobImage;
+        dialogBox.prefWidthProperty().bind(listView.widthProperty().subtract(SCROLL_BAR_ALLOWANCE));
+        dialogBox.maxWidthProperty().bind(dialogBox.prefWidthProperty());
+        setPrefWidth(0);
+    }
+
+    @Override
+    protected void updateItem(Message message, boolean empty) {
+        super.updateItem(message, empty);
+
+        if (empty || message == null) {
+            setGraphic(null);
+            return;
+        }
+
+        if (message.getSender() == Message.Sender.USER) {
+            dialogBox.showUserMessage(message.getText(), userImage);
+        } else {
+            dialogBox.showBobMessage(message.getText(), bobImage, message.getCommandType());
+        }
+        setGraphic(dialogBox);
+    }
+}
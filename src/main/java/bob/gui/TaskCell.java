@@ -0,0 +1,25 @@
+package bob.gui;
+
+import bob.task.Task;
+import javafx.scene.control.ListCell;
+
+/**
+ * A recycled list cell that shows a task prefixed by its index (starting from 1).
+ */
+public class TaskCell extends ListCell<Task> {
+    public TaskCell() {
+        setWrapText(true);
+        setPrefWidth(0);
+    }
+
+    @Override
+    protected void updateItem(Task task, boolean empty) {
+        super.updateItem(task, empty);
+
+        if (empty || task == null) {
+            setText(null);
+        } else {
+            setText((getIndex() + 1) + "." + task);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package bob.gui;
+
+import bob.TaskListListener;
+import bob.task.Task;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mirrors a {@code TaskList} in an {@code ObservableList} that can back a JavaFX control.
+ * Change events may arrive on any thread. They are queued and applied as deltas on the JavaFX Application Thread,
+ * in batches, so a burst of changes costs a single {@code Platform.runLater} and consecutive additions at the end
+ * of the list are applied with a single {@code addAll}.
+ */
+public class TaskListAdapter implements TaskListListener {
+    private enum Type {
+        ADDED,
+        REMOVED,
+        UPDATED,
+        RESET
+    }
+
+    private static class Delta {
+        private final Type type;
+        private final int index;
+        private final Task task;
+
+        private Delta(Type type, int index, Task task) {
+            this.type = type;
+            this.index = index;
+            this.task = task;
+        }
+    }
+
+    private final ObservableList<Task> items = FXCollections.observableArrayList();
+    private final Queue<Delta> deltas = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean isApplyScheduled = new AtomicBoolean(false);
+
+    /**
+     * Returns the mirrored list. It must only be accessed from the JavaFX Application Thread.
+     */
+    public ObservableList<Task> getItems() {
+        return items;
+    }
+
+    @Override
+    public void onAdded(int index, Task task) {
+        enqueue(new Delta(Type.ADDED, index, task));
+    }
+
+    @Override
+    public void onRemoved(int index, Task task) {
+        enqueue(new Delta(Type.REMOVED, index, task));
+    }
+
+    @Override
+    public void onUpdated(int index, Task task) {
+        enqueue(new Delta(Type.UPDATED, index, task));
+    }
+
+    @Override
+    public void onReset() {
+        enqueue(new Delta(Type.RESET, -1, null));
+    }
+
+    private void enqueue(Delta delta) {
+        deltas.add(delta);
+        if (isApplyScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::applyDeltas);
+        }
+    }
+
+    private void applyDeltas() {
+        isApplyScheduled.set(false);
+
+        List<Task> appended = new ArrayList<>();
+        Delta delta;
+        while ((delta = deltas.poll()) != null) {
+            // Collect consecutive additions at the end of the list into a single change
+            if (delta.type == Type.ADDED && delta.index == items.size() + appended.size()) {
+                appended.add(delta.task);
+                continue;
+            }
+            flushAppended(appended);
+
+            switch (delta.type) {
+            case ADDED:
+                items.add(delta.index, delta.task);
+                break;
+            case REMOVED:
+                items.remove(delta.index);
+                break;
+            case UPDATED:
+                // Replacing a task with itself only refreshes the row that shows it
+                items.set(delta.index, delta.task);
+                break;
+            case RESET:
+                items.clear();
+                break;
+            default:
+                assert false : "unknown delta type " + delta.type;
+            }
+        }
+        flushAppended(appended);
+    }
+
+    private void flushAppended(List<Task> appended) {
+        if (!appended.isEmpty()) {
+            items.addAll(appended);
+            appended.clear();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package bob.gui;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An append-only log of the conversation, stored in a file with one message per line.
+ * Messages are read back from the end of the file, so recent history is available immediately no matter
+ * how long the transcript grows.
+ * The format of each line is: <pre>&lt;U|B&gt;&lt;commandType&gt;\t&lt;escaped text&gt;</pre>
+ * This class is not thread-safe, and does file I/O in every method, so it should not be used from the JavaFX
+ * Application Thread.
+ */
+public class Transcript {
+    private static final int BLOCK_SIZE = 8192;
+
+    private final File file;
+    private OutputStream out;
+    private long length;
+
+    /**
+     * Constructs a transcript that is stored at the given file path.
+     *
+     * @param filePath where the transcript is stored
+     */
+    public Transcript(String filePath) {
+        file = new File(filePath);
+        length = file.length();
+    }
+
+    /**
+     * Returns the position just after the last message in the transcript.
+     * This can be used with {@link #readBefore(long, int)} to read the most recent messages.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Appends the given messages to the end of the transcript, and records where each message starts.
+     *
+     * @param messages the messages to append
+     */
+    public void append(Message... messages) {
+        try {
+            if (out == null) {
+                file.getAbsoluteFile().getParentFile().mkdirs();
+                out = new BufferedOutputStream(new FileOutputStream(file, true));
+            }
+
+            for (Message message : messages) {
+                byte[] line = encode(message).getBytes(StandardCharsets.UTF_8);
+                out.write(line);
+                message.setTranscriptOffset(length);
+                length += line.length;
+            }
+            out.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Reads up to {@code count} messages that end before the given position, oldest first.
+     *
+     * @param position the position before which messages are read, as returned by
+     *                 the transcript offset of a message or {@link #getLength()}
+     * @param count the maximum number of messages to read
+     * @return the messages, oldest first
+     */
+    public List<Message> readBefore(long position, int count) {
+        if (position <= 0 || count <= 0 || !file.exists()) {
+            return List.of();
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long start = findStartOfLines(raf, position, count);
+            byte[] bytes = new byte[(int) (position - start)];
+            raf.seek(start);
+            raf.readFully(bytes);
+            return decodeLines(bytes, start);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return List.of();
+        }
+    }
+
+    /**
+     * Scans backwards from {@code end}, which should be the start of a line, for the start of the
+     * {@code count}-th line before it.
+     */
+    private static long findStartOfLines(RandomAccessFile raf, long end, int count) throws IOException {
+        byte[] buffer = new byte[BLOCK_SIZE];
+        int found = 0;
+
+        // Skip the linebreak that ends the last line
+        long blockEnd = end - 1;
+        while (blockEnd > 0) {
+            long blockStart = Math.max(0, blockEnd - BLOCK_SIZE);
+            int blockLength = (int) (blockEnd - blockStart);
+            raf.seek(blockStart);
+            raf.readFully(buffer, 0, blockLength);
+
+            for (int i = blockLength - 1; i >= 0; --i) {
+                if (buffer[i] == '\n' && ++found == count) {
+                    return blockStart + i + 1;
+                }
+            }
+            blockEnd = blockStart;
+        }
+
+        return 0;
+    }
+
+    private static List<Message> decodeLines(byte[] bytes, long offset) {
+        List<Message> messages = new ArrayList<>();
+        int lineStart = 0;
+        for (int i = 0; i < bytes.length; ++i) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+
+            String line = new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8);
+            Message message = decode(line);
+            if (message != null) {
+                message.setTranscriptOffset(offset + lineStart);
+                messages.add(message);
+            }
+            lineStart = i + 1;
+        }
+
+        return messages;
+    }
+
+    private static String encode(Message message) {
+        StringBuilder line = new StringBuilder();
+        line.append(message.getSender() == Message.Sender.USER ? 'U' : 'B')
+                .append(message.getCommandType())
+                .append('\t');
+
+        String text = message.getText();
+        for (int i = 0; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '\\':
+                line.append("\\\\");
+                break;
+            case '\n':
+                line.append("\\n");
+                break;
+            case '\r':
+                line.append("\\r");
+                break;
+            default:
+                line.append(c);
+            }
+        }
+
+        return line.append('\n').toString();
+    }
+
+    /**
+     * Decodes a line of the transcript, or returns null if the line is corrupted.
+     */
+    private static Message decode(String line) {
+        int tab = line.indexOf('\t');
+        if (tab < 1 || (line.charAt(0) != 'U' && line.charAt(0) != 'B')) {
+            return null;
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (int i = tab + 1; i < line.length(); ++i) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                char escaped = line.charAt(++i);
+                text.append(escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                text.append(c);
+            }
+        }
+
+        Message.Sender sender = line.charAt(0) == 'U' ? Message.Sender.USER : Message.Sender.BOB;
+        return new Message(sender, text.toString(), line.substring(1, tab));
+    }
+
+    /**
+     * Closes the transcript file.
+     */
+    public void close() {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        out = null;
+    }
+}
@@ -0,0 +1,300 @@
+package bob.index;
+
+import bob.TaskListListener;
+import bob.exception.IncorrectArgumentException;
+import bob.task.Task;
+import bob.util.LongHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Tracks which tasks must be done before other tasks, keyed by task ID, and which tasks are ready to be done.
+ * A task is ready if it is not done and all of its prerequisites are done.
+ * <p>
+ * The graph never has a cycle. Every task in the graph has a position in a topological order, so adding a
+ * dependency that agrees with the order needs no search at all. Otherwise only the tasks whose positions lie
+ * between the two ends of the new dependency are searched and reordered (Pearce and Kelly, 2006), so
+ * checking for a cycle does not cost a traversal of the whole graph.
+ * <p>
+ * The set of ready tasks is updated as tasks are added, marked, unmarked and removed, so listing it costs
+ * no more than the size of the result. Only tasks with dependencies are stored in the graph itself.
+ */
+public class DependencyGraph implements TaskListListener {
+    private static final Comparator<Node> BY_ORDER = Comparator.comparingLong(node -> node.order);
+
+    private final LongHashMap<Node> nodes = new LongHashMap<>();
+    private final TreeSet<Long> readyIds = new TreeSet<>();
+    private final NavigableSet<Long> readOnlyReadyIds = Collections.unmodifiableNavigableSet(readyIds);
+    private long nextOrder = 0;
+    // Incremented for every search, so that nodes can be marked as visited without clearing old marks
+    private int searchCount = 0;
+
+    private static class Node {
+        private final long id;
+        private final List<Node> prerequisites = new ArrayList<>();
+        private final List<Node> dependents = new ArrayList<>();
+        private long order;
+        private boolean isDone;
+        // The number of prerequisites that are not done
+        private int unmetCount = 0;
+        private int visitedInSearch = 0;
+
+        private Node(long id, long order, boolean isDone) {
+            this.id = id;
+            this.order = order;
+            this.isDone = isDone;
+        }
+
+        private boolean isIsolated() {
+            return prerequisites.isEmpty() && dependents.isEmpty();
+        }
+    }
+
+    /**
+     * Makes the given task depend on the given prerequisite, so that it is not ready until the prerequisite is done.
+     *
+     * @param task the dependent task
+     * @param prerequisite the task that must be done first
+     * @return true if the dependency was added, false if it already existed
+     * @throws IncorrectArgumentException if the dependency would form a cycle
+     */
+    public boolean addDependency(Task task, Task prerequisite) {
+        if (task.getId() == prerequisite.getId()) {
+            throw new IncorrectArgumentException("a task other than the task itself as its prerequisite");
+        }
+
+        Node node = nodes.get(task.getId());
+        Node prerequisiteNode = nodes.get(prerequisite.getId());
+        if (node != null && prerequisiteNode != null && node.prerequisites.contains(prerequisiteNode)) {
+            return false;
+        }
+
+        if (node == null) {
+            node = createNode(task);
+        }
+        if (prerequisiteNode == null) {
+            prerequisiteNode = createNode(prerequisite);
+        }
+
+        if (prerequisiteNode.order > node.order) {
+            try {
+                reorder(prerequisiteNode, node);
+            } catch (IncorrectArgumentException e) {
+                removeIfIsolated(node);
+                removeIfIsolated(prerequisiteNode);
+                throw e;
+            }
+        }
+
+        node.prerequisites.add(prerequisiteNode);
+        prerequisiteNode.dependents.add(node);
+        if (!prerequisiteNode.isDone) {
+            ++node.unmetCount;
+            updateReadiness(node);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the dependency of the task with ID {@code id} on the task with ID {@code prerequisiteId}.
+     *
+     * @param id the ID of the dependent task
+     * @param prerequisiteId the ID of the prerequisite
+     * @return true if the dependency existed
+     */
+    public boolean removeDependency(long id, long prerequisiteId) {
+        Node node = nodes.get(id);
+        Node prerequisiteNode = nodes.get(prerequisiteId);
+        if (node == null || prerequisiteNode == null || !node.prerequisites.remove(prerequisiteNode)) {
+            return false;
+        }
+
+        prerequisiteNode.dependents.remove(node);
+        if (!prerequisiteNode.isDone) {
+            --node.unmetCount;
+            updateReadiness(node);
+        }
+        removeIfIsolated(node);
+        removeIfIsolated(prerequisiteNode);
+        return true;
+    }
+
+    /**
+     * Returns the IDs of the prerequisites of the task with the given ID, in the order they were added.
+     *
+     * @param id the ID of the task
+     * @return the IDs of the prerequisites, which is empty if the task has none
+     */
+    public long[] getPrerequisiteIds(long id) {
+        Node node = nodes.get(id);
+        if (node == null) {
+            return new long[0];
+        }
+
+        long[] ids = new long[node.prerequisites.size()];
+        for (int i = 0; i < ids.length; ++i) {
+            ids[i] = node.prerequisites.get(i).id;
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the IDs of the tasks that are ready to be done, in increasing order.
+     * The returned set cannot be modified, and changes as the task list changes.
+     */
+    public NavigableSet<Long> getReadyIds() {
+        return readOnlyReadyIds;
+    }
+
+    /**
+     * Returns the number of tasks that have dependencies or are depended on.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    private Node createNode(Task task) {
+        Node node = new Node(task.getId(), nextOrder++, task.getIsDone());
+        nodes.put(node.id, node);
+        return node;
+    }
+
+    private void removeIfIsolated(Node node) {
+        if (node.isIsolated()) {
+            nodes.remove(node.id);
+        }
+    }
+
+    private void updateReadiness(Node node) {
+        setReady(node.id, !node.isDone && node.unmetCount == 0);
+    }
+
+    private void setReady(long id, boolean isReady) {
+        if (isReady) {
+            readyIds.add(id);
+        } else {
+            readyIds.remove(id);
+        }
+    }
+
+    /**
+     * Restores the topological order before the dependency of {@code node} on {@code prerequisite} is added,
+     * given that the prerequisite currently comes after the node.
+     */
+    private void reorder(Node prerequisite, Node node) {
+        long lowerBound = node.order;
+        long upperBound = prerequisite.order;
+        ++searchCount;
+
+        // Everything that depends on the node and comes before the prerequisite has to move after it
+        List<Node> forward = new ArrayList<>();
+        collect(node, upperBound, true, forward);
+        if (prerequisite.visitedInSearch == searchCount) {
+            throw new IncorrectArgumentException("a prerequisite that does not already depend on this task");
+        }
+
+        // Everything that the prerequisite depends on and comes after the node has to move before it
+        List<Node> backward = new ArrayList<>();
+        collect(prerequisite, lowerBound, false, backward);
+
+        forward.sort(BY_ORDER);
+        backward.sort(BY_ORDER);
+        long[] orders = new long[forward.size() + backward.size()];
+        int n = 0;
+        for (Node affected : backward) {
+            orders[n++] = affected.order;
+        }
+        for (Node affected : forward) {
+            orders[n++] = affected.order;
+        }
+        Arrays.sort(orders);
+
+        // Reuse the same positions, with the prerequisite's side first
+        n = 0;
+        for (Node affected : backward) {
+            affected.order = orders[n++];
+        }
+        for (Node affected : forward) {
+            affected.order = orders[n++];
+        }
+    }
+
+    /**
+     * Collects every node reachable from {@code start} whose position is within the bound,
+     * following dependents if {@code isForward} and prerequisites otherwise.
+     */
+    private void collect(Node start, long bound, boolean isForward, List<Node> result) {
+        List<Node> stack = new ArrayList<>();
+        stack.add(start);
+        start.visitedInSearch = searchCount;
+        while (!stack.isEmpty()) {
+            Node current = stack.remove(stack.size() - 1);
+            result.add(current);
+            for (Node next : isForward ? current.dependents : current.prerequisites) {
+                boolean isWithinBound = isForward ? next.order <= bound : next.order >= bound;
+                if (next.visitedInSearch != searchCount && isWithinBound) {
+                    next.visitedInSearch = searchCount;
+                    stack.add(next);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onAdded(int index, Task task) {
+        setReady(task.getId(), !task.getIsDone());
+    }
+
+    @Override
+    public void onRemoved(int index, Task task) {
+        readyIds.remove(task.getId());
+        Node node = nodes.remove(task.getId());
+        if (node == null) {
+            return;
+        }
+
+        for (Node dependent : node.dependents) {
+            dependent.prerequisites.remove(node);
+            if (!node.isDone) {
+                --dependent.unmetCount;
+                updateReadiness(dependent);
+            }
+            removeIfIsolated(dependent);
+        }
+        for (Node prerequisite : node.prerequisites) {
+            prerequisite.dependents.remove(node);
+            removeIfIsolated(prerequisite);
+        }
+    }
+
+    @Override
+    public void onUpdated(int index, Task task) {
+        Node node = nodes.get(task.getId());
+        if (node == null) {
+            setReady(task.getId(), !task.getIsDone());
+            return;
+        }
+        if (node.isDone == task.getIsDone()) {
+            return;
+        }
+
+        node.isDone = task.getIsDone();
+        updateReadiness(node);
+        for (Node dependent : node.dependents) {
+            dependent.unmetCount += node.isDone ? -1 : 1;
+            updateReadiness(dependent);
+        }
+    }
+
+    @Override
+    public void onReset() {
+        nodes.clear();
+        readyIds.clear();
+    }
+}
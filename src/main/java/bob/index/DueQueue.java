@@ -0,0 +1,237 @@
+package bob.index;
+
+import bob.TaskListListener;
+import bob.task.Deadline;
+import bob.task.Event;
+import bob.task.Recurring;
+import bob.task.Task;
+import bob.util.LongHashMap;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the deadlines, events and recurring tasks that are not done in the order that they should be worked on:
+ * tasks tagged {@code p1} first, then {@code p2}, then {@code p3}, then untagged ones, and by due time within
+ * each priority.
+ * Deadlines are due at their deadline, events are due when they start, and recurring tasks are due at their
+ * first occurrence that is not done.
+ * <p>
+ * The tasks are kept in a binary heap that also records where each task is in the heap, so a task can be
+ * moved or removed in O(log n) when it is marked, unmarked, tagged or deleted, instead of rebuilding the heap.
+ * The first k tasks are found in O(k log k) without sorting the rest.
+ */
+public class DueQueue implements TaskListListener {
+    /**
+     * The priority of tasks without a priority tag, which come after every tagged task.
+     */
+    public static final int NO_PRIORITY = 4;
+    private static final String[] PRIORITY_TAGS = {"p1", "p2", "p3"};
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final LongHashMap<Entry> entries = new LongHashMap<>();
+    private Entry[] heap = new Entry[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private static class Entry {
+        private final Task task;
+        private int priority;
+        private long dueSeconds;
+        private int position;
+
+        private Entry(Task task) {
+            this.task = task;
+        }
+
+        private boolean isBefore(Entry other) {
+            if (priority != other.priority) {
+                return priority < other.priority;
+            }
+            if (dueSeconds != other.dueSeconds) {
+                return dueSeconds < other.dueSeconds;
+            }
+            return task.getId() < other.task.getId();
+        }
+    }
+
+    /**
+     * Returns the priority of the given task, from 1 (most urgent) to {@code NO_PRIORITY}.
+     *
+     * @param task the task
+     * @return the priority given by the most urgent priority tag of the task
+     */
+    public static int getPriority(Task task) {
+        int priority = NO_PRIORITY;
+        for (String tag : task.getTags()) {
+            for (int i = 0; i < PRIORITY_TAGS.length; ++i) {
+                if (tag.equalsIgnoreCase(PRIORITY_TAGS[i])) {
+                    priority = Math.min(priority, i + 1);
+                }
+            }
+        }
+        return priority;
+    }
+
+    /**
+     * Returns when the given task is due, or null if it has no date.
+     *
+     * @param task the task
+     * @return the deadline of a deadline, the start of an event, or the next occurrence of a recurring task
+     */
+    public static LocalDateTime getDue(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy();
+        } else if (task instanceof Event) {
+            return ((Event) task).getFrom();
+        } else if (task instanceof Recurring) {
+            return ((Recurring) task).getNextOccurrence();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first {@code k} tasks in the order that they should be worked on.
+     *
+     * @param k the maximum number of tasks to return
+     * @return up to {@code k} tasks, in order
+     */
+    public List<Task> peek(int k) {
+        List<Task> result = new ArrayList<>(Math.min(k, size));
+        if (size == 0 || k <= 0) {
+            return result;
+        }
+
+        // The next task is always the root, or a child of a task that was already returned
+        PriorityQueue<Entry> candidates = new PriorityQueue<>((a, b) -> a.isBefore(b) ? -1 : 1);
+        candidates.add(heap[0]);
+        while (result.size() < k && !candidates.isEmpty()) {
+            Entry entry = candidates.poll();
+            result.add(entry.task);
+            for (int child = 2 * entry.position + 1; child <= 2 * entry.position + 2 && child < size; ++child) {
+                candidates.add(heap[child]);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean isQueued(Task task) {
+        return !task.getIsDone() && getDue(task) != null;
+    }
+
+    private void update(Task task) {
+        Entry entry = entries.get(task.getId());
+        if (!isQueued(task)) {
+            if (entry != null) {
+                remove(entry);
+            }
+            return;
+        }
+
+        if (entry == null) {
+            entry = new Entry(task);
+            setKey(entry);
+            insert(entry);
+            return;
+        }
+
+        setKey(entry);
+        // The key may have moved either way, and at most one of these moves the entry
+        siftUp(entry.position);
+        siftDown(entry.position);
+    }
+
+    private static void setKey(Entry entry) {
+        entry.priority = getPriority(entry.task);
+        entry.dueSeconds = getDue(entry.task).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private void insert(Entry entry) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        entries.put(entry.task.getId(), entry);
+        place(entry, size++);
+        siftUp(entry.position);
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.task.getId());
+        int position = entry.position;
+        Entry last = heap[--size];
+        heap[size] = null;
+        if (position == size) {
+            return;
+        }
+
+        place(last, position);
+        siftUp(position);
+        siftDown(last.position);
+    }
+
+    private void place(Entry entry, int position) {
+        heap[position] = entry;
+        entry.position = position;
+    }
+
+    private void siftUp(int position) {
+        Entry entry = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!entry.isBefore(heap[parent])) {
+                break;
+            }
+            place(heap[parent], position);
+            position = parent;
+        }
+        place(entry, position);
+    }
+
+    private void siftDown(int position) {
+        Entry entry = heap[position];
+        while (2 * position + 1 < size) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && heap[child + 1].isBefore(heap[child])) {
+                ++child;
+            }
+            if (!heap[child].isBefore(entry)) {
+                break;
+            }
+            place(heap[child], position);
+            position = child;
+        }
+        place(entry, position);
+    }
+
+    @Override
+    public void onAdded(int index, Task task) {
+        update(task);
+    }
+
+    @Override
+    public void onRemoved(int index, Task task) {
+        Entry entry = entries.get(task.getId());
+        if (entry != null) {
+            remove(entry);
+        }
+    }
+
+    @Override
+    public void onUpdated(int index, Task task) {
+        update(task);
+    }
+
+    @Override
+    public void onReset() {
+        entries.clear();
+        heap = new Entry[INITIAL_CAPACITY];
+        size = 0;
+    }
+}
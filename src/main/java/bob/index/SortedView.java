@@ -0,0 +1,332 @@
+package bob.index;
+
+import bob.TaskListListener;
+import bob.task.Deadline;
+import bob.task.Event;
+import bob.task.Recurring;
+import bob.task.Task;
+import bob.task.Todo;
+import bob.util.LongHashMap;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keeps the tasks of a task list that pass a filter, sorted in a given order, so that any page of them can be
+ * listed without sorting the whole list.
+ * <p>
+ * Every task is sorted by a {@code long} key that is worked out once when the task is added or changed, so
+ * sorting never compares dates or strings, except for the ties of the first few letters of descriptions.
+ * The tasks are kept in an indexable skip list (Pugh, 1990), where each link also records how many tasks it
+ * skips over. A task is added, moved or removed in O(log n), and the k tasks from any position are found in
+ * O(log n + k).
+ */
+public class SortedView implements TaskListListener {
+    private static final int MAX_LEVEL = 32;
+    // The number of characters of a description that fit in a key, at 16 bits each without using the sign bit
+    private static final int KEY_CHARACTERS = 3;
+
+    /**
+     * The orders that tasks can be sorted in. Ties are broken by the order in which tasks were added.
+     */
+    public enum Order {
+        /** The order in which the tasks were added. */
+        ADDED(Task::getId),
+        /** The soonest deadline, event or recurring task first, and tasks without a date last. */
+        DUE(SortedView::getDueKey),
+        /** Tasks that are not done first. */
+        STATUS(task -> task.getIsDone() ? 1 : 0),
+        /** Todos, then deadlines, then events, then recurring tasks. */
+        TYPE(SortedView::getTypeKey),
+        /** By description, ignoring case. */
+        DESCRIPTION(SortedView::getDescriptionKey);
+
+        private final ToLongFunction<Task> keyFunction;
+
+        Order(ToLongFunction<Task> keyFunction) {
+            this.keyFunction = keyFunction;
+        }
+    }
+
+    /**
+     * The filters that tasks can be listed by.
+     */
+    public enum Filter {
+        ALL(task -> true),
+        OPEN(task -> !task.getIsDone()),
+        DONE(Task::getIsDone),
+        TODO(task -> task instanceof Todo),
+        DEADLINE(task -> task instanceof Deadline),
+        EVENT(task -> task instanceof Event),
+        RECURRING(task -> task instanceof Recurring);
+
+        private final Predicate<Task> predicate;
+
+        Filter(Predicate<Task> predicate) {
+            this.predicate = predicate;
+        }
+
+        /**
+         * Returns true if the given task passes this filter.
+         */
+        public boolean test(Task task) {
+            return predicate.test(task);
+        }
+    }
+
+    private final Order order;
+    private final Filter filter;
+    private final Node head = new Node(0, null, MAX_LEVEL);
+    private final LongHashMap<Node> nodesById = new LongHashMap<>();
+    private int size = 0;
+
+    private static class Node {
+        private final long key;
+        private final Task task;
+        private final Node[] next;
+        // The number of tasks from this node to the next node at each level, counting the next node
+        private final int[] width;
+
+        private Node(long key, Task task, int level) {
+            this.key = key;
+            this.task = task;
+            this.next = new Node[level];
+            this.width = new int[level];
+        }
+    }
+
+    /**
+     * Constructs an empty view. Register it as a listener of a task list to fill it.
+     *
+     * @param order the order that the tasks are sorted in
+     * @param filter the filter that the tasks must pass
+     */
+    public SortedView(Order order, Filter filter) {
+        this.order = order;
+        this.filter = filter;
+        clear();
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public Filter getFilter() {
+        return filter;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the tasks from position {@code from} (inclusive) to position {@code to} (exclusive) of this view.
+     *
+     * @param from position of the first task
+     * @param to position after the last task
+     * @return the tasks in the range, in order
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public List<Task> get(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("range " + from + " to " + to + " of " + size);
+        }
+
+        List<Task> result = new ArrayList<>(to - from);
+        if (from == to) {
+            return result;
+        }
+
+        // Skip ahead by the widths of the links, from the highest level down
+        Node node = head;
+        int remaining = from + 1;
+        for (int level = MAX_LEVEL - 1; level >= 0; --level) {
+            while (node.next[level] != null && node.width[level] <= remaining) {
+                remaining -= node.width[level];
+                node = node.next[level];
+            }
+        }
+
+        for (int i = from; i < to; ++i, node = node.next[0]) {
+            result.add(node.task);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of tasks in this view that are due before the given time, which are the first ones of a
+     * view sorted by {@link Order#DUE}. Tasks without a date are never counted.
+     *
+     * @param time the time that the tasks are due before
+     * @return the number of tasks
+     */
+    public int countDueBefore(LocalDateTime time) {
+        assert order == Order.DUE : "only a view sorted by due time can be searched by it";
+
+        long key = time.toEpochSecond(ZoneOffset.UTC);
+        Node node = head;
+        int count = 0;
+        for (int level = MAX_LEVEL - 1; level >= 0; --level) {
+            while (node.next[level] != null && node.next[level].key < key) {
+                count += node.width[level];
+                node = node.next[level];
+            }
+        }
+        return count;
+    }
+
+    private static long getDueKey(Task task) {
+        LocalDateTime due = DueQueue.getDue(task);
+        return due == null ? Long.MAX_VALUE : due.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long getTypeKey(Task task) {
+        Class<?>[] types = {Todo.class, Deadline.class, Event.class, Recurring.class};
+        for (int i = 0; i < types.length; ++i) {
+            if (types[i].isInstance(task)) {
+                return i;
+            }
+        }
+        return types.length;
+    }
+
+    private static long getDescriptionKey(Task task) {
+        String description = task.getDescription();
+        long key = 0;
+        for (int i = 0; i < KEY_CHARACTERS; ++i) {
+            key <<= Character.SIZE;
+            if (i < description.length()) {
+                // The same folding as String.CASE_INSENSITIVE_ORDER, which breaks the ties
+                key |= Character.toLowerCase(Character.toUpperCase(description.charAt(i)));
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Compares two tasks by their keys, then by how the order breaks ties.
+     */
+    private int compare(long key, Task task, long otherKey, Task otherTask) {
+        if (key != otherKey) {
+            return Long.compare(key, otherKey);
+        }
+        if (order == Order.DESCRIPTION) {
+            int comparison = String.CASE_INSENSITIVE_ORDER.compare(task.getDescription(), otherTask.getDescription());
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Long.compare(task.getId(), otherTask.getId());
+    }
+
+    /**
+     * Finds the last node before the given task at each level, and how many tasks come up to and including it.
+     */
+    private void findPredecessors(long key, Task task, Node[] predecessors, int[] positions) {
+        Node node = head;
+        int position = 0;
+        for (int level = MAX_LEVEL - 1; level >= 0; --level) {
+            while (node.next[level] != null && compare(node.next[level].key, node.next[level].task, key, task) < 0) {
+                position += node.width[level];
+                node = node.next[level];
+            }
+            predecessors[level] = node;
+            positions[level] = position;
+        }
+    }
+
+    private void insert(Task task) {
+        long key = order.keyFunction.applyAsLong(task);
+        Node[] predecessors = new Node[MAX_LEVEL];
+        int[] positions = new int[MAX_LEVEL];
+        findPredecessors(key, task, predecessors, positions);
+
+        // Each level has about half the nodes of the level below it
+        int level = Math.min(MAX_LEVEL, 1 + Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt()));
+        Node node = new Node(key, task, level);
+        for (int i = 0; i < level; ++i) {
+            Node predecessor = predecessors[i];
+            int skipped = positions[0] - positions[i];
+            node.next[i] = predecessor.next[i];
+            node.width[i] = predecessor.width[i] - skipped;
+            predecessor.next[i] = node;
+            predecessor.width[i] = skipped + 1;
+        }
+        for (int i = level; i < MAX_LEVEL; ++i) {
+            ++predecessors[i].width[i];
+        }
+
+        nodesById.put(task.getId(), node);
+        ++size;
+    }
+
+    private void remove(Node node) {
+        Node[] predecessors = new Node[MAX_LEVEL];
+        int[] positions = new int[MAX_LEVEL];
+        findPredecessors(node.key, node.task, predecessors, positions);
+
+        for (int i = 0; i < MAX_LEVEL; ++i) {
+            Node predecessor = predecessors[i];
+            if (i < node.next.length) {
+                assert predecessor.next[i] == node : "the node should follow its predecessor at each of its levels";
+                predecessor.width[i] += node.width[i] - 1;
+                predecessor.next[i] = node.next[i];
+            } else {
+                --predecessor.width[i];
+            }
+        }
+
+        nodesById.remove(node.task.getId());
+        --size;
+    }
+
+    private void clear() {
+        for (int i = 0; i < MAX_LEVEL; ++i) {
+            head.next[i] = null;
+            head.width[i] = 1;
+        }
+        nodesById.clear();
+        size = 0;
+    }
+
+    @Override
+    public void onAdded(int index, Task task) {
+        if (filter.test(task)) {
+            insert(task);
+        }
+    }
+
+    @Override
+    public void onRemoved(int index, Task task) {
+        Node node = nodesById.get(task.getId());
+        if (node != null) {
+            remove(node);
+        }
+    }
+
+    @Override
+    public void onUpdated(int index, Task task) {
+        Node node = nodesById.get(task.getId());
+        boolean isIncluded = filter.test(task);
+        if (node != null && isIncluded && node.key == order.keyFunction.applyAsLong(task)) {
+            return;
+        }
+
+        if (node != null) {
+            remove(node);
+        }
+        if (isIncluded) {
+            insert(task);
+        }
+    }
+
+    @Override
+    public void onReset() {
+        clear();
+    }
+}
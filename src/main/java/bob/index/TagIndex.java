@@ -0,0 +1,97 @@
+package bob.index;
+
+import bob.TaskListListener;
+import bob.task.Task;
+import bob.util.LongHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the tasks that are tagged with each tag, so the tasks with a tag can be found, and counted, without
+ * checking every task in the list.
+ */
+public class TagIndex implements TaskListListener {
+    private final Map<String, LongHashMap<Task>> tasksByTag = new HashMap<>();
+    // The tags that each task had when it was last indexed, to find what changed when it is updated
+    private final LongHashMap<String[]> tagsById = new LongHashMap<>();
+
+    /**
+     * Returns the number of tasks tagged with the given tag.
+     *
+     * @param tagName the name of the tag
+     * @return the number of tasks
+     */
+    public int count(String tagName) {
+        LongHashMap<Task> tasks = tasksByTag.get(tagName);
+        return tasks == null ? 0 : tasks.size();
+    }
+
+    /**
+     * Returns the tasks tagged with the given tag, in no particular order.
+     *
+     * @param tagName the name of the tag
+     * @return the tasks
+     */
+    public List<Task> getTasksTaggedWith(String tagName) {
+        LongHashMap<Task> tasks = tasksByTag.get(tagName);
+        List<Task> result = new ArrayList<>(tasks == null ? 0 : tasks.size());
+        if (tasks != null) {
+            tasks.forEachValue(result::add);
+        }
+        return result;
+    }
+
+    private void index(Task task, String[] tags) {
+        for (String tag : tags) {
+            tasksByTag.computeIfAbsent(tag, t -> new LongHashMap<>()).put(task.getId(), task);
+        }
+        tagsById.put(task.getId(), tags);
+    }
+
+    private void unindex(Task task) {
+        String[] tags = tagsById.remove(task.getId());
+        if (tags == null) {
+            return;
+        }
+        for (String tag : tags) {
+            LongHashMap<Task> tasks = tasksByTag.get(tag);
+            tasks.remove(task.getId());
+            if (tasks.isEmpty()) {
+                tasksByTag.remove(tag);
+            }
+        }
+    }
+
+    @Override
+    public void onAdded(int index, Task task) {
+        index(task, task.getTags());
+    }
+
+    @Override
+    public void onRemoved(int index, Task task) {
+        unindex(task);
+    }
+
+    @Override
+    public void onUpdated(int index, Task task) {
+        String[] tags = task.getTags();
+        String[] indexedTags = tagsById.get(task.getId());
+        if (indexedTags != null && indexedTags.length == tags.length
+                && Arrays.asList(indexedTags).containsAll(Arrays.asList(tags))) {
+            return;
+        }
+
+        unindex(task);
+        index(task, tags);
+    }
+
+    @Override
+    public void onReset() {
+        tasksByTag.clear();
+        tagsById.clear();
+    }
+}
@@ -0,0 +1,379 @@
+package bob.index;
+
+import bob.TaskListListener;
+import bob.task.Task;
+import bob.util.EditDistance;
+import bob.util.LongHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the tasks whose descriptions have words that are close to a search term, allowing for typos.
+ * <p>
+ * Every distinct word of the descriptions is indexed by its trigrams, the three-letter pieces of the word with
+ * a marker added at each end. A word within k edits of the term shares all but at most 3k of the term's
+ * trigrams, so only the words that share enough trigrams are compared with the term, with
+ * {@link EditDistance}. The work done depends on the number of distinct words rather than the number of tasks,
+ * and is small for terms whose trigrams are rare.
+ * A term with no more than 3k trigrams, such as a term of three letters allowed one typo or of six letters
+ * allowed two, may be close to a word that shares none of them. Such a term is instead compared with every
+ * word of about the same length, which scans all the distinct words.
+ */
+public class TrigramIndex implements TaskListListener {
+    /**
+     * The shortest piece of a word that can be found with {@link #findContaining(String)}, which is the length
+     * of a trigram.
+     */
+    public static final int MIN_PIECE_LENGTH = 3;
+    private static final char MARKER = '$';
+
+    // The words of the tasks, by their numbers. A word whose tasks are all gone is left as null until more than
+    // half of the words are gone, and then the words are numbered again without them.
+    private final List<Word> words = new ArrayList<>();
+    private int deadWordCount = 0;
+    // Only the words that still have tasks
+    private final Map<String, Word> wordsByText = new HashMap<>();
+    // The numbers of the words that contain each trigram, keyed by the trigram's three letters packed in a long
+    private final LongHashMap<int[]> wordsByTrigram = new LongHashMap<>();
+
+    private static class Word {
+        private int number;
+        private final String text;
+        private final LongHashMap<Task> tasks = new LongHashMap<>(1);
+
+        private Word(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * A task that matched a search, and how far its words are from the search terms.
+     */
+    public static class Match {
+        private final Task task;
+        private final int distance;
+        private final Set<String> words;
+
+        private Match(Task task, int distance, Set<String> words) {
+            this.task = task;
+            this.distance = distance;
+            this.words = words;
+        }
+
+        public Task getTask() {
+            return task;
+        }
+
+        /**
+         * Returns the total number of edits between the search terms and the closest words of the task.
+         */
+        public int getDistance() {
+            return distance;
+        }
+
+        /**
+         * Returns the words of the task that matched the search terms, in lowercase.
+         */
+        public Set<String> getWords() {
+            return words;
+        }
+    }
+
+    /**
+     * Splits the given text into lowercase words of letters and digits.
+     *
+     * @param text the text to split
+     * @return the distinct words, in the order they first appear
+     */
+    public static Set<String> toWords(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                result.add(word);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of typos allowed in a search term of the given length.
+     */
+    public static int getMaxDistance(int length) {
+        return length <= 2 ? 0 : length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Returns the trigrams of the given word, with a marker added at each end, packed in longs.
+     */
+    private static long[] getTrigrams(String word) {
+        return Arrays.stream(getInnerTrigrams(MARKER + word + MARKER)).distinct().toArray();
+    }
+
+    /**
+     * Returns the trigrams within the given piece of a word, without markers, packed in longs.
+     */
+    private static long[] getInnerTrigrams(String piece) {
+        long[] trigrams = new long[Math.max(0, piece.length() - 2)];
+        for (int i = 0; i < trigrams.length; ++i) {
+            trigrams[i] = ((long) piece.charAt(i) << 32) | ((long) piece.charAt(i + 1) << 16) | piece.charAt(i + 2);
+        }
+        return trigrams;
+    }
+
+    /**
+     * Returns the numbers of the words that have the fewest words among the trigrams of the given piece.
+     * Every word that contains the piece is among them.
+     */
+    private int[] getRarestTrigramWords(String piece) {
+        int[] rarest = null;
+        for (long trigram : getInnerTrigrams(piece)) {
+            int[] numbers = wordsByTrigram.get(trigram);
+            if (numbers == null) {
+                return new int[] {0};
+            }
+            if (rarest == null || numbers[0] < rarest[0]) {
+                rarest = numbers;
+            }
+        }
+        return rarest;
+    }
+
+    /**
+     * Returns the most tasks that {@link #findContaining(String)} could find for the given piece, without
+     * finding them. It counts the tasks of every word that has the rarest trigram of the piece.
+     *
+     * @param piece the lowercase piece of a word, at least {@code MIN_PIECE_LENGTH} letters long
+     * @return the number of tasks
+     */
+    public int estimateContaining(String piece) {
+        assert piece.length() >= MIN_PIECE_LENGTH : "piece should have a trigram";
+
+        int[] numbers = getRarestTrigramWords(piece);
+        int count = 0;
+        for (int i = 1; i <= numbers[0]; ++i) {
+            Word word = words.get(numbers[i]);
+            if (word != null) {
+                count += word.tasks.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the tasks whose descriptions have a word that contains the given piece, in no particular order.
+     * Only the words that have the rarest trigram of the piece are checked.
+     *
+     * @param piece the lowercase piece of a word, at least {@code MIN_PIECE_LENGTH} letters long
+     * @return the tasks, each once
+     */
+    public List<Task> findContaining(String piece) {
+        assert piece.length() >= MIN_PIECE_LENGTH : "piece should have a trigram";
+
+        int[] numbers = getRarestTrigramWords(piece);
+        LongHashMap<Task> found = new LongHashMap<>();
+        for (int i = 1; i <= numbers[0]; ++i) {
+            Word word = words.get(numbers[i]);
+            if (word != null && word.text.contains(piece)) {
+                word.tasks.forEachValue(task -> found.put(task.getId(), task));
+            }
+        }
+
+        List<Task> result = new ArrayList<>(found.size());
+        found.forEachValue(result::add);
+        return result;
+    }
+
+    /**
+     * Returns the tasks whose descriptions have a word close to every one of the given terms, from the closest
+     * match to the furthest. Matches that are as close as each other are in the order the tasks were added.
+     *
+     * @param terms the lowercase search terms, each at most {@link EditDistance#MAX_PATTERN_LENGTH} letters long
+     * @return the matches
+     */
+    public List<Match> search(Set<String> terms) {
+        Map<Long, Match> matches = null;
+        for (String term : terms) {
+            Map<Long, Match> termMatches = searchTerm(term);
+            if (matches == null) {
+                matches = termMatches;
+                continue;
+            }
+
+            // Every term has to match, so only the tasks that matched every term so far are kept
+            Map<Long, Match> combined = new HashMap<>();
+            for (Map.Entry<Long, Match> entry : matches.entrySet()) {
+                Match other = termMatches.get(entry.getKey());
+                if (other != null) {
+                    Set<String> matchedWords = new LinkedHashSet<>(entry.getValue().words);
+                    matchedWords.addAll(other.words);
+                    combined.put(entry.getKey(), new Match(other.task,
+                            entry.getValue().distance + other.distance, matchedWords));
+                }
+            }
+            matches = combined;
+        }
+
+        List<Match> result = new ArrayList<>(matches == null ? List.of() : matches.values());
+        result.sort((a, b) -> a.distance != b.distance
+                ? Integer.compare(a.distance, b.distance)
+                : Long.compare(a.task.getId(), b.task.getId()));
+        return result;
+    }
+
+    /**
+     * Returns the tasks with a word close to the given term, keyed by task ID.
+     */
+    private Map<Long, Match> searchTerm(String term) {
+        int maxDistance = getMaxDistance(term.length());
+        EditDistance editDistance = new EditDistance(term);
+        Map<Long, Match> matches = new HashMap<>();
+        for (Word word : getCandidates(term, maxDistance)) {
+            int distance = editDistance.distanceTo(word.text, maxDistance);
+            if (distance > maxDistance) {
+                continue;
+            }
+
+            word.tasks.forEachValue(task -> {
+                Match match = matches.get(task.getId());
+                if (match == null || distance < match.distance) {
+                    matches.put(task.getId(), new Match(task, distance, Set.of(word.text)));
+                }
+            });
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the words that may be within the given distance of the term.
+     */
+    private List<Word> getCandidates(String term, int maxDistance) {
+        List<Word> candidates = new ArrayList<>();
+        if (maxDistance == 0) {
+            Word word = wordsByText.get(term);
+            if (word != null) {
+                candidates.add(word);
+            }
+            return candidates;
+        }
+
+        long[] trigrams = getTrigrams(term);
+        int minShared = trigrams.length - 3 * maxDistance;
+        if (minShared <= 0) {
+            for (Word word : words) {
+                if (word != null && Math.abs(word.text.length() - term.length()) <= maxDistance) {
+                    candidates.add(word);
+                }
+            }
+            return candidates;
+        }
+
+        // Count the trigrams that each word shares with the term
+        int[] sharedCounts = new int[words.size()];
+        for (long trigram : trigrams) {
+            int[] numbers = wordsByTrigram.get(trigram);
+            if (numbers == null) {
+                continue;
+            }
+            for (int i = 1; i <= numbers[0]; ++i) {
+                Word word = words.get(numbers[i]);
+                if (word != null && ++sharedCounts[numbers[i]] == minShared) {
+                    candidates.add(word);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private Word getOrAddWord(String text) {
+        Word word = wordsByText.get(text);
+        if (word != null) {
+            return word;
+        }
+
+        word = new Word(text);
+        wordsByText.put(text, word);
+        addNumbered(word);
+        return word;
+    }
+
+    /**
+     * Gives the given word the next number, and adds it to the words of each of its trigrams.
+     */
+    private void addNumbered(Word word) {
+        word.number = words.size();
+        words.add(word);
+        for (long trigram : getTrigrams(word.text)) {
+            // The first element is the number of word numbers that follow it
+            int[] numbers = wordsByTrigram.get(trigram);
+            if (numbers == null) {
+                numbers = new int[4];
+            } else if (numbers[0] + 1 == numbers.length) {
+                numbers = Arrays.copyOf(numbers, numbers.length * 2);
+            }
+            numbers[++numbers[0]] = word.number;
+            wordsByTrigram.put(trigram, numbers);
+        }
+    }
+
+    /**
+     * Numbers the words that still have tasks again, so that the words that are gone no longer take up space or
+     * are scanned by searches.
+     */
+    private void compact() {
+        List<Word> liveWords = new ArrayList<>(words.size() - deadWordCount);
+        for (Word word : words) {
+            if (word != null) {
+                liveWords.add(word);
+            }
+        }
+
+        words.clear();
+        wordsByTrigram.clear();
+        deadWordCount = 0;
+        for (Word word : liveWords) {
+            addNumbered(word);
+        }
+    }
+
+    @Override
+    public void onAdded(int index, Task task) {
+        for (String text : toWords(task.getDescription())) {
+            getOrAddWord(text).tasks.put(task.getId(), task);
+        }
+    }
+
+    @Override
+    public void onRemoved(int index, Task task) {
+        for (String text : toWords(task.getDescription())) {
+            Word word = wordsByText.get(text);
+            if (word == null) {
+                continue;
+            }
+
+            word.tasks.remove(task.getId());
+            if (word.tasks.isEmpty()) {
+                wordsByText.remove(text);
+                words.set(word.number, null);
+                ++deadWordCount;
+            }
+        }
+        if (deadWordCount > words.size() / 2) {
+            compact();
+        }
+    }
+
+    @Override
+    public void onReset() {
+        words.clear();
+        deadWordCount = 0;
+        wordsByText.clear();
+        wordsByTrigram.clear();
+    }
+}
@@ -0,0 +1,27 @@
+package bob.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded when a package is scanned for classes, such as when the command and task registries are built.
+ */
+@Name("bob.ClassScan")
+@Label("Class Scan")
+@Category({"Bob", "Startup"})
+@Description("Scanning of a package for classes")
+@StackTrace(false)
+public class ClassScanEvent extends Event {
+    @Label("Package")
+    public String packageName;
+
+    @Label("Classes")
+    public int classCount;
+
+    @Label("From JAR")
+    public boolean isFromJar;
+}
@@ -0,0 +1,32 @@
+package bob.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded when a command is executed, including rendering its output.
+ */
+@Name("bob.CommandExecute")
+@Label("Command Execute")
+@Category({"Bob", "Command"})
+@Description("Execution of a command, including rendering its output")
+@StackTrace(false)
+public class CommandExecuteEvent extends Event {
+    @Label("Command")
+    @Description("Simple name of the command class")
+    public String command;
+
+    @Label("Argument Count")
+    public int argumentCount;
+
+    @Label("Read Only")
+    public boolean isReadOnly;
+
+    @Label("Error")
+    @Description("Simple name of the exception raised by the command, or null if it succeeded")
+    public String error;
+}
@@ -0,0 +1,28 @@
+package bob.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded when a user's input is parsed into a command.
+ */
+@Name("bob.CommandParse")
+@Label("Command Parse")
+@Category({"Bob", "Command"})
+@Description("Parsing of a user's input into a command")
+@StackTrace(false)
+public class CommandParseEvent extends Event {
+    @Label("Command")
+    @Description("Simple name of the command class, or null if the input could not be parsed")
+    public String command;
+
+    @Label("Argument Count")
+    public int argumentCount;
+
+    @Label("Input Length")
+    public int inputLength;
+}
@@ -0,0 +1,33 @@
+package bob.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded when a data file has been loaded, from opening the file until it is closed.
+ */
+@Name("bob.StorageLoad")
+@Label("Storage Load")
+@Category({"Bob", "Storage"})
+@Description("Loading of a data file")
+@StackTrace(false)
+public class StorageLoadEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Lines")
+    public long lines;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Corrupted Lines")
+    @Description("Lines that were skipped because they could not be decoded")
+    public long corruptedLines;
+}
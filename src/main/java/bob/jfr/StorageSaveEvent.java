@@ -0,0 +1,28 @@
+package bob.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded when a task list is saved to a data file.
+ */
+@Name("bob.StorageSave")
+@Label("Storage Save")
+@Category({"Bob", "Storage"})
+@Description("Saving of a task list to a data file")
+@StackTrace(false)
+public class StorageSaveEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Tasks")
+    public int tasks;
+
+    @Label("Characters")
+    @Description("Number of characters written")
+    public long characters;
+}
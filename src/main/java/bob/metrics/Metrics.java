@@ -0,0 +1,239 @@
+package bob.metrics;
+
+import bob.Parser;
+import bob.Storage;
+import bob.TaskList;
+import bob.Ui;
+import bob.command.Command;
+import bob.jfr.CommandExecuteEvent;
+import bob.jfr.CommandParseEvent;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long each stage of handling a command takes, broken down by command class,
+ * and counts the errors raised by commands by exception type.
+ * Parsing and executing commands through this class also emits the JFR events in {@code bob.jfr}.
+ * A single instance is shared by every part of BobBot in the JVM, see {@link #getGlobal()}.
+ */
+public class Metrics {
+    /** The name that the time taken to save the task list is recorded under. */
+    public static final String SAVE = "save";
+    /** Where the metrics are written when BobBot exits. */
+    public static final String FILE_PATH = "data/metrics.txt";
+
+    private static final Metrics GLOBAL = new Metrics();
+
+    /**
+     * A stage of handling a command.
+     */
+    public enum Stage {
+        /** Turning the input into a {@code Command}. */
+        PARSE,
+        /** Executing the command, not counting the time spent rendering output. */
+        EXECUTE,
+        /** Sending the output of the command to the output sink. */
+        RENDER,
+        /** Writing the task list to the data file. */
+        PERSIST
+    }
+
+    private final Map<String, LatencyHistogram[]> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the instance that all of BobBot records to.
+     */
+    public static Metrics getGlobal() {
+        return GLOBAL;
+    }
+
+    /**
+     * Records the time taken by a stage of handling a command.
+     *
+     * @param name the name of the command class, or {@link #SAVE}
+     * @param stage the stage
+     * @param nanos the time taken in nanoseconds
+     */
+    public void record(String name, Stage stage, long nanos) {
+        LatencyHistogram[] stages = histograms.get(name);
+        if (stages == null) {
+            stages = histograms.computeIfAbsent(name, key -> {
+                LatencyHistogram[] newStages = new LatencyHistogram[Stage.values().length];
+                for (int i = 0; i < newStages.length; ++i) {
+                    newStages[i] = new LatencyHistogram();
+                }
+                return newStages;
+            });
+        }
+        stages[stage.ordinal()].record(nanos);
+    }
+
+    /**
+     * Counts an error by the type of the exception.
+     *
+     * @param e the exception raised
+     */
+    public void recordError(Throwable e) {
+        errors.computeIfAbsent(e.getClass().getSimpleName(), key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Parses the given input with the given parser, recording the time taken, or the error raised.
+     *
+     * @param parser the parser to use
+     * @param input the input to parse
+     * @return the parsed command
+     */
+    public Command parse(Parser parser, String input) {
+        CommandParseEvent event = new CommandParseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Command command = null;
+        try {
+            command = parser.parse(input);
+        } catch (RuntimeException e) {
+            recordError(e);
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.command = command == null ? null : command.getClass().getSimpleName();
+                event.argumentCount = command == null ? 0 : command.getArgumentCount();
+                event.inputLength = input.length();
+                event.commit();
+            }
+        }
+
+        record(command.getClass().getSimpleName(), Stage.PARSE, System.nanoTime() - start);
+        return command;
+    }
+
+    /**
+     * Executes the given command, recording the time taken to execute it and to render its output separately,
+     * as well as the error raised if any.
+     *
+     * @param command the command to execute
+     * @param tasks the task list on which the command will operate
+     * @param ui the Ui instance on which the command will operate
+     * @param storage the Storage instance on which the command will operate
+     */
+    public void execute(Command command, TaskList tasks, Ui ui, Storage storage) {
+        CommandExecuteEvent event = new CommandExecuteEvent();
+        event.begin();
+        ui.takeRenderNanos();
+        long start = System.nanoTime();
+        String error = null;
+        try {
+            command.execute(tasks, ui, storage);
+        } catch (RuntimeException e) {
+            recordError(e);
+            error = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.command = command.getClass().getSimpleName();
+                event.argumentCount = command.getArgumentCount();
+                event.isReadOnly = command.isReadOnly();
+                event.error = error;
+                event.commit();
+            }
+
+            long elapsed = System.nanoTime() - start;
+            long renderNanos = ui.takeRenderNanos();
+            String name = command.getClass().getSimpleName();
+            record(name, Stage.EXECUTE, elapsed - renderNanos);
+            record(name, Stage.RENDER, renderNanos);
+        }
+    }
+
+    /**
+     * Returns the histogram of the given stage of the given command class,
+     * or null if nothing was recorded for the command class.
+     */
+    public LatencyHistogram getHistogram(String name, Stage stage) {
+        LatencyHistogram[] stages = histograms.get(name);
+        return stages == null ? null : stages[stage.ordinal()];
+    }
+
+    /**
+     * Returns the number of errors raised with the given exception type.
+     *
+     * @param exceptionName the simple name of the exception class
+     */
+    public long getErrorCount(String exceptionName) {
+        LongAdder count = errors.get(exceptionName);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Clears everything recorded.
+     */
+    public void reset() {
+        histograms.clear();
+        errors.clear();
+    }
+
+    /**
+     * Returns a table of the recorded latencies in microseconds, followed by the error counts, one row per line.
+     */
+    public List<String> report() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-16s %-8s %8s %9s %9s %9s %9s %9s",
+                "command", "stage", "count", "mean(us)", "p50", "p90", "p99", "max"));
+
+        for (Map.Entry<String, LatencyHistogram[]> entry : new TreeMap<>(histograms).entrySet()) {
+            for (Stage stage : Stage.values()) {
+                LatencyHistogram histogram = entry.getValue()[stage.ordinal()];
+                if (histogram.getCount() == 0) {
+                    continue;
+                }
+                lines.add(String.format("%-16s %-8s %8d %9.1f %9.1f %9.1f %9.1f %9.1f",
+                        entry.getKey(), stage.name().toLowerCase(), histogram.getCount(),
+                        histogram.getMean() / 1000,
+                        histogram.getValueAtPercentile(50) / 1000.0,
+                        histogram.getValueAtPercentile(90) / 1000.0,
+                        histogram.getValueAtPercentile(99) / 1000.0,
+                        histogram.getMax() / 1000.0));
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            lines.add("errors:");
+            for (Map.Entry<String, LongAdder> entry : new TreeMap<>(errors).entrySet()) {
+                lines.add(String.format("%-32s %8d", entry.getKey(), entry.getValue().sum()));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Writes the report to the file at the given path, replacing its contents.
+     *
+     * @param filePath where the report is written
+     * @throws IOException if the file cannot be written
+     */
+    public void dump(String filePath) throws IOException {
+        File file = new File(filePath);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+
+        try (Writer writer = new FileWriter(file)) {
+            for (String line : report()) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package bob.output;
+
+import bob.util.FormattedString;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+
+/**
+ * An output sink that renders messages in a box to a buffered {@code PrintStream}: <br>
+ * <pre>
+ *     ____________________________________________________________
+ *      &lt;message&gt;
+ *     ____________________________________________________________
+ * </pre>
+ * The stream is only flushed when {@link #flush()} is called.
+ */
+public class ConsoleSink implements OutputSink {
+    private static final String SEPARATOR = "____________________________________________________________";
+    private static final String LINE_PREFIX = "    ";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final PrintStream out;
+    private final StringBuilder buffer = new StringBuilder();
+
+    /**
+     * Constructs a console sink that writes to the standard output.
+     */
+    public ConsoleSink() {
+        this(new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), BUFFER_SIZE), false));
+    }
+
+    /**
+     * Constructs a console sink that writes to the given stream.
+     *
+     * @param out the stream to write to
+     */
+    public ConsoleSink(PrintStream out) {
+        assert out != null : "out should not be null";
+        this.out = out;
+    }
+
+    @Override
+    public void print(FormattedString message) {
+        assert message != null : "message should not be null";
+
+        // Render the box in a single pass over the message
+        String text = message.toString();
+        buffer.setLength(0);
+        buffer.append(LINE_PREFIX).append(SEPARATOR).append('\n')
+                .append(LINE_PREFIX).append(' ');
+        for (int i = 0; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            buffer.append(c);
+            if (c == '\n') {
+                buffer.append(LINE_PREFIX).append(' ');
+            }
+        }
+        buffer.append('\n').append(LINE_PREFIX).append(SEPARATOR).append('\n');
+
+        out.println(buffer);
+    }
+
+    @Override
+    public void beginBlock() {
+        out.append(LINE_PREFIX).append(SEPARATOR).append('\n');
+    }
+
+    @Override
+    public void printLine(CharSequence line) {
+        out.append(LINE_PREFIX).append(' ').append(line).append('\n');
+    }
+
+    @Override
+    public void endBlock() {
+        out.append(LINE_PREFIX).append(SEPARATOR).append('\n').append('\n');
+    }
+
+    @Override
+    public void printRaw(String text) {
+        out.println(text);
+    }
+
+    @Override
+    public void flush() {
+        out.flush();
+    }
+}
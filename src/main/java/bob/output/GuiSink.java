@@ -0,0 +1,89 @@
+package bob.output;
+
+import bob.Ui;
+import bob.util.FormattedString;
+
+/**
+ * An output sink that skips console rendering entirely and hands each unformatted message to a listener,
+ * typically the GUI. A message that is output line by line is handed over once it ends, shortened to its first
+ * {@value Ui#STREAM_PREVIEW_LINES} lines, since a GUI cannot show a list of millions of tasks in one message anyway.
+ */
+public class GuiSink implements OutputSink {
+    /**
+     * Receives the messages output to a {@code GuiSink}.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called for every message output to the sink.
+         *
+         * @param text the unformatted message
+         * @param isError true if the message is an error message
+         */
+        void onMessage(String text, boolean isError);
+    }
+
+    private volatile Listener listener;
+    // The first lines of the message being output line by line, or null if there is none
+    private StringBuilder block;
+    private int blockLines;
+
+    /**
+     * Sets the listener that receives messages from this sink. Replaces any previously set listener.
+     *
+     * @param listener the listener, or null to discard messages
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void print(FormattedString message) {
+        assert message != null : "message should not be null";
+        notifyListener(message.getUnformatted(), false);
+    }
+
+    @Override
+    public void printError(FormattedString message) {
+        assert message != null : "message should not be null";
+        notifyListener(message.getUnformatted(), true);
+    }
+
+    @Override
+    public void beginBlock() {
+        block = new StringBuilder();
+        blockLines = 0;
+    }
+
+    @Override
+    public void printLine(CharSequence line) {
+        assert block != null : "beginBlock() should be called before printLine()";
+
+        if (blockLines < Ui.STREAM_PREVIEW_LINES) {
+            if (blockLines > 0) {
+                block.append('\n');
+            }
+            block.append(line);
+        }
+        ++blockLines;
+    }
+
+    @Override
+    public void endBlock() {
+        assert block != null : "beginBlock() should be called before endBlock()";
+
+        if (blockLines > Ui.STREAM_PREVIEW_LINES) {
+            block.append("\n... and ").append(blockLines - Ui.STREAM_PREVIEW_LINES).append(" more");
+        }
+        String message = block.toString();
+        block = null;
+        notifyListener(message, false);
+    }
+
+    private void notifyListener(String text, boolean isError) {
+        Listener l = listener;
+        if (l != null) {
+            l.onMessage(text, isError);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package bob.output;
+
+import bob.util.FormattedString;
+
+/**
+ * An output sink that discards everything. Used for benchmarks and batch runs.
+ */
+public class NullSink implements OutputSink {
+    public static final NullSink INSTANCE = new NullSink();
+
+    private NullSink() {
+    }
+
+    @Override
+    public void print(FormattedString message) {
+        // Discard the message
+    }
+}
@@ -0,0 +1,63 @@
+package bob.output;
+
+import bob.util.FormattedString;
+
+/**
+ * Destination for everything that {@code Ui} outputs.
+ * Implementations decide how (and whether) a message is rendered, so that a front end only pays for the
+ * rendering it actually shows.
+ *
+ * @see bob.Ui
+ */
+public interface OutputSink {
+    /**
+     * Outputs a single response message.
+     *
+     * @param message the message to output
+     */
+    void print(FormattedString message);
+
+    /**
+     * Outputs a single error message. Defaults to {@link #print(FormattedString)}.
+     *
+     * @param message the error message to output
+     */
+    default void printError(FormattedString message) {
+        print(message);
+    }
+
+    /**
+     * Starts a message whose lines are output one at a time with {@link #printLine(CharSequence)},
+     * so that long messages never have to be built as a single string. Ignored by default.
+     */
+    default void beginBlock() {
+    }
+
+    /**
+     * Outputs one line of the message started by {@link #beginBlock()}. Ignored by default.
+     *
+     * @param line the line to output, without a trailing linebreak
+     */
+    default void printLine(CharSequence line) {
+    }
+
+    /**
+     * Ends the message started by {@link #beginBlock()}. Ignored by default.
+     */
+    default void endBlock() {
+    }
+
+    /**
+     * Outputs the given text as-is, without any decoration. Ignored by default.
+     *
+     * @param text the text to output
+     */
+    default void printRaw(String text) {
+    }
+
+    /**
+     * Flushes any output buffered by this sink.
+     */
+    default void flush() {
+    }
+}
@@ -0,0 +1,46 @@
+package bob.output;
+
+import bob.util.FormattedString;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An output sink that keeps the most recent unformatted messages until they are taken, for front ends that
+ * poll for output instead of being sent it, such as the JSON API.
+ * It may be used from many threads at once.
+ */
+public class QueueSink implements OutputSink {
+    private final int capacity;
+    private final ArrayDeque<String> messages = new ArrayDeque<>();
+
+    /**
+     * Constructs a sink that keeps up to the given number of messages, dropping the oldest ones beyond that.
+     *
+     * @param capacity the maximum number of messages kept
+     */
+    public QueueSink(int capacity) {
+        assert capacity > 0 : "capacity should be positive";
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void print(FormattedString message) {
+        assert message != null : "message should not be null";
+
+        if (messages.size() == capacity) {
+            messages.removeFirst();
+        }
+        messages.addLast(message.getUnformatted());
+    }
+
+    /**
+     * Removes and returns every message kept, from the oldest to the newest.
+     */
+    public synchronized List<String> take() {
+        List<String> taken = new ArrayList<>(messages);
+        messages.clear();
+        return taken;
+    }
+}
@@ -0,0 +1,47 @@
+package bob.query;
+
+import bob.task.Task;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A way to find the tasks that match a condition with an index, instead of checking every task in the list.
+ */
+class AccessPath {
+    private final String description;
+    private final int estimatedRows;
+    private final boolean isExact;
+    private final Supplier<List<Task>> finder;
+
+    /**
+     * Constructs a way to find tasks.
+     *
+     * @param description what is looked up, for explaining a plan
+     * @param estimatedRows the most tasks that could be found, which is worked out without finding them
+     * @param isExact true if exactly the matching tasks are found, false if some of them may not match
+     * @param finder finds the tasks, in no particular order
+     */
+    AccessPath(String description, int estimatedRows, boolean isExact, Supplier<List<Task>> finder) {
+        this.description = description;
+        this.estimatedRows = estimatedRows;
+        this.isExact = isExact;
+        this.finder = finder;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    int getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    boolean isExact() {
+        return isExact;
+    }
+
+    List<Task> find() {
+        return finder.get();
+    }
+}
@@ -0,0 +1,408 @@
+package bob.query;
+
+import bob.TaskList;
+import bob.exception.IncorrectArgumentException;
+import bob.index.DueQueue;
+import bob.index.SortedView;
+import bob.index.TrigramIndex;
+import bob.task.Task;
+import bob.util.DateTime;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Represents a condition on tasks, written in the query language of the {@code find} command, for example:
+ * <pre>"exam" and #URGENT and not done and due &lt; 1/10</pre>
+ * A query is made of keywords that descriptions contain, tags, filters such as {@code done} or {@code event},
+ * and comparisons of due times, combined with {@code and}, {@code or}, {@code not} and brackets.
+ * <p>
+ * Each condition can also estimate how many tasks it matches, and offer a way to find them with an index,
+ * which {@link QueryPlan} uses to decide how to run the query.
+ */
+public abstract class Query {
+    // The share of tasks assumed to match a condition when there is nothing better to go by
+    private static final double DEFAULT_SELECTIVITY = 0.1;
+
+    /**
+     * Parses the given text as a query.
+     *
+     * @param text the text of the query
+     * @return the query
+     * @throws bob.exception.IncorrectArgumentException if the text is not a valid query
+     * @throws bob.exception.InvalidDateTimeException if a due time is not in the format of {@link DateTime}
+     */
+    public static Query parse(String text) {
+        return new QueryParser(text).parse();
+    }
+
+    /**
+     * Returns true if the given text uses the syntax of the query language, that is, quotes, brackets or tags,
+     * and is a valid query. Other text, such as <code>(draft</code>, is a plain keyword.
+     *
+     * @param text the text to check
+     * @return true if the text should be parsed as a query
+     */
+    public static boolean isQuery(String text) {
+        if (!text.contains("\"") && !text.contains("(") && !text.startsWith("#") && !text.contains(" #")) {
+            return false;
+        }
+
+        try {
+            parse(text);
+            return true;
+        } catch (IncorrectArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if the given task matches this query.
+     *
+     * @param task the task to check
+     * @return true if the task matches
+     */
+    public abstract boolean matches(Task task);
+
+    /**
+     * Returns the estimated share of the tasks in the given list that match this query, from 0 to 1.
+     */
+    abstract double estimateSelectivity(TaskList tasks);
+
+    /**
+     * Returns a way to find the tasks in the given list that match this query with an index, or null if there
+     * is none.
+     */
+    AccessPath getAccessPath(TaskList tasks) {
+        return null;
+    }
+
+    /**
+     * Returns the keywords that matching tasks contain, in lowercase, so they can be highlighted.
+     */
+    public Set<String> getKeywords() {
+        return Set.of();
+    }
+
+    /**
+     * Returns the conditions that must all be true for this query to match.
+     */
+    List<Query> getConjuncts() {
+        return List.of(this);
+    }
+
+    private static double getShare(int count, TaskList tasks) {
+        return Math.min(1, (double) count / Math.max(1, tasks.size()));
+    }
+
+    /**
+     * Matches the tasks whose descriptions contain a keyword, ignoring case.
+     */
+    static class Keyword extends Query {
+        private final String keyword;
+
+        Keyword(String keyword) {
+            this.keyword = keyword.toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            return task.getDescription().toLowerCase(Locale.ROOT).contains(keyword);
+        }
+
+        @Override
+        double estimateSelectivity(TaskList tasks) {
+            AccessPath path = getAccessPath(tasks);
+            return path == null ? DEFAULT_SELECTIVITY : getShare(path.getEstimatedRows(), tasks);
+        }
+
+        /**
+         * Returns a way to find the tasks by the rarest piece of the keyword in the keyword index. Every
+         * description that contains the keyword has a word that contains each run of letters and digits of the
+         * keyword, but only pieces long enough to have a trigram can be looked up.
+         */
+        @Override
+        AccessPath getAccessPath(TaskList tasks) {
+            TrigramIndex index = null;
+            String rarestPiece = null;
+            int rarestCount = Integer.MAX_VALUE;
+            for (String piece : TrigramIndex.toWords(keyword)) {
+                if (piece.length() < TrigramIndex.MIN_PIECE_LENGTH) {
+                    continue;
+                }
+                index = index == null ? tasks.getTrigramIndex() : index;
+                int count = index.estimateContaining(piece);
+                if (count < rarestCount) {
+                    rarestPiece = piece;
+                    rarestCount = count;
+                }
+            }
+            if (rarestPiece == null) {
+                return null;
+            }
+
+            String piece = rarestPiece;
+            TrigramIndex trigramIndex = index;
+            return new AccessPath("the keyword index for words containing \"" + piece + "\"", rarestCount,
+                    piece.equals(keyword), () -> trigramIndex.findContaining(piece));
+        }
+
+        @Override
+        public Set<String> getKeywords() {
+            return Set.of(keyword);
+        }
+
+        @Override
+        public String toString() {
+            return "\"" + keyword + "\"";
+        }
+    }
+
+    /**
+     * Matches the tasks tagged with a tag.
+     */
+    static class Tag extends Query {
+        private final String tagName;
+
+        Tag(String tagName) {
+            this.tagName = tagName;
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            for (String tag : task.getTags()) {
+                if (tag.equals(tagName)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        double estimateSelectivity(TaskList tasks) {
+            return getShare(tasks.getTagIndex().count(tagName), tasks);
+        }
+
+        @Override
+        AccessPath getAccessPath(TaskList tasks) {
+            return new AccessPath("the tag index for " + this, tasks.getTagIndex().count(tagName), true,
+                    () -> tasks.getTagIndex().getTasksTaggedWith(tagName));
+        }
+
+        @Override
+        public String toString() {
+            return "#" + tagName;
+        }
+    }
+
+    /**
+     * Matches the tasks that pass one of the filters of {@link SortedView}, such as {@code done} or {@code event}.
+     */
+    static class Is extends Query {
+        private final SortedView.Filter filter;
+
+        Is(SortedView.Filter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            return filter.test(task);
+        }
+
+        @Override
+        double estimateSelectivity(TaskList tasks) {
+            switch (filter) {
+            case ALL:
+                return 1;
+            case OPEN:
+            case DONE:
+                return 0.5;
+            default:
+                // One of the four types of tasks
+                return 0.25;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return filter.name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Matches the tasks that are due before or after a time. Tasks without a date never match.
+     */
+    static class Due extends Query {
+        private final String operator;
+        private final LocalDateTime time;
+
+        Due(String operator, LocalDateTime time) {
+            assert List.of("<", "<=", ">", ">=").contains(operator) : "operator should be a comparison";
+            this.operator = operator;
+            this.time = time;
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            LocalDateTime due = DueQueue.getDue(task);
+            if (due == null) {
+                return false;
+            }
+
+            int comparison = due.compareTo(time);
+            switch (operator) {
+            case "<":
+                return comparison < 0;
+            case "<=":
+                return comparison <= 0;
+            case ">":
+                return comparison > 0;
+            default:
+                return comparison >= 0;
+            }
+        }
+
+        @Override
+        double estimateSelectivity(TaskList tasks) {
+            return getShare(getAccessPath(tasks).getEstimatedRows(), tasks);
+        }
+
+        /**
+         * Returns a way to find the tasks as a range of the view of all tasks sorted by due time.
+         */
+        @Override
+        AccessPath getAccessPath(TaskList tasks) {
+            SortedView view = tasks.getView(SortedView.Order.DUE, SortedView.Filter.ALL);
+            boolean isBefore = operator.startsWith("<");
+            // Due times are counted in whole seconds, so the tasks due at the time come before the next second
+            LocalDateTime boundary = operator.equals("<") || operator.equals(">=") ? time : time.plusSeconds(1);
+            int from = isBefore ? 0 : view.countDueBefore(boundary);
+            int to = isBefore ? view.countDueBefore(boundary) : view.countDueBefore(LocalDateTime.MAX);
+            return new AccessPath("the due date index for " + this, to - from, true, () -> view.get(from, to));
+        }
+
+        @Override
+        public String toString() {
+            return "due " + operator + " " + DateTime.format(time);
+        }
+    }
+
+    /**
+     * Matches the tasks that do not match another query.
+     */
+    static class Not extends Query {
+        private final Query operand;
+
+        Not(Query operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            return !operand.matches(task);
+        }
+
+        @Override
+        double estimateSelectivity(TaskList tasks) {
+            return 1 - operand.estimateSelectivity(tasks);
+        }
+
+        @Override
+        public String toString() {
+            return "not " + operand;
+        }
+    }
+
+    /**
+     * Matches the tasks that match every one of some queries.
+     */
+    static class And extends Query {
+        private final List<Query> operands = new ArrayList<>();
+
+        And(Query left, Query right) {
+            operands.addAll(left.getConjuncts());
+            operands.addAll(right.getConjuncts());
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            for (Query operand : operands) {
+                if (!operand.matches(task)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        double estimateSelectivity(TaskList tasks) {
+            // As if the conditions were independent of each other
+            double selectivity = 1;
+            for (Query operand : operands) {
+                selectivity *= operand.estimateSelectivity(tasks);
+            }
+            return selectivity;
+        }
+
+        @Override
+        public Set<String> getKeywords() {
+            Set<String> keywords = new LinkedHashSet<>();
+            operands.forEach(operand -> keywords.addAll(operand.getKeywords()));
+            return keywords;
+        }
+
+        @Override
+        List<Query> getConjuncts() {
+            return operands;
+        }
+
+        @Override
+        public String toString() {
+            List<String> texts = new ArrayList<>();
+            operands.forEach(operand -> texts.add(operand.toString()));
+            return String.join(" and ", texts);
+        }
+    }
+
+    /**
+     * Matches the tasks that match either of two queries.
+     */
+    static class Or extends Query {
+        private final Query left;
+        private final Query right;
+
+        Or(Query left, Query right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean matches(Task task) {
+            return left.matches(task) || right.matches(task);
+        }
+
+        @Override
+        double estimateSelectivity(TaskList tasks) {
+            double leftSelectivity = left.estimateSelectivity(tasks);
+            double rightSelectivity = right.estimateSelectivity(tasks);
+            return leftSelectivity + rightSelectivity - leftSelectivity * rightSelectivity;
+        }
+
+        @Override
+        public Set<String> getKeywords() {
+            Set<String> keywords = new LinkedHashSet<>(left.getKeywords());
+            keywords.addAll(right.getKeywords());
+            return keywords;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " or " + right + ")";
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package bob.query;
+
+import bob.exception.IncorrectArgumentException;
+import bob.index.SortedView;
+import bob.util.DateTime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses the text of a query into a {@link Query}. The grammar, from the loosest binding to the tightest, is:
+ * <pre>
+ * query   = and ("or" and)*
+ * and     = not (["and"] not)*
+ * not     = "not" not | term
+ * term    = "(" query ")" | '"' keyword '"' | "#" tag | filter | "due" comparison date | word
+ * </pre>
+ * where a filter is one of {@code done}, {@code open}, {@code todo}, {@code deadline}, {@code event} and
+ * {@code recurring}, and a comparison is one of {@code <}, {@code <=}, {@code >} and {@code >=}.
+ * Terms next to each other without an operator must both match. Operators and filters ignore case.
+ */
+class QueryParser {
+    private static final String QUOTE = "\"";
+    private static final String SYMBOLS = "\"()<>";
+    private static final List<String> COMPARISONS = List.of("<", "<=", ">", ">=");
+    private static final String TIME_PATTERN = "\\d{4}";
+
+    // Quoted keywords keep their opening quote, to tell them apart from words
+    private final List<String> tokens;
+    private int position = 0;
+
+    QueryParser(String text) {
+        this.tokens = tokenize(text);
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                ++i;
+            } else if (c == '"') {
+                int end = text.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IncorrectArgumentException("a closing " + QUOTE + " after the keyword");
+                }
+                tokens.add(text.substring(i, end));
+                i = end + 1;
+            } else if (c == '<' || c == '>') {
+                int end = i + 1 < text.length() && text.charAt(i + 1) == '=' ? i + 2 : i + 1;
+                tokens.add(text.substring(i, end));
+                i = end;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                ++i;
+            } else {
+                int end = i;
+                while (end < text.length() && !Character.isWhitespace(text.charAt(end))
+                        && SYMBOLS.indexOf(text.charAt(end)) < 0) {
+                    ++end;
+                }
+                tokens.add(text.substring(i, end));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Parses the whole text.
+     *
+     * @return the query
+     * @throws IncorrectArgumentException if the text is not a valid query
+     */
+    Query parse() {
+        Query query = parseOr();
+        if (position < tokens.size()) {
+            throw unexpected(tokens.get(position));
+        }
+        return query;
+    }
+
+    private String peek() {
+        return position < tokens.size() ? tokens.get(position) : null;
+    }
+
+    private static boolean isWord(String token, String word) {
+        return token != null && token.equalsIgnoreCase(word);
+    }
+
+    private String next() {
+        if (position == tokens.size()) {
+            throw new IncorrectArgumentException(position == 0
+                    ? "a keyword, tag or condition to search for"
+                    : "a keyword, tag or condition after " + tokens.get(position - 1));
+        }
+        return tokens.get(position++);
+    }
+
+    private static IncorrectArgumentException unexpected(String token) {
+        return new IncorrectArgumentException("a keyword, tag or condition in place of " + token);
+    }
+
+    private Query parseOr() {
+        Query query = parseAnd();
+        while (isWord(peek(), "or")) {
+            ++position;
+            query = new Query.Or(query, parseAnd());
+        }
+        return query;
+    }
+
+    private Query parseAnd() {
+        Query query = parseNot();
+        while (peek() != null && !isWord(peek(), "or") && !peek().equals(")")) {
+            if (isWord(peek(), "and")) {
+                ++position;
+            }
+            query = new Query.And(query, parseNot());
+        }
+        return query;
+    }
+
+    private Query parseNot() {
+        if (isWord(peek(), "not")) {
+            ++position;
+            return new Query.Not(parseNot());
+        }
+        return parseTerm();
+    }
+
+    private Query parseTerm() {
+        String token = next();
+        if (token.equals("(")) {
+            Query query = parseOr();
+            if (!")".equals(peek())) {
+                throw new IncorrectArgumentException("a ) for every (");
+            }
+            ++position;
+            return query;
+        } else if (token.startsWith(QUOTE)) {
+            if (token.length() == 1) {
+                throw new IncorrectArgumentException("a keyword between the quotes");
+            }
+            return new Query.Keyword(token.substring(1));
+        } else if (token.startsWith("#")) {
+            if (token.length() == 1) {
+                throw new IncorrectArgumentException("a tag name after #");
+            }
+            return new Query.Tag(token.substring(1));
+        } else if (isWord(token, "due")) {
+            return parseDue();
+        }
+
+        for (SortedView.Filter filter : SortedView.Filter.values()) {
+            if (filter != SortedView.Filter.ALL && isWord(token, filter.name())) {
+                return new Query.Is(filter);
+            }
+        }
+        if (token.equals(")") || COMPARISONS.contains(token) || isWord(token, "and") || isWord(token, "or")) {
+            throw unexpected(token);
+        }
+        return new Query.Keyword(token);
+    }
+
+    private Query parseDue() {
+        String operator = peek();
+        if (!COMPARISONS.contains(operator)) {
+            throw new IncorrectArgumentException("<, <=, > or >= and a date after due");
+        }
+        ++position;
+
+        String date = next();
+        if (date.startsWith(QUOTE)) {
+            // A date and time may also be quoted, as in due < "1/10 1800"
+            date = date.substring(1);
+        } else if (peek() != null && peek().matches(TIME_PATTERN)) {
+            date += " " + next();
+        }
+        return new Query.Due(operator, DateTime.parse(date.toLowerCase(Locale.ROOT)));
+    }
+}
@@ -0,0 +1,189 @@
+package bob.query;
+
+import bob.TaskList;
+import bob.task.Task;
+import bob.util.LongHashMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decides how to find the tasks that match a query, then finds them and records how many tasks were found at
+ * each step, so the plan can be explained.
+ * <p>
+ * Of the conditions that must all be true, those that can be looked up in an index (a tag in the tag index, a
+ * keyword in the keyword index, or a range of due times in the due date index) say how many tasks they would
+ * find before finding any. The smallest of them drives the plan, unless it would find as many tasks as there
+ * are in the list, in which case every task is scanned. Any other index that finds at most
+ * {@code INTERSECT_RATIO} times as many tasks is intersected with it. Every remaining condition is then
+ * checked on each task that is left, most selective first, so most tasks are ruled out by the first check and
+ * the later ones are never evaluated for them.
+ */
+public class QueryPlan {
+    private static final int INTERSECT_RATIO = 4;
+
+    private final TaskList tasks;
+    private final List<Step> steps = new ArrayList<>();
+
+    private static class Step {
+        private final String description;
+        private final double estimatedRows;
+        // Either the index that is read or intersected with, or the condition that is checked
+        private final AccessPath path;
+        private final Query condition;
+        // The tasks found by the index of an intersection, which are only found once a task is checked
+        private LongHashMap<Task> found;
+        private int actualRows = 0;
+
+        private Step(String description, double estimatedRows, AccessPath path, Query condition) {
+            this.description = description;
+            this.estimatedRows = estimatedRows;
+            this.path = path;
+            this.condition = condition;
+        }
+
+        private boolean test(Task task) {
+            if (condition != null) {
+                return condition.matches(task);
+            }
+            if (found == null) {
+                found = new LongHashMap<>();
+                path.find().forEach(foundTask -> found.put(foundTask.getId(), foundTask));
+            }
+            return found.containsKey(task.getId());
+        }
+    }
+
+    /**
+     * Plans how to find the tasks in the given list that match the given query.
+     *
+     * @param query the query
+     * @param tasks the task list to search
+     */
+    public QueryPlan(Query query, TaskList tasks) {
+        this.tasks = tasks;
+
+        List<Query> residuals = new ArrayList<>(query.getConjuncts());
+        List<AccessPath> paths = new ArrayList<>();
+        List<Query> pathConditions = new ArrayList<>();
+        for (Query conjunct : residuals) {
+            AccessPath path = conjunct.getAccessPath(tasks);
+            if (path != null) {
+                paths.add(path);
+                pathConditions.add(conjunct);
+            }
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < paths.size(); ++i) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingInt(i -> paths.get(i).getEstimatedRows()));
+
+        // The conditions whose tasks were found by an index that also found some tasks that do not match them
+        List<Query> approximated = new ArrayList<>();
+        double rows = tasks.size();
+        if (order.isEmpty() || paths.get(order.get(0)).getEstimatedRows() >= tasks.size()) {
+            steps.add(new Step("Scan all tasks", rows, null, null));
+        } else {
+            AccessPath driver = paths.get(order.get(0));
+            rows = driver.getEstimatedRows();
+            for (int i : order) {
+                AccessPath path = paths.get(i);
+                if (path.getEstimatedRows() > INTERSECT_RATIO * driver.getEstimatedRows()) {
+                    break;
+                }
+
+                if (path == driver) {
+                    steps.add(new Step("Read " + path.getDescription(), rows, path, null));
+                } else {
+                    // As if the conditions were independent of each other
+                    rows *= (double) path.getEstimatedRows() / tasks.size();
+                    steps.add(new Step("Intersect with " + path.getDescription(), rows, path, null));
+                }
+                if (path.isExact()) {
+                    residuals.remove(pathConditions.get(i));
+                } else {
+                    approximated.add(pathConditions.get(i));
+                }
+            }
+        }
+
+        List<Double> selectivities = new ArrayList<>();
+        residuals.forEach(residual -> selectivities.add(
+                approximated.contains(residual) ? 1 : residual.estimateSelectivity(tasks)));
+        List<Integer> residualOrder = new ArrayList<>();
+        for (int i = 0; i < residuals.size(); ++i) {
+            residualOrder.add(i);
+        }
+        residualOrder.sort(Comparator.comparingDouble(selectivities::get));
+        for (int i : residualOrder) {
+            rows *= selectivities.get(i);
+            steps.add(new Step("Check " + residuals.get(i), rows, null, residuals.get(i)));
+        }
+    }
+
+    /**
+     * Finds the tasks that match the query. This may only be done once for each plan.
+     *
+     * @return the indices of the matching tasks in the list, in ascending order
+     */
+    public List<Integer> execute() {
+        Step first = steps.get(0);
+        assert first.actualRows == 0 : "a plan should only be executed once";
+
+        List<Integer> indices = new ArrayList<>();
+        if (first.path == null) {
+            first.actualRows = tasks.size();
+            for (int i = 0; i < tasks.size(); ++i) {
+                if (passesChecks(tasks.get(i))) {
+                    indices.add(i);
+                }
+            }
+            return indices;
+        }
+
+        List<Task> rows = first.path.find();
+        first.actualRows = rows.size();
+        for (Task task : rows) {
+            if (passesChecks(task)) {
+                indices.add(tasks.indexOf(task.getId()));
+            }
+        }
+        Collections.sort(indices);
+        return indices;
+    }
+
+    /**
+     * Returns true if the given task passes every step after the first, stopping at the first step it fails.
+     */
+    private boolean passesChecks(Task task) {
+        for (int i = 1; i < steps.size(); ++i) {
+            Step step = steps.get(i);
+            if (!step.test(task)) {
+                return false;
+            }
+            ++step.actualRows;
+        }
+        return true;
+    }
+
+    /**
+     * Returns each step of this plan on its own line, with the number of tasks that were estimated to be left
+     * after it and the number that actually were, if the plan was executed.
+     */
+    public String explain() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < steps.size(); ++i) {
+            Step step = steps.get(i);
+            if (i > 0) {
+                text.append("\n");
+            }
+            text.append(i + 1).append(". ").append(step.description)
+                    .append(": estimated ").append(Math.round(step.estimatedRows))
+                    .append(", actual ").append(step.actualRows);
+        }
+        return text.toString();
+    }
+}
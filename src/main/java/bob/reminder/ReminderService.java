@@ -0,0 +1,353 @@
+package bob.reminder;
+
+import bob.TaskListListener;
+import bob.index.DueQueue;
+import bob.output.OutputSink;
+import bob.task.Event;
+import bob.task.Recurrence;
+import bob.task.Recurring;
+import bob.task.Task;
+import bob.util.DateTime;
+import bob.util.FormattedString;
+import bob.util.LongHashMap;
+import bob.util.TimingWheel;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reminds the user of deadlines, events and recurring tasks shortly before they are due, by printing a message
+ * to an output sink. A recurring task is reminded of before each of its occurrences that is not done.
+ * <p>
+ * The service listens to a task list, so reminders are scheduled, moved and cancelled as tasks are added,
+ * marked, tagged and deleted. Reminders are kept in a {@link TimingWheel} by the second that they are due, so
+ * scheduling and cancelling one costs O(1) however many are pending. A single thread sleeps until the wheel
+ * next has work to do, so nothing runs between reminders.
+ * <p>
+ * Changes may arrive on any thread. Reminders are sent to the sink from the service's thread.
+ */
+public class ReminderService implements TaskListListener {
+    /**
+     * How long before a task is due that it is reminded of by default.
+     */
+    public static final Duration DEFAULT_LEAD_TIME = Duration.ofMinutes(15);
+
+    private final OutputSink sink;
+    private final Duration leadTime;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition isChanged = lock.newCondition();
+
+    // Guarded by lock
+    private TimingWheel<Reminder> wheel;
+    private final LongHashMap<TimingWheel.Timer<Reminder>> timers = new LongHashMap<>();
+    // The due time of the last reminder sent for each task, so that it is not sent again when the task changes
+    private final LongHashMap<LocalDateTime> sentDues = new LongHashMap<>();
+    // The second that the thread sleeps until, so that it is only woken up for an earlier reminder
+    private long wakeUpSecond = TimingWheel.NEVER;
+    private Thread thread;
+    private boolean isStopped = false;
+
+    /**
+     * What to remind the user of. Only the parts of the task that are needed are copied, so that the task is
+     * never read from the service's thread.
+     */
+    private static class Reminder {
+        private final long taskId;
+        private final String description;
+        private final LocalDateTime due;
+        private final boolean isStart;
+        // For a recurring task, what is needed to find its later occurrences, or null otherwise
+        private final Recurrence rule;
+        private final List<LocalDate> doneDates;
+
+        private Reminder(Task task, LocalDateTime due) {
+            this.taskId = task.getId();
+            this.description = task.getDescription();
+            this.due = due;
+            this.isStart = task instanceof Event;
+            if (task instanceof Recurring) {
+                this.rule = ((Recurring) task).getRule();
+                this.doneDates = ((Recurring) task).getLaterDoneOccurrences();
+            } else {
+                this.rule = null;
+                this.doneDates = null;
+            }
+        }
+
+        private Reminder(Reminder reminder, LocalDateTime due) {
+            this.taskId = reminder.taskId;
+            this.description = reminder.description;
+            this.due = due;
+            this.isStart = reminder.isStart;
+            this.rule = reminder.rule;
+            this.doneDates = reminder.doneDates;
+        }
+
+        /**
+         * Returns the reminder of the first occurrence on or after the given date that is not done.
+         *
+         * @return the reminder, or null if the task is not recurring or has no such occurrence
+         */
+        private Reminder getOccurrenceOnOrAfter(LocalDate date) {
+            if (rule == null) {
+                return null;
+            }
+            LocalDate next = rule.firstOnOrAfter(date);
+            while (next != null && doneDates.contains(next)) {
+                next = rule.after(next);
+            }
+            return next == null ? null : new Reminder(this, next.atTime(due.toLocalTime()));
+        }
+
+        private boolean isSameAs(Reminder other) {
+            return due.equals(other.due) && description.equals(other.description)
+                    && Objects.equals(doneDates, other.doneDates);
+        }
+
+        private String getMessage() {
+            return "Heads up! " + description + (isStart ? " starts at " : " is due at ") + DateTime.format(due)
+                    + ".";
+        }
+    }
+
+    /**
+     * Constructs a service that reminds of tasks {@code DEFAULT_LEAD_TIME} before they are due.
+     *
+     * @param sink the sink that reminders are printed to
+     */
+    public ReminderService(OutputSink sink) {
+        this(sink, DEFAULT_LEAD_TIME, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a service that reminds of tasks the given time before they are due.
+     *
+     * @param sink the sink that reminders are printed to
+     * @param leadTime how long before a task is due that it is reminded of
+     * @param clock the clock that due times are compared against, in its time zone
+     */
+    public ReminderService(OutputSink sink, Duration leadTime, Clock clock) {
+        assert sink != null : "sink should not be null";
+        assert !leadTime.isNegative() : "lead time should not be negative";
+        this.sink = sink;
+        this.leadTime = leadTime;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(now());
+    }
+
+    private long now() {
+        return clock.instant().getEpochSecond();
+    }
+
+    private long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(clock.getZone()).toEpochSecond();
+    }
+
+    /**
+     * Starts sending reminders on a new thread. Does nothing if the service was already started.
+     */
+    public void start() {
+        lock.lock();
+        try {
+            if (thread != null) {
+                return;
+            }
+            thread = new Thread(this::run, "bob-reminders");
+            thread.setDaemon(true);
+            thread.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops sending reminders, and waits for a reminder that is being sent to be sent.
+     */
+    public void stop() {
+        Thread stopped;
+        lock.lock();
+        try {
+            isStopped = true;
+            isChanged.signal();
+            stopped = thread;
+        } finally {
+            lock.unlock();
+        }
+
+        if (stopped != null && stopped != Thread.currentThread()) {
+            try {
+                stopped.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of reminders that have not been sent yet.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        List<Reminder> due = new ArrayList<>();
+        lock.lock();
+        try {
+            while (!isStopped) {
+                wheel.advance(now(), reminder -> {
+                    timers.remove(reminder.taskId);
+                    sentDues.put(reminder.taskId, reminder.due);
+                    due.add(reminder);
+                });
+                // Recurring tasks are reminded of again before their next occurrence
+                for (Reminder reminder : due) {
+                    Reminder next = getUnsent(reminder);
+                    if (next != null) {
+                        schedule(next);
+                    }
+                }
+                if (!due.isEmpty()) {
+                    // Never hold the lock while printing, so that commands are not held up by a slow sink
+                    lock.unlock();
+                    try {
+                        send(due);
+                    } finally {
+                        lock.lock();
+                    }
+                    due.clear();
+                    continue;
+                }
+
+                wakeUpSecond = wheel.getNextTick();
+                if (wakeUpSecond == TimingWheel.NEVER) {
+                    isChanged.await();
+                } else {
+                    isChanged.await(Math.max(0, wakeUpSecond * 1000 - clock.millis()), TimeUnit.MILLISECONDS);
+                }
+                wakeUpSecond = TimingWheel.NEVER;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void send(List<Reminder> reminders) {
+        for (Reminder reminder : reminders) {
+            sink.print(new FormattedString(reminder.getMessage()));
+        }
+        sink.flush();
+    }
+
+    /**
+     * Schedules, moves or cancels the reminder of the given task to match its current state.
+     */
+    private void update(Task task) {
+        LocalDateTime due = task.getIsDone() ? null : DueQueue.getDue(task);
+        Reminder reminder = due == null ? null : getUnsent(new Reminder(task, due));
+        TimingWheel.Timer<Reminder> timer = timers.get(task.getId());
+        if (timer != null) {
+            if (reminder != null && reminder.isSameAs(timer.getValue())) {
+                return;
+            }
+            wheel.cancel(timer);
+            timers.remove(task.getId());
+        }
+
+        if (reminder != null) {
+            schedule(reminder);
+        }
+    }
+
+    /**
+     * Returns the given reminder if it has not been sent and is not due yet. Tasks that are already due are
+     * not reminded of, but those that are only within the lead time are. A recurring task is instead reminded
+     * of its first occurrence from today that is not done, not due yet and not reminded of already.
+     *
+     * @return the reminder to schedule, or null if there is none
+     */
+    private Reminder getUnsent(Reminder reminder) {
+        LocalDateTime sentDue = sentDues.get(reminder.taskId);
+        if (sentDue != null && !reminder.due.isAfter(sentDue)) {
+            reminder = reminder.getOccurrenceOnOrAfter(sentDue.toLocalDate().plusDays(1));
+        }
+        if (reminder != null && toEpochSecond(reminder.due) <= now()) {
+            // Start from today rather than going through every occurrence since a first one long ago
+            reminder = reminder.getOccurrenceOnOrAfter(LocalDate.now(clock));
+        }
+        while (reminder != null && toEpochSecond(reminder.due) <= now()) {
+            reminder = reminder.getOccurrenceOnOrAfter(reminder.due.toLocalDate().plusDays(1));
+        }
+        return reminder;
+    }
+
+    private void schedule(Reminder reminder) {
+        long second = toEpochSecond(reminder.due.minus(leadTime));
+        timers.put(reminder.taskId, wheel.schedule(second, reminder));
+        if (second < wakeUpSecond) {
+            isChanged.signal();
+        }
+    }
+
+    @Override
+    public void onAdded(int index, Task task) {
+        lock.lock();
+        try {
+            update(task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onRemoved(int index, Task task) {
+        lock.lock();
+        try {
+            TimingWheel.Timer<Reminder> timer = timers.remove(task.getId());
+            if (timer != null) {
+                wheel.cancel(timer);
+            }
+            sentDues.remove(task.getId());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onUpdated(int index, Task task) {
+        lock.lock();
+        try {
+            update(task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onReset() {
+        lock.lock();
+        try {
+            wheel = new TimingWheel<>(now());
+            timers.clear();
+            sentDues.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
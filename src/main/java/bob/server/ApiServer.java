@@ -0,0 +1,411 @@
+package bob.server;
+
+import bob.exception.BobException;
+import bob.exception.IncorrectArgumentException;
+import bob.exception.MissingArgumentException;
+import bob.metrics.Metrics;
+import bob.output.QueueSink;
+import bob.reminder.ReminderService;
+import bob.tenant.Tenant;
+import bob.tenant.TenantManager;
+import bob.util.Json;
+import bob.util.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A headless HTTP server that exposes a task list as a JSON API on the loopback interface.
+ * The endpoints are:
+ * <ul>
+ * <li>{@code GET /tasks[?tag=<tag>]}: all tasks, or the tasks tagged with the given tag</li>
+ * <li>{@code GET /tasks/<index>}: the task at the given index (starting from 1)</li>
+ * <li>{@code GET /find?keyword=<keyword>}: the tasks whose description contains the keyword, ignoring case</li>
+ * <li>{@code GET /tags}: all tags</li>
+ * <li>{@code POST /commands} with body <code>{"input": "&lt;command&gt;"}</code>: executes any command</li>
+ * <li>{@code POST /save}: saves the task list to the data file</li>
+ * <li>{@code GET /reminders}: the reminders of upcoming tasks sent since the last request</li>
+ * </ul>
+ * Each request is handled on its own thread. Mutations are serialized by the {@code CommandService}.
+ * <p>
+ * A server may also host many task lists through a {@code TenantManager}. Every request must then name its
+ * task list in the {@code X-Bob-Tenant} header, and {@code GET /tenants} reports the loaded tenants.
+ * Reminders are only sent for a single task list.
+ */
+public class ApiServer {
+    private static final int BACKLOG = 1024;
+    private static final int OK = 200;
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int INTERNAL_SERVER_ERROR = 500;
+    private static final String TENANT_HEADER = "X-Bob-Tenant";
+    private static final int MAX_LOADED_TENANTS = 1000;
+    private static final long TENANT_MEMORY_BUDGET_BYTES = 256L * 1024 * 1024;
+    private static final Duration TENANT_MAX_IDLE = Duration.ofMinutes(10);
+    private static final int MAX_KEPT_REMINDERS = 1000;
+
+    private final CommandService service;
+    private final TenantManager tenants;
+    private final HttpServer server;
+    private final ExecutorService executor = newThreadPerRequestExecutor();
+    private final QueueSink reminderMessages = new QueueSink(MAX_KEPT_REMINDERS);
+    private final ReminderService reminders;
+
+    /**
+     * Constructs a server for the given service that listens on the given port of the loopback interface.
+     *
+     * @param service the service that requests are executed on
+     * @param port the port to listen on, or 0 to pick any free port
+     * @throws IOException if the server cannot be bound to the port
+     */
+    public ApiServer(CommandService service, int port) throws IOException {
+        this(service, null, port);
+    }
+
+    /**
+     * Constructs a server for the tenants of the given manager that listens on the given port
+     * of the loopback interface.
+     *
+     * @param tenants the manager of the task lists that requests are executed on
+     * @param port the port to listen on, or 0 to pick any free port
+     * @throws IOException if the server cannot be bound to the port
+     */
+    public ApiServer(TenantManager tenants, int port) throws IOException {
+        this(null, tenants, port);
+        server.createContext("/tenants", exchange -> handle(exchange, "GET", false, (ex, unused, response) ->
+                getTenants(response)));
+    }
+
+    private ApiServer(CommandService service, TenantManager tenants, int port) throws IOException {
+        assert (service == null) != (tenants == null) : "exactly one of service and tenants should be given";
+        this.service = service;
+        this.tenants = tenants;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/tasks", exchange -> handle(exchange, "GET", this::getTasks));
+        server.createContext("/find", exchange -> handle(exchange, "GET", this::findTasks));
+        server.createContext("/tags", exchange -> handle(exchange, "GET", this::getTags));
+        server.createContext("/commands", exchange -> handle(exchange, "POST", this::executeCommand));
+        server.createContext("/save", exchange -> handle(exchange, "POST", this::save));
+
+        if (service != null) {
+            reminders = new ReminderService(reminderMessages);
+            service.addTaskListListener(reminders);
+            server.createContext("/reminders", exchange -> handle(exchange, "GET", this::getReminders));
+        } else {
+            reminders = null;
+        }
+    }
+
+    /**
+     * Returns an executor that runs every task on a new virtual thread if the JVM supports them,
+     * or a cached pool of platform threads otherwise.
+     */
+    private static ExecutorService newThreadPerRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "bob-api");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void start() {
+        server.start();
+        if (reminders != null) {
+            reminders.start();
+        }
+    }
+
+    /**
+     * Stops the server, waiting up to the given number of seconds for requests in progress to complete.
+     *
+     * @param delaySeconds the maximum time to wait
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        if (reminders != null) {
+            reminders.stop();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        /**
+         * Handles a request, writing the response body to the given writer.
+         *
+         * @return the HTTP status code of the response
+         */
+        int handle(HttpExchange exchange, CommandService service, JsonWriter response) throws IOException;
+    }
+
+    /**
+     * Handles a request on the service of this server, or on the service of the tenant named by the request.
+     */
+    private int handleOnService(HttpExchange exchange, Endpoint endpoint, JsonWriter response) throws IOException {
+        if (tenants == null) {
+            return endpoint.handle(exchange, service, response);
+        }
+
+        String tenantId = exchange.getRequestHeaders().getFirst(TENANT_HEADER);
+        if (tenantId == null) {
+            throw new MissingArgumentException(TENANT_HEADER + " header naming the task list");
+        }
+
+        try {
+            return tenants.withTenant(tenantId, tenantService -> {
+                try {
+                    return endpoint.handle(exchange, tenantService, response);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void handle(HttpExchange exchange, String method, Endpoint endpoint) throws IOException {
+        handle(exchange, method, true, endpoint);
+    }
+
+    /**
+     * Handles a request and sends the response.
+     *
+     * @param isPerTenant whether the endpoint acts on the task list of the tenant named by the request
+     */
+    private void handle(HttpExchange exchange, String method, boolean isPerTenant, Endpoint endpoint)
+            throws IOException {
+        JsonWriter response = new JsonWriter();
+        int status;
+        try {
+            if (!isPathMatched(exchange)) {
+                status = NOT_FOUND;
+                writeError(response, "There is nothing at " + exchange.getRequestURI().getPath() + ".");
+            } else if (!exchange.getRequestMethod().equals(method)) {
+                status = METHOD_NOT_ALLOWED;
+                writeError(response, "Only " + method + " is allowed here.");
+            } else {
+                status = isPerTenant
+                        ? handleOnService(exchange, endpoint, response)
+                        : endpoint.handle(exchange, null, response);
+            }
+        } catch (BobException e) {
+            status = BAD_REQUEST;
+            response = writeError(new JsonWriter(), e.getMessage());
+        } catch (RuntimeException e) {
+            status = INTERNAL_SERVER_ERROR;
+            response = writeError(new JsonWriter(), String.valueOf(e.getMessage()));
+        }
+
+        byte[] body = response.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Returns true if the path of the request is the path of its context, or below it.
+     * A context matches every path that starts with its path, so {@code /tasks} would also match
+     * {@code /tasksfoo}.
+     */
+    private static boolean isPathMatched(HttpExchange exchange) {
+        String rest = exchange.getRequestURI().getPath().substring(exchange.getHttpContext().getPath().length());
+        return rest.isEmpty() || rest.startsWith("/");
+    }
+
+    private static JsonWriter writeError(JsonWriter response, String message) {
+        return response.beginObject().name("ok").value(false).name("error").value(message).endObject();
+    }
+
+    private static Map<String, String> getQuery(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery == null) {
+            return query;
+        }
+
+        for (String pair : rawQuery.split("&")) {
+            String[] t = pair.split("=", 2);
+            String value = t.length == 2 ? URLDecoder.decode(t[1], StandardCharsets.UTF_8) : "";
+            query.put(URLDecoder.decode(t[0], StandardCharsets.UTF_8), value);
+        }
+        return query;
+    }
+
+    private int getTasks(HttpExchange exchange, CommandService service, JsonWriter response) {
+        String path = exchange.getRequestURI().getPath();
+        String rest = path.substring("/tasks".length());
+
+        // GET /tasks/<index>
+        if (rest.length() > 1) {
+            int index;
+            try {
+                index = Integer.parseInt(rest.substring(1)) - 1;
+            } catch (NumberFormatException e) {
+                throw new IncorrectArgumentException("an integer for the task index");
+            }
+
+            return service.read(tasks -> {
+                if (index < 0 || index >= tasks.size()) {
+                    writeError(response, "There is no task " + (index + 1) + ".");
+                    return NOT_FOUND;
+                }
+                response.beginObject().name("ok").value(true).name("task");
+                TaskJson.write(response, index, tasks.get(index));
+                response.endObject();
+                return OK;
+            });
+        }
+
+        // GET /tasks[?tag=<tag>]
+        String tag = getQuery(exchange).get("tag");
+        service.read(tasks -> TaskJson.writeTasks(response.beginObject().name("ok").value(true), tasks, tag)
+                .endObject());
+        return OK;
+    }
+
+    private int findTasks(HttpExchange exchange, CommandService service, JsonWriter response) {
+        String keyword = getQuery(exchange).get("keyword");
+        if (keyword == null || keyword.isBlank()) {
+            throw new MissingArgumentException("the keyword to search by");
+        }
+
+        service.read(tasks -> TaskJson.writeMatchingTasks(response.beginObject().name("ok").value(true), tasks, keyword)
+                .endObject());
+        return OK;
+    }
+
+    private int getTags(HttpExchange exchange, CommandService service, JsonWriter response) {
+        service.read(tasks -> TaskJson.writeTags(response.beginObject().name("ok").value(true), tasks).endObject());
+        return OK;
+    }
+
+    private int executeCommand(HttpExchange exchange, CommandService service, JsonWriter response) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        Object input = Json.parseObject(body).get("input");
+        if (!(input instanceof String)) {
+            throw new MissingArgumentException("'input' string of the command");
+        }
+
+        CommandService.Result result = service.execute((String) input);
+        response.beginObject()
+                .name("ok").value(!result.isError())
+                .name("command").value(result.getCommandType())
+                .name(result.isError() ? "error" : "message").value(result.getMessage())
+                .endObject();
+        return result.isError() ? BAD_REQUEST : OK;
+    }
+
+    private int save(HttpExchange exchange, CommandService service, JsonWriter response) throws IOException {
+        service.save();
+        response.beginObject().name("ok").value(true).endObject();
+        return OK;
+    }
+
+    private int getReminders(HttpExchange exchange, CommandService service, JsonWriter response) {
+        response.beginObject().name("ok").value(true).name("reminders").beginArray();
+        for (String reminder : reminderMessages.take()) {
+            response.value(reminder);
+        }
+        response.endArray().endObject();
+        return OK;
+    }
+
+    private int getTenants(JsonWriter response) {
+        response.beginObject().name("ok").value(true).name("tenants").beginArray();
+        for (Tenant tenant : tenants.getLoadedTenants()) {
+            response.beginObject()
+                    .name("id").value(tenant.getId())
+                    .name("tasks").value(tenant.getTaskCount())
+                    .name("estimatedBytes").value(tenant.getEstimatedBytes())
+                    .name("idleSeconds").value(tenant.getIdleNanos() / 1_000_000_000L)
+                    .endObject();
+        }
+        response.endArray().endObject();
+        return OK;
+    }
+
+    /**
+     * Starts a server over the data stored at the given file path, and saves the data when the JVM shuts down.
+     *
+     * @param filePath where the data is stored
+     * @param port the port to listen on
+     * @throws IOException if the server cannot be bound to the port
+     */
+    public static void run(String filePath, int port) throws IOException {
+        CommandService service = new CommandService(filePath);
+        ApiServer server = new ApiServer(service, port);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            try {
+                service.save();
+                Metrics.getGlobal().dump(Metrics.FILE_PATH);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }));
+
+        server.start();
+        System.out.println("Bob is listening on http://" + InetAddress.getLoopbackAddress().getHostAddress()
+                + ":" + server.getPort());
+    }
+
+    /**
+     * Starts a server over the task lists of many tenants stored in the given directory,
+     * and saves them when the JVM shuts down.
+     *
+     * @param directoryPath the directory that the task lists are stored in
+     * @param port the port to listen on
+     * @throws IOException if the server cannot be bound to the port
+     */
+    public static void runTenants(String directoryPath, int port) throws IOException {
+        TenantManager tenants = new TenantManager(directoryPath, MAX_LOADED_TENANTS, TENANT_MEMORY_BUDGET_BYTES);
+        tenants.startIdleEviction(TENANT_MAX_IDLE, TENANT_MAX_IDLE.dividedBy(10));
+        ApiServer server = new ApiServer(tenants, port);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            tenants.close();
+            try {
+                Metrics.getGlobal().dump(Metrics.FILE_PATH);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }));
+
+        server.start();
+        System.out.println("Bob is hosting the task lists in " + directoryPath + " on http://"
+                + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort());
+    }
+}
@@ -0,0 +1,153 @@
+package bob.server;
+
+import bob.Parser;
+import bob.Storage;
+import bob.TaskList;
+import bob.TaskListListener;
+import bob.Ui;
+import bob.command.Command;
+import bob.exception.BobException;
+import bob.metrics.Metrics;
+import bob.output.NullSink;
+
+import java.io.IOException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Executes commands and queries on a task list that is shared by many concurrent clients.
+ * Read-only commands and queries hold a shared lock and may run in parallel, while commands that modify the list
+ * hold an exclusive lock. Every command is executed with its own {@code Ui}, so nothing is rendered to the console.
+ */
+public class CommandService {
+    private final Storage storage;
+    private final Parser parser;
+    private final TaskList tasks;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object saveLock = new Object();
+
+    /**
+     * The outcome of a single command.
+     */
+    public static class Result {
+        private final String commandType;
+        private final String message;
+        private final boolean isError;
+
+        private Result(String commandType, String message, boolean isError) {
+            this.commandType = commandType;
+            this.message = message;
+            this.isError = isError;
+        }
+
+        public String getCommandType() {
+            return commandType;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public boolean isError() {
+            return isError;
+        }
+    }
+
+    /**
+     * Constructs a service over the data stored at the given file path.
+     *
+     * @param filePath where the data is stored
+     */
+    public CommandService(String filePath) {
+        this.storage = new Storage(filePath);
+        this.parser = new Parser();
+        this.tasks = storage.loadTaskList();
+    }
+
+    /**
+     * Registers a listener that is notified of every change to the task list.
+     * Listeners are notified while the exclusive lock is held.
+     *
+     * @param listener the listener to register
+     */
+    public void addTaskListListener(TaskListListener listener) {
+        lock.writeLock().lock();
+        try {
+            tasks.addListener(listener);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Parses and executes the given input.
+     *
+     * @param input the command to execute, as typed by a user
+     * @return the outcome of the command
+     */
+    public Result execute(String input) {
+        assert input != null : "input should not be null";
+
+        Command command;
+        try {
+            command = Metrics.getGlobal().parse(parser, input);
+        } catch (BobException e) {
+            return new Result("Error", e.getMessage(), true);
+        }
+
+        Ui ui = new Ui(NullSink.INSTANCE);
+        boolean isReadOnly = command.isReadOnly();
+        if (isReadOnly) {
+            lock.readLock().lock();
+        } else {
+            lock.writeLock().lock();
+        }
+
+        try {
+            Metrics.getGlobal().execute(command, tasks, ui, storage);
+            return new Result(command.getClass().getSimpleName(), ui.getLastMessage(), false);
+        } catch (BobException e) {
+            return new Result("Error", e.getMessage(), true);
+        } finally {
+            if (isReadOnly) {
+                lock.readLock().unlock();
+            } else {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Runs the given query on the task list. The task list must not be modified by the query.
+     *
+     * @param query the query to run
+     * @param <T> the type of the result of the query
+     * @return the result of the query
+     */
+    public <T> T read(Function<TaskList, T> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(tasks);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Saves the task list to the data file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save() throws IOException {
+        // Saving only reads the list, but two saves must not write the same file at once
+        synchronized (saveLock) {
+            lock.readLock().lock();
+            try {
+                storage.save(tasks);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
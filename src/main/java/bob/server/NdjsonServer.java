@@ -0,0 +1,218 @@
+package bob.server;
+
+import bob.exception.BobException;
+import bob.exception.IncorrectArgumentException;
+import bob.exception.MissingArgumentException;
+import bob.util.Json;
+import bob.util.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Serves newline-delimited JSON requests read from a stream, writing one JSON response per line. For example, <br>
+ * <code>{"id":1,"input":"todo read book"}</code> <br>
+ * is answered with <br>
+ * <code>{"id":1,"ok":true,"command":"TodoCommand","message":"..."}</code>.
+ * <p>
+ * Every request may carry an {@code "id"}, which is echoed in its response, and an {@code "op"}, one of
+ * {@code command} (the default, with an {@code "input"}), {@code tasks} (with an optional {@code "tag"}),
+ * {@code task} (with an {@code "index"} starting from 1), {@code find} (with a {@code "keyword"}),
+ * {@code tags} and {@code save}. Requests are answered in order, so a client may send many requests
+ * before reading any response. Responses are buffered and only flushed once every request that has already
+ * arrived is answered, so a pipelined batch costs one write instead of one per request.
+ * The task list is saved when the input ends.
+ */
+public class NdjsonServer {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final CommandService service;
+    private final BufferedReader in;
+    private final Writer out;
+    // Reused by every response, since responses are written one at a time
+    private final StringBuilder line = new StringBuilder();
+    private int requestCount = 0;
+    private int errorCount = 0;
+
+    /**
+     * Constructs a server that answers the requests read from {@code in} by writing to {@code out}.
+     *
+     * @param service the service to run the requests on
+     * @param in where the requests are read from
+     * @param out where the responses are written to
+     */
+    public NdjsonServer(CommandService service, Reader in, Writer out) {
+        this.service = service;
+        this.in = new BufferedReader(in, BUFFER_SIZE);
+        this.out = out;
+    }
+
+    /**
+     * Answers every request on the standard input over the data stored at the given file path,
+     * then saves the task list.
+     *
+     * @param filePath where the data is stored
+     * @throws IOException if the standard streams or the data file cannot be used
+     */
+    public static void run(String filePath) throws IOException {
+        CommandService service = new CommandService(filePath);
+        Reader in = new InputStreamReader(new FileInputStream(FileDescriptor.in), StandardCharsets.UTF_8);
+        Writer out = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), BUFFER_SIZE);
+        new NdjsonServer(service, in, out).serve();
+        service.save();
+    }
+
+    /**
+     * Answers requests until the input ends. Blank lines are skipped.
+     *
+     * @throws IOException if the input cannot be read or the output cannot be written
+     */
+    public void serve() throws IOException {
+        String request;
+        while ((request = in.readLine()) != null) {
+            if (request.isBlank()) {
+                continue;
+            }
+
+            line.setLength(0);
+            answer(request, new JsonWriter(line));
+            out.append(line).write('\n');
+
+            // Only flush at the end of a batch, once no more requests are waiting to be read
+            if (!in.ready()) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    private void answer(String request, JsonWriter response) {
+        ++requestCount;
+        Object id = null;
+        try {
+            Map<String, Object> object = Json.parseObject(request);
+            id = object.get("id");
+            writeId(response.beginObject(), id);
+            answer(object, response);
+            response.endObject();
+        } catch (BobException e) {
+            writeError(id, e.getMessage());
+        } catch (IOException e) {
+            writeError(id, "I could not save your tasks: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // Answer with an error rather than ending the whole session
+            writeError(id, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private void writeError(Object id, String message) {
+        ++errorCount;
+        // Discard whatever was written before the error
+        line.setLength(0);
+        writeId(new JsonWriter(line).beginObject(), id)
+                .name("ok").value(false)
+                .name("error").value(message)
+                .endObject();
+    }
+
+    private void answer(Map<String, Object> request, JsonWriter response) throws IOException {
+        Object op = request.getOrDefault("op", "command");
+        if (!(op instanceof String)) {
+            throw new IncorrectArgumentException("a string for 'op'");
+        }
+
+        switch ((String) op) {
+        case "command":
+            CommandService.Result result = service.execute(getString(request, "input", "'input' of the command"));
+            if (result.isError()) {
+                ++errorCount;
+            }
+            response.name("ok").value(!result.isError())
+                    .name("command").value(result.getCommandType())
+                    .name(result.isError() ? "error" : "message").value(result.getMessage());
+            break;
+        case "tasks":
+            Object tag = request.get("tag");
+            if (tag != null && !(tag instanceof String)) {
+                throw new IncorrectArgumentException("a string for 'tag'");
+            }
+            service.read(tasks -> TaskJson.writeTasks(response.name("ok").value(true), tasks, (String) tag));
+            break;
+        case "task":
+            long number = getTaskNumber(request);
+            boolean isFound = service.read(tasks -> {
+                if (number < 1 || number > tasks.size()) {
+                    return false;
+                }
+                int index = (int) number - 1;
+                TaskJson.write(response.name("ok").value(true).name("task"), index, tasks.get(index));
+                return true;
+            });
+            if (!isFound) {
+                throw new BobException("There is no task " + number + ".");
+            }
+            break;
+        case "find":
+            String keyword = getString(request, "keyword", "'keyword' to search by");
+            service.read(tasks -> TaskJson.writeMatchingTasks(response.name("ok").value(true), tasks, keyword));
+            break;
+        case "tags":
+            service.read(tasks -> TaskJson.writeTags(response.name("ok").value(true), tasks));
+            break;
+        case "save":
+            service.save();
+            response.name("ok").value(true);
+            break;
+        default:
+            throw new IncorrectArgumentException("one of command, tasks, task, find, tags or save for 'op'");
+        }
+    }
+
+    private static String getString(Map<String, Object> request, String name, String description) {
+        Object value = request.get(name);
+        if (!(value instanceof String) || ((String) value).isBlank()) {
+            throw new MissingArgumentException(description);
+        }
+        return (String) value;
+    }
+
+    private static long getTaskNumber(Map<String, Object> request) {
+        Object index = request.get("index");
+        if (!(index instanceof Long)) {
+            throw new MissingArgumentException("integer 'index' of the task");
+        }
+        return (long) index;
+    }
+
+    private static JsonWriter writeId(JsonWriter response, Object id) {
+        response.name("id");
+        if (id instanceof Long) {
+            return response.value((long) id);
+        } else if (id instanceof Double) {
+            return response.value((double) id);
+        } else if (id instanceof Boolean) {
+            return response.value((boolean) id);
+        }
+        // Strings are echoed as they are, while arrays and objects are not supported as ids
+        return response.value(id instanceof String ? (String) id : null);
+    }
+
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+}
@@ -0,0 +1,122 @@
+package bob.server;
+
+import bob.TaskList;
+import bob.task.Deadline;
+import bob.task.Event;
+import bob.task.Recurring;
+import bob.task.Task;
+import bob.task.Todo;
+import bob.util.JsonWriter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Utility class that writes tasks as JSON objects, for example: <br>
+ * <code>{"index":2,"id":17,"type":"deadline","description":"Finish iP","done":false,"tags":["URGENT"],
+ * "by":"2024-09-26T23:59"}</code>
+ */
+public class TaskJson {
+    /**
+     * Writes the given task as a JSON object.
+     *
+     * @param writer the writer to write to
+     * @param index the index of the task in its list (starting from 0). It is written starting from 1
+     * @param task the task to write
+     * @return the given writer
+     */
+    public static JsonWriter write(JsonWriter writer, int index, Task task) {
+        writer.beginObject()
+                .name("index").value(index + 1)
+                .name("id").value(task.getId())
+                .name("type").value(getType(task))
+                .name("description").value(task.getDescription())
+                .name("done").value(task.getIsDone());
+
+        writer.name("tags").beginArray();
+        for (String tag : task.getTags()) {
+            writer.value(tag);
+        }
+        writer.endArray();
+
+        if (task instanceof Deadline) {
+            writer.name("by").value(((Deadline) task).getBy().toString());
+        } else if (task instanceof Event) {
+            writer.name("from").value(((Event) task).getFrom().toString())
+                    .name("to").value(((Event) task).getTo().toString());
+        } else if (task instanceof Recurring) {
+            LocalDateTime next = ((Recurring) task).getNextOccurrence();
+            writer.name("rule").value(((Recurring) task).getRule().toString())
+                    .name("next").value(next == null ? null : next.toString());
+        }
+
+        return writer.endObject();
+    }
+
+    /**
+     * Writes a {@code "tasks"} member holding every task in the list, or only the tasks with the given tag.
+     *
+     * @param writer the writer to write to, positioned inside an object
+     * @param tasks the task list to write
+     * @param tag the tag that the tasks should have, or null to write every task
+     * @return the given writer
+     */
+    public static JsonWriter writeTasks(JsonWriter writer, TaskList tasks, String tag) {
+        writer.name("tasks").beginArray();
+        if (tag != null) {
+            for (int index : tasks.getIndicesTaggedWith(tag)) {
+                write(writer, index, tasks.get(index));
+            }
+        } else {
+            for (int i = 0; i < tasks.size(); ++i) {
+                write(writer, i, tasks.get(i));
+            }
+        }
+        return writer.endArray();
+    }
+
+    /**
+     * Writes a {@code "tasks"} member holding the tasks whose descriptions contain the keyword, ignoring case.
+     *
+     * @param writer the writer to write to, positioned inside an object
+     * @param tasks the task list to search
+     * @param keyword the keyword to search for
+     * @return the given writer
+     */
+    public static JsonWriter writeMatchingTasks(JsonWriter writer, TaskList tasks, String keyword) {
+        String lowerCaseKeyword = keyword.toLowerCase();
+        writer.name("tasks").beginArray();
+        for (int i = 0; i < tasks.size(); ++i) {
+            Task task = tasks.get(i);
+            if (task.getDescription().toLowerCase().contains(lowerCaseKeyword)) {
+                write(writer, i, task);
+            }
+        }
+        return writer.endArray();
+    }
+
+    /**
+     * Writes a {@code "tags"} member holding every tag used in the list.
+     *
+     * @param writer the writer to write to, positioned inside an object
+     * @param tasks the task list to write the tags of
+     * @return the given writer
+     */
+    public static JsonWriter writeTags(JsonWriter writer, TaskList tasks) {
+        writer.name("tags").beginArray();
+        for (String tag : tasks.getAllTags()) {
+            writer.value(tag);
+        }
+        return writer.endArray();
+    }
+
+    private static String getType(Task task) {
+        if (task instanceof Todo) {
+            return "todo";
+        } else if (task instanceof Deadline) {
+            return "deadline";
+        } else if (task instanceof Event) {
+            return "event";
+        }
+        return task.getClass().getSimpleName().toLowerCase();
+    }
+}
@@ -26,16 +26,9 @@ public class Deadline extends Task {
     public String encode() {
         // format: <isDone><len(desc)#4><desc><by#12><tag tag ...>
         StringBuilder str = new StringBuilder();
-
-        str.append(this.isDone ? 1 : 0);
-        str.append(String.format("%04d", this.description.length()));
-        str.append(this.description);
-
-        String formattedBy = by.format(DATE_TIME_FORMATTER);
-        str.append(formattedBy);
-
-        String tagsAsString = this.tags.stream().reduce("", (s, tag) -> s + " " + tag).trim();
-        str.append(tagsAsString);
+        appendEncodedDescription(str);
+        str.append(by.format(DATE_TIME_FORMATTER));
+        appendEncodedTags(str);
 
         return str.toString();
     }
@@ -32,19 +32,10 @@ public class Event extends Task {
     public String encode() {
         // format: <isDone><len(desc)#4><desc><from#12><to#12><tag tag ...>
         StringBuilder str = new StringBuilder();
-
-        str.append(this.isDone ? 1 : 0);
-        str.append(String.format("%04d", this.description.length()));
-        str.append(this.description);
-
-        String formattedFrom = from.format(DATE_TIME_FORMATTER);
-        str.append(formattedFrom);
-
-        String formattedTo = to.format(DATE_TIME_FORMATTER);
-        str.append(formattedTo);
-
-        String tagsAsString = this.tags.stream().reduce("", (s, tag) -> s + " " + tag).trim();
-        str.append(tagsAsString);
+        appendEncodedDescription(str);
+        str.append(from.format(DATE_TIME_FORMATTER));
+        str.append(to.format(DATE_TIME_FORMATTER));
+        appendEncodedTags(str);
 
         return str.toString();
     }
@@ -0,0 +1,392 @@
+package bob.task;
+
+import bob.exception.IncorrectArgumentException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * A rule that a recurring task repeats by, modelled after the RRULE of iCalendar (RFC 5545), for example
+ * <code>FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH;UNTIL=20251231</code>.
+ * A task repeats every {@code INTERVAL} days, weeks, months or years from its start date, on the given days of
+ * the week for weekly rules, and on the same day of the month (or of the year) as its start date otherwise.
+ * Months and years without that day are skipped. Occurrences are never stored, but computed when they are needed,
+ * so a rule costs the same no matter how long it runs for. A task occurs at most once per day.
+ */
+public class Recurrence {
+    private static final DateTimeFormatter UNTIL_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+    // Bounds the search for the next occurrence of rules that skip many periods, such as every year on 29 Feb
+    private static final int MAX_SKIPPED_PERIODS = 1000;
+    private static final String RULE_EXAMPLES = "a rule like 'day', '2 weeks', 'monday,thursday', 'month' or"
+            + " 'FREQ=WEEKLY;INTERVAL=2;BYDAY=MO'";
+
+    /**
+     * How often a rule repeats.
+     */
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY, YEARLY
+    }
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Set<DayOfWeek> days;
+    private final LocalDate start;
+    private final LocalDate until;
+
+    private Recurrence(Frequency frequency, int interval, Set<DayOfWeek> days, LocalDate start, LocalDate until) {
+        assert interval > 0 : "interval should be positive";
+        assert frequency != Frequency.WEEKLY || !days.isEmpty() : "a weekly rule should have at least one day";
+
+        this.frequency = frequency;
+        this.interval = interval;
+        this.days = days;
+        this.start = start;
+        this.until = until;
+    }
+
+    /**
+     * Parses a rule that starts on the given date. The rule is either RRULE-like, with {@code FREQ},
+     * {@code INTERVAL}, {@code BYDAY}, {@code UNTIL} and {@code COUNT} parts, or a short form such as
+     * {@code day}, {@code 2 weeks}, {@code monday,thursday}, {@code month} or {@code year}.
+     *
+     * @param rule the rule to parse
+     * @param start the date of the first occurrence
+     * @return the parsed rule
+     * @throws IncorrectArgumentException if the rule cannot be parsed
+     */
+    public static Recurrence parse(String rule, LocalDate start) {
+        assert rule != null && start != null : "rule and start should not be null";
+
+        String trimmedRule = rule.trim();
+        if (trimmedRule.contains("=")) {
+            return parseRrule(trimmedRule, start);
+        }
+
+        String[] words = trimmedRule.toLowerCase(Locale.ROOT).split("\\s+");
+        int interval = 1;
+        int n = 0;
+        if (words.length == 2) {
+            interval = parsePositiveInt(words[0]);
+            n = 1;
+        } else if (words.length != 1) {
+            throw new IncorrectArgumentException(RULE_EXAMPLES);
+        }
+
+        switch (words[n]) {
+        case "day":
+        case "days":
+        case "daily":
+            return new Recurrence(Frequency.DAILY, interval, EnumSet.noneOf(DayOfWeek.class), start, null);
+        case "week":
+        case "weeks":
+        case "weekly":
+            return new Recurrence(Frequency.WEEKLY, interval, EnumSet.of(start.getDayOfWeek()), start, null);
+        case "month":
+        case "months":
+        case "monthly":
+            return new Recurrence(Frequency.MONTHLY, interval, EnumSet.noneOf(DayOfWeek.class), start, null);
+        case "year":
+        case "years":
+        case "yearly":
+            return new Recurrence(Frequency.YEARLY, interval, EnumSet.noneOf(DayOfWeek.class), start, null);
+        default:
+            Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+            for (String day : words[n].split(",")) {
+                days.add(parseDay(day));
+            }
+            return new Recurrence(Frequency.WEEKLY, interval, days, start, null);
+        }
+    }
+
+    private static Recurrence parseRrule(String rule, LocalDate start) {
+        Frequency frequency = null;
+        int interval = 1;
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        LocalDate until = null;
+        int count = 0;
+
+        for (String part : rule.toUpperCase(Locale.ROOT).split(";")) {
+            String[] keyValue = part.trim().split("=", 2);
+            if (keyValue.length != 2) {
+                throw new IncorrectArgumentException(RULE_EXAMPLES);
+            }
+
+            String value = keyValue[1].trim();
+            switch (keyValue[0].trim()) {
+            case "FREQ":
+                try {
+                    frequency = Frequency.valueOf(value);
+                } catch (IllegalArgumentException e) {
+                    throw new IncorrectArgumentException("DAILY, WEEKLY, MONTHLY or YEARLY for FREQ");
+                }
+                break;
+            case "INTERVAL":
+                interval = parsePositiveInt(value);
+                break;
+            case "BYDAY":
+                for (String day : value.split(",")) {
+                    days.add(parseDay(day));
+                }
+                break;
+            case "UNTIL":
+                try {
+                    // Only the date of a date-time such as 20251231T235959Z is used
+                    until = LocalDate.parse(value.substring(0, Math.min(8, value.length())), UNTIL_FORMATTER);
+                } catch (DateTimeParseException e) {
+                    throw new IncorrectArgumentException("a date like 20251231 for UNTIL");
+                }
+                break;
+            case "COUNT":
+                count = parsePositiveInt(value);
+                break;
+            default:
+                throw new IncorrectArgumentException("only FREQ, INTERVAL, BYDAY, UNTIL and COUNT in the rule");
+            }
+        }
+
+        if (frequency == null) {
+            throw new IncorrectArgumentException("FREQ in the rule");
+        }
+        if (!days.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new IncorrectArgumentException("BYDAY only in a WEEKLY rule");
+        }
+        if (frequency == Frequency.WEEKLY && days.isEmpty()) {
+            days.add(start.getDayOfWeek());
+        }
+
+        Recurrence recurrence = new Recurrence(frequency, interval, days, start, until);
+        return count > 0 ? recurrence.limitTo(count) : recurrence;
+    }
+
+    private static int parsePositiveInt(String value) {
+        int n;
+        try {
+            n = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IncorrectArgumentException(RULE_EXAMPLES);
+        }
+        if (n < 1) {
+            throw new IncorrectArgumentException("a positive number in the rule");
+        }
+        return n;
+    }
+
+    private static DayOfWeek parseDay(String day) {
+        String prefix = day.trim().toUpperCase(Locale.ROOT);
+        if (prefix.length() >= 2) {
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                boolean isPlural = prefix.length() > 3 && prefix.startsWith(dayOfWeek.name());
+                if (dayOfWeek.name().startsWith(prefix) || isPlural) {
+                    return dayOfWeek;
+                }
+            }
+        }
+        throw new IncorrectArgumentException(RULE_EXAMPLES);
+    }
+
+    /**
+     * Returns a copy of this rule that ends after the given number of occurrences.
+     */
+    private Recurrence limitTo(int count) {
+        LocalDate last = firstOnOrAfter(start);
+        for (int i = 1; i < count && last != null; ++i) {
+            last = after(last);
+        }
+        return new Recurrence(frequency, interval, days, start, last);
+    }
+
+    /**
+     * Returns a copy of this rule that ends on the given date.
+     *
+     * @param until the last date that the task may occur on
+     * @return the new rule
+     */
+    public Recurrence until(LocalDate until) {
+        return new Recurrence(frequency, interval, days, start, until);
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    /**
+     * Returns the first date on or after the given date that the task occurs on.
+     *
+     * @param from the earliest date to return
+     * @return the date of the occurrence, or null if the task does not occur on or after the given date
+     */
+    public LocalDate firstOnOrAfter(LocalDate from) {
+        LocalDate date = from.isBefore(start) ? start : from;
+        LocalDate occurrence;
+        switch (frequency) {
+        case DAILY:
+            long periods = ceilDiv(ChronoUnit.DAYS.between(start, date), interval);
+            occurrence = start.plusDays(periods * interval);
+            break;
+        case WEEKLY:
+            occurrence = firstWeeklyOnOrAfter(date);
+            break;
+        case MONTHLY:
+            occurrence = firstMonthlyOnOrAfter(date);
+            break;
+        default:
+            occurrence = firstYearlyOnOrAfter(date);
+        }
+
+        return occurrence == null || (until != null && occurrence.isAfter(until)) ? null : occurrence;
+    }
+
+    /**
+     * Returns the first date after the given date that the task occurs on.
+     *
+     * @param date the date after which to look
+     * @return the date of the occurrence, or null if there is none
+     */
+    public LocalDate after(LocalDate date) {
+        return firstOnOrAfter(date.plusDays(1));
+    }
+
+    /**
+     * Returns the last date before the given date that the task occurs on.
+     *
+     * @param date the date before which to look
+     * @return the date of the occurrence, or null if there is none
+     */
+    public LocalDate before(LocalDate date) {
+        long[] periodDays = {1, 7, 31, 366};
+        long window = periodDays[frequency.ordinal()] * interval;
+        // Look back over a window of about one period, and widen it until it has an occurrence or reaches the start
+        LocalDate from = date;
+        while (from.isAfter(start)) {
+            from = ChronoUnit.DAYS.between(start, from) > window ? from.minusDays(window) : start;
+            LocalDate last = null;
+            for (LocalDate occurrence = firstOnOrAfter(from); occurrence != null && occurrence.isBefore(date);
+                    occurrence = after(occurrence)) {
+                last = occurrence;
+            }
+            if (last != null) {
+                return last;
+            }
+            window *= 2;
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the task occurs on the given date.
+     */
+    public boolean isOccurrence(LocalDate date) {
+        return date.equals(firstOnOrAfter(date));
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+
+    private LocalDate firstWeeklyOnOrAfter(LocalDate date) {
+        LocalDate firstMonday = start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        long weeks = ChronoUnit.DAYS.between(firstMonday, date) / 7;
+        long week = Math.floorDiv(weeks, interval) * interval;
+
+        // The date is in the period that starts at the given week, so the occurrence is in it or the next period
+        for (int i = 0; i < 2; ++i, week += interval) {
+            LocalDate monday = firstMonday.plusWeeks(week);
+            for (DayOfWeek day : days) {
+                LocalDate candidate = monday.plusDays(day.getValue() - 1);
+                if (!candidate.isBefore(date)) {
+                    return candidate;
+                }
+            }
+        }
+
+        assert false : "there should be an occurrence within two periods";
+        return null;
+    }
+
+    private LocalDate firstMonthlyOnOrAfter(LocalDate date) {
+        YearMonth first = YearMonth.from(start);
+        long months = ChronoUnit.MONTHS.between(first, YearMonth.from(date));
+        long month = Math.floorDiv(months, interval) * interval;
+
+        for (int i = 0; i < MAX_SKIPPED_PERIODS; ++i, month += interval) {
+            YearMonth yearMonth = first.plusMonths(month);
+            if (yearMonth.isValidDay(start.getDayOfMonth())) {
+                LocalDate candidate = yearMonth.atDay(start.getDayOfMonth());
+                if (!candidate.isBefore(date)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private LocalDate firstYearlyOnOrAfter(LocalDate date) {
+        MonthDay monthDay = MonthDay.from(start);
+        long years = date.getYear() - start.getYear();
+        long year = Math.floorDiv(years, interval) * interval;
+
+        for (int i = 0; i < MAX_SKIPPED_PERIODS; ++i, year += interval) {
+            int candidateYear = (int) (start.getYear() + year);
+            if (monthDay.isValidYear(candidateYear)) {
+                LocalDate candidate = monthDay.atYear(candidateYear);
+                if (!candidate.isBefore(date)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the rule in its RRULE-like form, which {@link #parse(String, LocalDate)} reads back.
+     */
+    @Override
+    public String toString() {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency).append(";INTERVAL=").append(interval);
+        if (frequency == Frequency.WEEKLY) {
+            StringJoiner byDay = new StringJoiner(",", ";BYDAY=", "");
+            for (DayOfWeek day : days) {
+                byDay.add(day.name().substring(0, 2));
+            }
+            rule.append(byDay);
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(UNTIL_FORMATTER.format(until));
+        }
+        return rule.toString();
+    }
+
+    /**
+     * Returns a description of the rule for people, such as <code>every 2 weeks on Mon, Thu</code>.
+     */
+    public String describe() {
+        String[] units = {"day", "week", "month", "year"};
+        String unit = units[frequency.ordinal()];
+        StringBuilder description = new StringBuilder("every ");
+        description.append(interval == 1 ? unit : interval + " " + unit + "s");
+
+        if (frequency == Frequency.WEEKLY) {
+            StringJoiner byDay = new StringJoiner(", ", " on ", "");
+            for (DayOfWeek day : days) {
+                byDay.add(day.getDisplayName(TextStyle.SHORT, Locale.ENGLISH));
+            }
+            description.append(byDay);
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,309 @@
+package bob.task;
+
+import bob.exception.LineCorruptedException;
+import bob.util.DateTime;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static bob.Storage.DATE_TIME_FORMATTER;
+
+/**
+ * A task that repeats by a {@link Recurrence} rule, such as every Monday or on the 1st of every month.
+ * Each occurrence is marked as done on its own. Occurrences are only computed for the dates being looked at,
+ * and the done ones are stored as the date up to which every occurrence is done, plus the few done
+ * occurrences after it, so a task costs one line in the data file no matter how many years it spans.
+ * The task itself is done once every occurrence of a rule that ends is done.
+ */
+public class Recurring extends Task {
+    public static final char ENCODED_LETTER = 'R';
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("ddMMuuuu");
+    private static final String NO_DATE = "00000000";
+
+    private final Recurrence rule;
+    private final LocalTime time;
+    // Every occurrence on or before this date is done, or null if the first occurrence is not done
+    private LocalDate doneThrough = null;
+    // The sorted epoch days of the done occurrences after doneThrough
+    private long[] doneDays = new long[0];
+
+    /**
+     * Constructs a task that repeats by the given rule, at the given time of day.
+     *
+     * @param description description of the task
+     * @param rule the rule that the task repeats by
+     * @param time the time of day that every occurrence is at
+     * @param tags an array of strings that the task is tagged with
+     */
+    public Recurring(String description, Recurrence rule, LocalTime time, String... tags) {
+        super(description, tags);
+        this.rule = rule;
+        this.time = time;
+        this.isDone = rule.firstOnOrAfter(rule.getStart()) == null;
+    }
+
+    public Recurrence getRule() {
+        return rule;
+    }
+
+    /**
+     * Returns the first occurrence that is not done, which may be in the past.
+     *
+     * @return the date and time of the occurrence, or null if every occurrence is done
+     */
+    public LocalDateTime getNextOccurrence() {
+        LocalDate date = doneThrough == null ? rule.firstOnOrAfter(rule.getStart()) : rule.after(doneThrough);
+        while (date != null && isDoneDay(date)) {
+            date = rule.after(date);
+        }
+        return date == null ? null : date.atTime(time);
+    }
+
+    /**
+     * Returns the occurrences from {@code from} (inclusive) to {@code to} (exclusive).
+     *
+     * @param from the start of the window
+     * @param to the end of the window
+     * @return the date and time of every occurrence in the window, in order
+     */
+    public List<LocalDateTime> getOccurrences(LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        LocalDate firstDate = from.toLocalTime().isAfter(time) ? from.toLocalDate().plusDays(1) : from.toLocalDate();
+        for (LocalDate date = rule.firstOnOrAfter(firstDate); date != null; date = rule.after(date)) {
+            LocalDateTime occurrence = date.atTime(time);
+            if (!occurrence.isBefore(to)) {
+                break;
+            }
+            occurrences.add(occurrence);
+        }
+        return occurrences;
+    }
+
+    /**
+     * Returns the done occurrences after the first occurrence that is not done, which are the only occurrences
+     * after it that {@link #getNextOccurrence()} skips.
+     *
+     * @return the dates of the occurrences, in order
+     */
+    public List<LocalDate> getLaterDoneOccurrences() {
+        List<LocalDate> dates = new ArrayList<>(doneDays.length);
+        for (long doneDay : doneDays) {
+            dates.add(LocalDate.ofEpochDay(doneDay));
+        }
+        return dates;
+    }
+
+    /**
+     * Returns true if the occurrence on the given date is done.
+     */
+    public boolean isOccurrenceDone(LocalDate date) {
+        return (doneThrough != null && !date.isAfter(doneThrough)) || isDoneDay(date);
+    }
+
+    private boolean isDoneDay(LocalDate date) {
+        return Arrays.binarySearch(doneDays, date.toEpochDay()) >= 0;
+    }
+
+    /**
+     * Marks the occurrence on the given date as done.
+     *
+     * @param date the date of the occurrence
+     * @return false if the task does not occur on that date, or the occurrence is already done
+     */
+    public boolean markOccurrence(LocalDate date) {
+        if (!rule.isOccurrence(date) || isOccurrenceDone(date)) {
+            return false;
+        }
+
+        int insertion = -Arrays.binarySearch(doneDays, date.toEpochDay()) - 1;
+        long[] newDoneDays = new long[doneDays.length + 1];
+        System.arraycopy(doneDays, 0, newDoneDays, 0, insertion);
+        newDoneDays[insertion] = date.toEpochDay();
+        System.arraycopy(doneDays, insertion, newDoneDays, insertion + 1, doneDays.length - insertion);
+        doneDays = newDoneDays;
+
+        compact();
+        return true;
+    }
+
+    /**
+     * Moves the done occurrences that directly follow {@code doneThrough} into it.
+     */
+    private void compact() {
+        int merged = 0;
+        LocalDate next = doneThrough == null ? rule.firstOnOrAfter(rule.getStart()) : rule.after(doneThrough);
+        while (next != null && merged < doneDays.length && doneDays[merged] == next.toEpochDay()) {
+            doneThrough = next;
+            ++merged;
+            next = rule.after(next);
+        }
+        doneDays = Arrays.copyOfRange(doneDays, merged, doneDays.length);
+        isDone = getNextOccurrence() == null;
+    }
+
+    /**
+     * Marks the occurrence on the given date as not done.
+     *
+     * @param date the date of the occurrence
+     * @return false if the task does not occur on that date, or the occurrence is not done
+     */
+    public boolean unmarkOccurrence(LocalDate date) {
+        if (!rule.isOccurrence(date) || !isOccurrenceDone(date)) {
+            return false;
+        }
+
+        if (isDoneDay(date)) {
+            int index = Arrays.binarySearch(doneDays, date.toEpochDay());
+            long[] newDoneDays = new long[doneDays.length - 1];
+            System.arraycopy(doneDays, 0, newDoneDays, 0, index);
+            System.arraycopy(doneDays, index + 1, newDoneDays, index, newDoneDays.length - index);
+            doneDays = newDoneDays;
+        } else {
+            // Split the done occurrences around the date, keeping those after it as single done occurrences
+            List<Long> later = new ArrayList<>();
+            for (LocalDate d = rule.after(date); d != null && !d.isAfter(doneThrough); d = rule.after(d)) {
+                later.add(d.toEpochDay());
+            }
+            long[] newDoneDays = new long[later.size() + doneDays.length];
+            for (int i = 0; i < later.size(); ++i) {
+                newDoneDays[i] = later.get(i);
+            }
+            System.arraycopy(doneDays, 0, newDoneDays, later.size(), doneDays.length);
+            doneDays = newDoneDays;
+            doneThrough = rule.before(date);
+        }
+
+        isDone = false;
+        return true;
+    }
+
+    /**
+     * Marks the first occurrence that is not done as done.
+     */
+    @Override
+    public void mark() {
+        LocalDateTime next = getNextOccurrence();
+        if (next != null) {
+            markOccurrence(next.toLocalDate());
+        }
+    }
+
+    /**
+     * Marks the last occurrence that is done as not done.
+     */
+    @Override
+    public void unmark() {
+        LocalDate last = doneDays.length > 0 ? LocalDate.ofEpochDay(doneDays[doneDays.length - 1]) : doneThrough;
+        if (last != null) {
+            unmarkOccurrence(last);
+        }
+    }
+
+    @Override
+    public String encode() {
+        // format: <isDone><len(desc)#4><desc><start#12><len(rule)#4><rule><doneThrough#8>
+        //         <count(doneDays)#6><doneDay#8 ...><tag tag ...>
+        StringBuilder str = new StringBuilder();
+        appendEncodedDescription(str);
+        str.append(rule.getStart().atTime(time).format(DATE_TIME_FORMATTER));
+
+        String ruleAsString = rule.toString();
+        appendPadded(str, ruleAsString.length(), 4).append(ruleAsString);
+        str.append(doneThrough == null ? NO_DATE : doneThrough.format(DATE_FORMATTER));
+
+        appendPadded(str, doneDays.length, 6);
+        for (long doneDay : doneDays) {
+            str.append(LocalDate.ofEpochDay(doneDay).format(DATE_FORMATTER));
+        }
+        appendEncodedTags(str);
+
+        return str.toString();
+    }
+
+    /**
+     * Appends the given number, padded with zeros to the given number of digits, to the given builder.
+     */
+    private static StringBuilder appendPadded(StringBuilder str, int number, int digits) {
+        String digitsAsString = Integer.toString(number);
+        for (int i = digitsAsString.length(); i < digits; i++) {
+            str.append('0');
+        }
+        return str.append(digitsAsString);
+    }
+
+    public static Task decode(String encodedString) throws LineCorruptedException {
+        // format: <isDone><len(desc)#4><desc><start#12><len(rule)#4><rule><doneThrough#8>
+        //         <count(doneDays)#6><doneDay#8 ...><tag tag ...>
+        if (encodedString.charAt(0) != '0' && encodedString.charAt(0) != '1') {
+            throw new LineCorruptedException();
+        }
+
+        try {
+            return getTask(encodedString);
+        } catch (RuntimeException e) {
+            // Covers malformed numbers, dates and rules, and lines that end too early
+            throw new LineCorruptedException();
+        }
+    }
+
+    private static Task getTask(String encodedString) {
+        int descLength = Integer.parseInt(encodedString.substring(1, 5));
+        int n = 5 + descLength;
+        String desc = encodedString.substring(5, n);
+
+        LocalDateTime start = LocalDateTime.from(DATE_TIME_FORMATTER.parse(encodedString.substring(n, n + 12)));
+        n += 12;
+
+        int ruleLength = Integer.parseInt(encodedString.substring(n, n + 4));
+        n += 4;
+        Recurrence rule = Recurrence.parse(encodedString.substring(n, n + ruleLength), start.toLocalDate());
+        n += ruleLength;
+
+        String doneThrough = encodedString.substring(n, n + 8);
+        n += 8;
+
+        int doneCount = Integer.parseInt(encodedString.substring(n, n + 6));
+        n += 6;
+        long[] doneDays = new long[doneCount];
+        for (int i = 0; i < doneCount; ++i, n += 8) {
+            doneDays[i] = LocalDate.parse(encodedString.substring(n, n + 8), DATE_FORMATTER).toEpochDay();
+        }
+
+        String[] tags = Arrays.stream(encodedString.substring(n).split(" "))
+                .filter(str -> !str.isEmpty())
+                .toArray(String[]::new);
+
+        Recurring task = new Recurring(desc, rule, start.toLocalTime(), tags);
+        task.doneThrough = doneThrough.equals(NO_DATE) ? null : LocalDate.parse(doneThrough, DATE_FORMATTER);
+        task.doneDays = doneDays;
+        if (!isSorted(doneDays)) {
+            throw new DateTimeException("done occurrences should be in order");
+        }
+        task.compact();
+        return task;
+    }
+
+    private static boolean isSorted(long[] days) {
+        for (int i = 1; i < days.length; ++i) {
+            if (days[i - 1] >= days[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        LocalDateTime next = getNextOccurrence();
+        String nextAsString = next == null ? "no more" : "next: " + DateTime.format(next);
+        String untilAsString = rule.getUntil() == null ? "" : " until " + DateTime.format(rule.getUntil().atTime(time));
+        return "[R]" + super.toString() + " (" + rule.describe() + " from: "
+                + DateTime.format(rule.getStart().atTime(time)) + untilAsString + ", " + nextAsString + ")";
+    }
+}
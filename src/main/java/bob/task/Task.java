@@ -20,9 +20,15 @@ import bob.exception.LineCorruptedException;
  * @see bob.Storage
  */
 public abstract class Task {
+    /**
+     * The ID of a task that has not been added to a task list yet. Assigned IDs start from 1.
+     */
+    public static final long NO_ID = 0;
+
     protected String description;
     protected boolean isDone;
     protected Set<String> tags;
+    private long id = NO_ID;
 
     /**
      * Constructs a task with the given description and tags.
@@ -36,6 +42,25 @@ public abstract class Task {
         this.tags = new HashSet<>(Set.of(tags));
     }
 
+    /**
+     * Returns the ID of this task, which stays the same for as long as the task exists,
+     * unlike its position in the list.
+     *
+     * @return the ID of this task, or {@code NO_ID} if none is assigned yet
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Sets the ID of this task. IDs are assigned by the task list that the task is added to.
+     *
+     * @param id the ID of this task
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
     public String getDescription() {
         return this.description;
     }
@@ -98,6 +123,33 @@ public abstract class Task {
         tags.clear();
     }
 
+    /**
+     * Appends the part of the encoding that every task type starts with to the given builder:
+     * <code>&lt;isDone&gt;&lt;len(desc)#4&gt;&lt;desc&gt;</code>
+     *
+     * @param str the builder to append to
+     * @return the given builder
+     */
+    protected StringBuilder appendEncodedDescription(StringBuilder str) {
+        str.append(this.isDone ? '1' : '0');
+
+        String length = Integer.toString(this.description.length());
+        for (int i = length.length(); i < 4; i++) {
+            str.append('0');
+        }
+        return str.append(length).append(this.description);
+    }
+
+    /**
+     * Appends the tags of this task, separated by spaces, to the given builder.
+     *
+     * @param str the builder to append to
+     * @return the given builder
+     */
+    protected StringBuilder appendEncodedTags(StringBuilder str) {
+        return str.append(String.join(" ", this.tags));
+    }
+
     /**
      * Encodes this task to be stored in the data file.
      *
@@ -15,13 +15,8 @@ public class Todo extends Task {
     public String encode() {
         // format: <isDone><len(desc)#4><desc><tag tag ...>
         StringBuilder str = new StringBuilder();
-
-        str.append(this.isDone ? "1" : "0");
-        str.append(String.format("%04d", this.description.length()));
-        str.append(this.description);
-
-        String tagsAsString = this.tags.stream().reduce("", (s, tag) -> s + " " + tag).trim();
-        str.append(tagsAsString);
+        appendEncodedDescription(str);
+        appendEncodedTags(str);
 
         return str.toString();
     }
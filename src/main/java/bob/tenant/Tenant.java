@@ -0,0 +1,180 @@
+package bob.tenant;
+
+import bob.TaskList;
+import bob.TaskListListener;
+import bob.index.DependencyGraph;
+import bob.server.CommandService;
+import bob.task.Deadline;
+import bob.task.Event;
+import bob.task.Recurring;
+import bob.task.Task;
+import bob.util.LongHashMap;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Represents the task list of a single user that is loaded in memory by a {@code TenantManager}.
+ * Keeps a running estimate of the memory used by the task list, updated from its change events.
+ * The estimate of each task is kept by its ID, so that a change to a task replaces its estimate.
+ */
+public class Tenant {
+    // Rough per-object sizes in bytes on a 64-bit JVM with compressed references
+    private static final long TASK_BYTES = 32;
+    private static final long STRING_BYTES = 40;
+    private static final long TAG_SET_BYTES = 64;
+    private static final long TAG_ENTRY_BYTES = 48;
+    private static final long DATE_TIME_BYTES = 72;
+    // The rule, time of day and done-through date of a recurring task
+    private static final long RECURRENCE_BYTES = 128;
+    private static final long ARRAY_BYTES = 16;
+    // An entry in the prerequisites of a task and in the dependents of its prerequisite
+    private static final long DEPENDENCY_BYTES = 16;
+
+    private final String id;
+    private final String filePath;
+    // Null until the task list is loaded, which is done outside the lock of the tenant manager
+    private volatile CommandService service;
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    // The estimate last added for each task by ID, which is what is taken away again when the task changes or is
+    // removed. Only accessed by the listener, which runs while the task list is locked for writing.
+    private final LongHashMap<Long> taskBytes = new LongHashMap<>();
+    private final AtomicLong taskCount = new AtomicLong();
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    // Requests hold the read lock while using the tenant, and eviction holds the write lock,
+    // so that a tenant is never modified after it has been saved and evicted
+    private final ReadWriteLock residencyLock = new ReentrantReadWriteLock();
+    private volatile boolean isEvicted = false;
+    // Set while the tenant manager is evicting this tenant, and guarded by the lock of the tenant manager
+    private boolean isEvicting = false;
+
+    Tenant(String id, String filePath) {
+        this.id = id;
+        this.filePath = filePath;
+    }
+
+    /**
+     * Loads the task list of this tenant, unless it is already loaded. Only the threads that use this tenant
+     * wait for it to load.
+     */
+    synchronized void load() {
+        if (service != null) {
+            return;
+        }
+
+        CommandService loaded = new CommandService(filePath);
+        DependencyGraph dependencies = loaded.read(TaskList::getDependencies);
+        loaded.addTaskListListener(new TaskListListener() {
+            @Override
+            public void onAdded(int index, Task task) {
+                record(task);
+                taskCount.incrementAndGet();
+            }
+
+            @Override
+            public void onRemoved(int index, Task task) {
+                Long bytes = taskBytes.remove(task.getId());
+                estimatedBytes.addAndGet(bytes == null ? 0 : -bytes);
+                taskCount.decrementAndGet();
+            }
+
+            @Override
+            public void onUpdated(int index, Task task) {
+                record(task);
+            }
+
+            @Override
+            public void onReset() {
+                taskBytes.clear();
+                estimatedBytes.set(0);
+                taskCount.set(0);
+            }
+
+            private void record(Task task) {
+                // The dependencies of a task are counted with the task. Those on a removed prerequisite are only
+                // taken away once the task itself changes or is removed.
+                long bytes = estimateBytes(task)
+                        + DEPENDENCY_BYTES * dependencies.getPrerequisiteIds(task.getId()).length;
+                Long oldBytes = taskBytes.put(task.getId(), bytes);
+                estimatedBytes.addAndGet(oldBytes == null ? bytes : bytes - oldBytes);
+            }
+        });
+        service = loaded;
+    }
+
+    boolean isLoaded() {
+        return service != null;
+    }
+
+    /**
+     * Returns a rough estimate of the number of bytes used by the given task.
+     */
+    static long estimateBytes(Task task) {
+        long bytes = TASK_BYTES + STRING_BYTES + task.getDescription().length() + TAG_SET_BYTES;
+        for (String tag : task.getTags()) {
+            bytes += TAG_ENTRY_BYTES + STRING_BYTES + tag.length();
+        }
+
+        if (task instanceof Deadline) {
+            bytes += DATE_TIME_BYTES;
+        } else if (task instanceof Event) {
+            bytes += 2 * DATE_TIME_BYTES;
+        } else if (task instanceof Recurring) {
+            Recurring recurring = (Recurring) task;
+            bytes += RECURRENCE_BYTES + ARRAY_BYTES + Long.BYTES * recurring.getLaterDoneOccurrences().size();
+        }
+        return bytes;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    CommandService getService() {
+        return service;
+    }
+
+    /**
+     * Returns a rough estimate of the number of bytes used by the task list of this tenant.
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes.get();
+    }
+
+    public long getTaskCount() {
+        return taskCount.get();
+    }
+
+    /**
+     * Returns the number of nanoseconds since this tenant was last used.
+     */
+    public long getIdleNanos() {
+        return System.nanoTime() - lastAccessNanos;
+    }
+
+    void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+
+    ReadWriteLock getResidencyLock() {
+        return residencyLock;
+    }
+
+    boolean isEvicted() {
+        return isEvicted;
+    }
+
+    void markEvicted() {
+        isEvicted = true;
+    }
+
+    boolean isEvicting() {
+        return isEvicting;
+    }
+
+    void setEvicting(boolean isEvicting) {
+        this.isEvicting = isEvicting;
+    }
+}
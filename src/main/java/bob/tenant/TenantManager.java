@@ -0,0 +1,255 @@
+package bob.tenant;
+
+import bob.exception.IncorrectArgumentException;
+import bob.server.CommandService;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Hosts the task lists of many users in one JVM, each stored in its own file in a data directory.
+ * A tenant's task list is loaded on first access. When more than the maximum number of tenants are loaded,
+ * or their estimated memory use exceeds the budget, the least recently used tenants are saved and evicted.
+ * Tenants can also be evicted once they have been idle for a while.
+ * Tenants are loaded and saved outside the lock of the manager, which only guards the table of tenants, so a
+ * slow load or save only holds up the requests of that tenant.
+ * All tenants share the command and task registries, which are only built once per JVM.
+ */
+public class TenantManager {
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final File directory;
+    private final int maxTenants;
+    private final long memoryBudgetBytes;
+    // Iterates from the least recently used tenant to the most recently used one
+    private final LinkedHashMap<String, Tenant> tenants = new LinkedHashMap<>(16, 0.75f, true);
+    private ScheduledExecutorService idleEvictor;
+
+    /**
+     * Constructs a tenant manager that stores the task list of each tenant in the given directory.
+     *
+     * @param directoryPath the directory that task lists are stored in
+     * @param maxTenants the maximum number of tenants loaded at the same time
+     * @param memoryBudgetBytes the maximum estimated memory used by all loaded tenants together
+     */
+    public TenantManager(String directoryPath, int maxTenants, long memoryBudgetBytes) {
+        assert maxTenants > 0 : "at least one tenant should be allowed";
+        this.directory = new File(directoryPath);
+        this.maxTenants = maxTenants;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    /**
+     * Runs the given action on the task list of the given tenant, loading it first if needed.
+     * Actions on the same tenant may run concurrently; the {@code CommandService} serializes mutations.
+     *
+     * @param tenantId the id of the tenant, made up of at most 64 letters, digits, '_' and '-'
+     * @param action the action to run
+     * @param <T> the type of the result of the action
+     * @return the result of the action
+     * @throws IncorrectArgumentException if the tenant id is not valid
+     */
+    public <T> T withTenant(String tenantId, Function<CommandService, T> action) {
+        if (tenantId == null || !TENANT_ID.matcher(tenantId).matches()) {
+            throw new IncorrectArgumentException("a tenant id made of letters, digits, '_' and '-'");
+        }
+
+        while (true) {
+            Tenant tenant = acquire(tenantId);
+            try {
+                tenant.load();
+            } catch (RuntimeException e) {
+                forget(tenant);
+                throw e;
+            }
+            evict(chooseOverBudget(tenant));
+
+            tenant.getResidencyLock().readLock().lock();
+            try {
+                // The tenant may have been evicted between acquiring it and locking it. If so, load it again
+                if (!tenant.isEvicted()) {
+                    tenant.touch();
+                    return action.apply(tenant.getService());
+                }
+            } finally {
+                tenant.getResidencyLock().readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the tenant with the given id, adding one that is not loaded yet if there is none. The tenant is
+     * loaded by the caller, outside the lock of this manager, so that loading one tenant never holds up the
+     * requests of the others.
+     */
+    private synchronized Tenant acquire(String tenantId) {
+        Tenant tenant = tenants.get(tenantId);
+        if (tenant == null || tenant.isEvicted()) {
+            tenant = new Tenant(tenantId, new File(directory, tenantId + ".txt").getPath());
+            tenants.put(tenantId, tenant);
+        }
+        tenant.touch();
+        return tenant;
+    }
+
+    private synchronized void forget(Tenant tenant) {
+        tenants.remove(tenant.getId(), tenant);
+    }
+
+    /**
+     * Chooses the least recently used loaded tenants, other than {@code keep}, to evict so that the tenant count
+     * and memory budget are respected, and marks them as being evicted.
+     */
+    private synchronized List<Tenant> chooseOverBudget(Tenant keep) {
+        int count = 0;
+        long totalBytes = 0;
+        for (Tenant tenant : tenants.values()) {
+            if (!tenant.isEvicting()) {
+                ++count;
+                totalBytes += tenant.getEstimatedBytes();
+            }
+        }
+
+        List<Tenant> chosen = new ArrayList<>();
+        for (Tenant tenant : tenants.values()) {
+            if (count <= maxTenants && totalBytes <= memoryBudgetBytes) {
+                break;
+            }
+            if (tenant == keep || tenant.isEvicting() || !tenant.isLoaded()) {
+                continue;
+            }
+
+            tenant.setEvicting(true);
+            chosen.add(tenant);
+            --count;
+            totalBytes -= tenant.getEstimatedBytes();
+        }
+        return chosen;
+    }
+
+    /**
+     * Chooses every loaded tenant that has not been used for longer than the given duration, and marks them as
+     * being evicted.
+     */
+    private synchronized List<Tenant> chooseIdle(Duration maxIdle) {
+        List<Tenant> chosen = new ArrayList<>();
+        for (Tenant tenant : tenants.values()) {
+            if (!tenant.isEvicting() && tenant.isLoaded() && tenant.getIdleNanos() > maxIdle.toNanos()) {
+                tenant.setEvicting(true);
+                chosen.add(tenant);
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Saves and evicts the given tenants, which were chosen to be evicted. A tenant stays loaded if it cannot be
+     * saved. The tenants are saved outside the lock of this manager.
+     *
+     * @return the number of tenants evicted
+     */
+    private int evict(List<Tenant> chosen) {
+        int count = 0;
+        for (Tenant tenant : chosen) {
+            boolean isEvicted = false;
+            tenant.getResidencyLock().writeLock().lock();
+            try {
+                tenant.getService().save();
+                tenant.markEvicted();
+                isEvicted = true;
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                tenant.getResidencyLock().writeLock().unlock();
+            }
+
+            synchronized (this) {
+                tenant.setEvicting(false);
+                if (isEvicted) {
+                    tenants.remove(tenant.getId(), tenant);
+                    ++count;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Saves and evicts every tenant that has not been used for longer than the given duration.
+     *
+     * @param maxIdle the longest time a tenant may stay loaded without being used
+     * @return the number of tenants evicted
+     */
+    public int evictIdle(Duration maxIdle) {
+        return evict(chooseIdle(maxIdle));
+    }
+
+    /**
+     * Evicts idle tenants periodically on a background thread.
+     *
+     * @param maxIdle the longest time a tenant may stay loaded without being used
+     * @param period the time between checks
+     */
+    public synchronized void startIdleEviction(Duration maxIdle, Duration period) {
+        if (idleEvictor != null) {
+            return;
+        }
+
+        idleEvictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bob-tenant-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        idleEvictor.scheduleAtFixedRate(() -> evictIdle(maxIdle),
+                period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the loaded tenants, from the least recently used to the most recently used.
+     * The tenants can be used to report the memory used by each of them.
+     */
+    public synchronized List<Tenant> getLoadedTenants() {
+        List<Tenant> loaded = new ArrayList<>();
+        for (Tenant tenant : tenants.values()) {
+            if (tenant.isLoaded()) {
+                loaded.add(tenant);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the estimated memory used by each loaded tenant, keyed by tenant id.
+     */
+    public synchronized Map<String, Long> getMemoryUsage() {
+        Map<String, Long> usage = new LinkedHashMap<>();
+        for (Tenant tenant : getLoadedTenants()) {
+            usage.put(tenant.getId(), tenant.getEstimatedBytes());
+        }
+        return usage;
+    }
+
+    /**
+     * Saves and evicts all tenants, and stops evicting idle tenants.
+     */
+    public void close() {
+        synchronized (this) {
+            if (idleEvictor != null) {
+                idleEvictor.shutdownNow();
+                idleEvictor = null;
+            }
+        }
+        // Every loaded tenant has been idle for longer than a negative duration
+        evict(chooseIdle(Duration.ofNanos(-1)));
+    }
+}
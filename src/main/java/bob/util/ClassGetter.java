@@ -1,5 +1,7 @@
 package bob.util;
 
+import bob.jfr.ClassScanEvent;
+
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
@@ -31,6 +33,20 @@ public class ClassGetter {
             return Set.of();
         }
 
+        ClassScanEvent event = new ClassScanEvent();
+        event.begin();
+        Set<Class<?>> classes = scanPackage(packageName);
+        event.end();
+        if (event.shouldCommit()) {
+            event.packageName = packageName;
+            event.classCount = classes.size();
+            event.isFromJar = isRunningFromJar();
+            event.commit();
+        }
+        return classes;
+    }
+
+    private static Set<Class<?>> scanPackage(String packageName) {
         if (isRunningFromJar()) {
             // If program is running from a JAR file
             String classPath;
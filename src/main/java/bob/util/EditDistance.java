@@ -0,0 +1,114 @@
+package bob.util;
+
+/**
+ * Computes the edit distance (Levenshtein distance) from a fixed pattern to many words, such as when checking
+ * which words of a task list are close to a search term.
+ * <p>
+ * The pattern is compared with Myers' bit-parallel algorithm, which keeps a whole column of the usual dynamic
+ * programming table in two 64-bit words, so each letter of a word costs a few bitwise operations instead of
+ * one step per letter of the pattern. Comparing a word stops as soon as the distance is known to be too large.
+ */
+public class EditDistance {
+    /**
+     * The longest pattern that is supported, which is the number of bits in a {@code long}.
+     */
+    public static final int MAX_PATTERN_LENGTH = Long.SIZE;
+    private static final int ASCII_SIZE = 128;
+
+    private final int length;
+    private final long lastBit;
+    // The positions of each letter in the pattern, one bit per position
+    private final long[] asciiPositions = new long[ASCII_SIZE];
+    private final char[] otherLetters;
+    private final long[] otherPositions;
+
+    /**
+     * Constructs a calculator of the edit distance from the given pattern.
+     *
+     * @param pattern the pattern, which must not be longer than {@code MAX_PATTERN_LENGTH}
+     */
+    public EditDistance(String pattern) {
+        assert pattern.length() <= MAX_PATTERN_LENGTH : "pattern should fit in a long";
+
+        length = pattern.length();
+        lastBit = length == 0 ? 0 : 1L << (length - 1);
+
+        StringBuilder others = new StringBuilder();
+        for (int i = 0; i < length; ++i) {
+            char c = pattern.charAt(i);
+            if (c < ASCII_SIZE) {
+                asciiPositions[c] |= 1L << i;
+            } else if (others.indexOf(String.valueOf(c)) < 0) {
+                others.append(c);
+            }
+        }
+
+        otherLetters = others.toString().toCharArray();
+        otherPositions = new long[otherLetters.length];
+        for (int i = 0; i < length; ++i) {
+            for (int j = 0; j < otherLetters.length; ++j) {
+                if (pattern.charAt(i) == otherLetters[j]) {
+                    otherPositions[j] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    private long positionsOf(char c) {
+        if (c < ASCII_SIZE) {
+            return asciiPositions[c];
+        }
+        for (int i = 0; i < otherLetters.length; ++i) {
+            if (otherLetters[i] == c) {
+                return otherPositions[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the edit distance from the pattern to the given word, if it is at most {@code maxDistance}.
+     *
+     * @param word the word to compare with the pattern
+     * @param maxDistance the largest distance of interest
+     * @return the edit distance, or {@code maxDistance + 1} if it is larger than {@code maxDistance}
+     */
+    public int distanceTo(CharSequence word, int maxDistance) {
+        if (Math.abs(word.length() - length) > maxDistance) {
+            return maxDistance + 1;
+        }
+        if (length == 0) {
+            return word.length();
+        }
+
+        // Bits of the vertical differences between adjacent cells of the current column that are +1 and -1
+        long plus = -1L;
+        long minus = 0;
+        int distance = length;
+        for (int j = 0; j < word.length(); ++j) {
+            long equal = positionsOf(word.charAt(j));
+            long x = equal | minus;
+            long horizontal = (((equal & plus) + plus) ^ plus) | equal;
+            long horizontalPlus = minus | ~(horizontal | plus);
+            long horizontalMinus = plus & horizontal;
+
+            if ((horizontalPlus & lastBit) != 0) {
+                ++distance;
+            } else if ((horizontalMinus & lastBit) != 0) {
+                --distance;
+            }
+
+            // The distance can only fall by one for each letter that is left
+            if (distance - (word.length() - j - 1) > maxDistance) {
+                return maxDistance + 1;
+            }
+
+            // The first row of the table grows by one in every column
+            horizontalPlus = (horizontalPlus << 1) | 1;
+            horizontalMinus <<= 1;
+            plus = horizontalMinus | ~(x | horizontalPlus);
+            minus = horizontalPlus & x;
+        }
+        return Math.min(distance, maxDistance + 1);
+    }
+}
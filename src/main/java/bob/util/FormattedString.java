@@ -1,5 +1,7 @@
 package bob.util;
 
+import java.util.regex.Pattern;
+
 /**
  * Represents an instance of a formatted string. FormattedStrings can be colored, highlighted, underlined, etc.
  */
@@ -111,6 +113,23 @@ public class FormattedString {
         return this;
     }
 
+    /**
+     * Applies the given color to each occurrence of the given word, ignoring case, that is not part of a longer
+     * word of letters and digits.
+     *
+     * @param color the color to be applied
+     * @param word the word to apply color to
+     * @return a reference to this object
+     */
+    public FormattedString colorWord(COLOR color, String word) {
+        assert color != null : "color should not be null";
+        assert word != null : "word should not be null";
+
+        this.formattedStr = formattedStr.replaceAll(
+                "(?i)(?<![\\p{L}\\p{N}])(" + Pattern.quote(word) + ")(?![\\p{L}\\p{N}])", color.VAL + "$1" + RESET);
+        return this;
+    }
+
     /**
      * Returns this {@code FormattedString} as a string.
      */
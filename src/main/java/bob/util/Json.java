@@ -0,0 +1,247 @@
+package bob.util;
+
+import bob.exception.IncorrectArgumentException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class that handles parsing JSON text.
+ * Objects are parsed into a {@code Map<String, Object>}, arrays into a {@code List<Object>}, numbers into
+ * a {@code Long} if they are integral and a {@code Double} otherwise, and {@code null} into {@code null}.
+ *
+ * @see JsonWriter
+ */
+public class Json {
+    /**
+     * The deepest that arrays and objects may be nested, so that deeply nested text fails to parse instead of
+     * overflowing the stack.
+     */
+    public static final int MAX_DEPTH = 512;
+
+    private final String text;
+    private int position = 0;
+    private int depth = 0;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses the given JSON text.
+     *
+     * @param text the JSON text to be parsed
+     * @return the parsed value
+     * @throws IncorrectArgumentException if the text is not valid JSON, or is nested more than
+     *         {@code MAX_DEPTH} levels deep
+     */
+    public static Object parse(String text) {
+        assert text != null : "text should not be null";
+
+        Json json = new Json(text);
+        Object value = json.parseValue();
+        json.skipWhitespace();
+        if (json.position != text.length()) {
+            throw json.error();
+        }
+        return value;
+    }
+
+    /**
+     * Parses the given JSON text, which must be an object.
+     *
+     * @param text the JSON text to be parsed
+     * @return the parsed object
+     * @throws IncorrectArgumentException if the text is not a valid JSON object
+     */
+    public static Map<String, Object> parseObject(String text) {
+        Object value = parse(text);
+        if (!(value instanceof Map)) {
+            throw new IncorrectArgumentException("a JSON object");
+        }
+
+        // Every map created by the parser has String keys
+        @SuppressWarnings("unchecked")
+        Map<String, Object> object = (Map<String, Object>) value;
+        return object;
+    }
+
+    private IncorrectArgumentException error() {
+        return new IncorrectArgumentException("valid JSON (error at position " + position + ")");
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            ++position;
+        }
+    }
+
+    private char peek() {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw error();
+        }
+        return text.charAt(position);
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error();
+        }
+        ++position;
+    }
+
+    private boolean consumeLiteral(String literal) {
+        if (text.startsWith(literal, position)) {
+            position += literal.length();
+            return true;
+        }
+        return false;
+    }
+
+    private Object parseValue() {
+        char c = peek();
+        switch (c) {
+        case '{':
+        case '[':
+            if (depth == MAX_DEPTH) {
+                throw new IncorrectArgumentException("JSON nested at most " + MAX_DEPTH + " levels deep");
+            }
+            ++depth;
+            Object value = c == '{' ? parseObjectValue() : parseArray();
+            --depth;
+            return value;
+        case '"':
+            return parseString();
+        default:
+            if (consumeLiteral("true")) {
+                return true;
+            } else if (consumeLiteral("false")) {
+                return false;
+            } else if (consumeLiteral("null")) {
+                return null;
+            }
+            return parseNumber();
+        }
+    }
+
+    private Map<String, Object> parseObjectValue() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        expect('{');
+        if (peek() == '}') {
+            ++position;
+            return map;
+        }
+
+        while (true) {
+            if (peek() != '"') {
+                throw error();
+            }
+            String key = parseString();
+            expect(':');
+            map.put(key, parseValue());
+
+            char c = peek();
+            ++position;
+            if (c == '}') {
+                return map;
+            } else if (c != ',') {
+                throw error();
+            }
+        }
+    }
+
+    private List<Object> parseArray() {
+        List<Object> list = new ArrayList<>();
+        expect('[');
+        if (peek() == ']') {
+            ++position;
+            return list;
+        }
+
+        while (true) {
+            list.add(parseValue());
+
+            char c = peek();
+            ++position;
+            if (c == ']') {
+                return list;
+            } else if (c != ',') {
+                throw error();
+            }
+        }
+    }
+
+    private String parseString() {
+        expect('"');
+        StringBuilder str = new StringBuilder();
+        while (position < text.length()) {
+            char c = text.charAt(position++);
+            if (c == '"') {
+                return str.toString();
+            }
+            if (c != '\\') {
+                str.append(c);
+                continue;
+            }
+
+            if (position >= text.length()) {
+                break;
+            }
+            char escaped = text.charAt(position++);
+            switch (escaped) {
+            case 'n':
+                str.append('\n');
+                break;
+            case 't':
+                str.append('\t');
+                break;
+            case 'r':
+                str.append('\r');
+                break;
+            case 'b':
+                str.append('\b');
+                break;
+            case 'f':
+                str.append('\f');
+                break;
+            case 'u':
+                if (position + 4 > text.length()) {
+                    throw error();
+                }
+                try {
+                    str.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                } catch (NumberFormatException e) {
+                    throw error();
+                }
+                position += 4;
+                break;
+            default:
+                // Covers \", \\ and \/
+                str.append(escaped);
+            }
+        }
+
+        throw error();
+    }
+
+    private Number parseNumber() {
+        int start = position;
+        while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+            ++position;
+        }
+
+        String number = text.substring(start, position);
+        try {
+            if (number.contains(".") || number.contains("e") || number.contains("E")) {
+                return Double.parseDouble(number);
+            }
+            return Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error();
+        }
+    }
+}
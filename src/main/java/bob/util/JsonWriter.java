@@ -0,0 +1,165 @@
+package bob.util;
+
+/**
+ * Builds JSON text incrementally, inserting commas between members and elements as needed.
+ * For example, <br>
+ * <code>new JsonWriter().beginObject().name("id").value(1).endObject().toString()</code> <br>
+ * returns <code>{"id":1}</code>.
+ */
+public class JsonWriter {
+    // The maximum nesting depth of objects and arrays
+    private static final int MAX_DEPTH = 64;
+
+    private final StringBuilder json;
+    // hasElements[d] is true if the object or array at depth d already has a member or element
+    private final boolean[] hasElements = new boolean[MAX_DEPTH];
+    private int depth = 0;
+    private boolean isAfterName = false;
+
+    /**
+     * Constructs a writer that writes to a new builder.
+     */
+    public JsonWriter() {
+        this(new StringBuilder());
+    }
+
+    /**
+     * Constructs a writer that appends to the given builder.
+     *
+     * @param json the builder to append to
+     */
+    public JsonWriter(StringBuilder json) {
+        this.json = json;
+    }
+
+    private void beforeValue() {
+        if (isAfterName) {
+            isAfterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (hasElements[depth - 1]) {
+                json.append(',');
+            }
+            hasElements[depth - 1] = true;
+        }
+    }
+
+    private JsonWriter open(char c) {
+        assert depth < MAX_DEPTH : "JSON should not be nested more than " + MAX_DEPTH + " levels deep";
+        beforeValue();
+        json.append(c);
+        hasElements[depth++] = false;
+        return this;
+    }
+
+    private JsonWriter close(char c) {
+        assert depth > 0 : "there should be an object or array to close";
+        --depth;
+        json.append(c);
+        return this;
+    }
+
+    public JsonWriter beginObject() {
+        return open('{');
+    }
+
+    public JsonWriter endObject() {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() {
+        return open('[');
+    }
+
+    public JsonWriter endArray() {
+        return close(']');
+    }
+
+    /**
+     * Writes the name of the next member of the current object.
+     *
+     * @param name the name of the member
+     * @return a reference to this object
+     */
+    public JsonWriter name(String name) {
+        beforeValue();
+        appendQuoted(name);
+        json.append(':');
+        isAfterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or {@code null} if the given string is null.
+     *
+     * @param value the value to write
+     * @return a reference to this object
+     */
+    public JsonWriter value(String value) {
+        beforeValue();
+        if (value == null) {
+            json.append("null");
+        } else {
+            appendQuoted(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        json.append(value);
+        return this;
+    }
+
+    public JsonWriter value(double value) {
+        beforeValue();
+        json.append(value);
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        json.append(value);
+        return this;
+    }
+
+    private void appendQuoted(String str) {
+        json.append('"');
+        for (int i = 0; i < str.length(); ++i) {
+            char c = str.charAt(i);
+            switch (c) {
+            case '"':
+                json.append("\\\"");
+                break;
+            case '\\':
+                json.append("\\\\");
+                break;
+            case '\n':
+                json.append("\\n");
+                break;
+            case '\r':
+                json.append("\\r");
+                break;
+            case '\t':
+                json.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Returns the JSON text written so far.
+     */
+    @Override
+    public String toString() {
+        return json.toString();
+    }
+}
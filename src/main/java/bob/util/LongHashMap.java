@@ -0,0 +1,192 @@
+package bob.util;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A hash map from primitive {@code long} keys to values, which avoids boxing every key into a {@code Long}.
+ * Keys are stored with open addressing and linear probing in a power-of-two sized array, so a lookup usually
+ * reads a single slot. The key 0 is reserved to mark empty slots and cannot be used.
+ *
+ * @param <V> the type of the values
+ */
+public class LongHashMap<V> {
+    private static final int MIN_CAPACITY = 16;
+    // The golden ratio as a 64-bit fraction, which spreads consecutive keys over the whole table
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int shift;
+    private int size = 0;
+
+    /**
+     * Constructs an empty map.
+     */
+    public LongHashMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty map that starts out with room for about the given number of keys,
+     * for maps that are expected to stay small.
+     *
+     * @param expectedSize the number of keys expected
+     */
+    public LongHashMap(int expectedSize) {
+        assert expectedSize > 0 : "expected size should be positive";
+        allocate(Integer.highestOneBit(expectedSize) * 2);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        shift = Long.numberOfLeadingZeros(mask);
+    }
+
+    private int slotOf(long key) {
+        return (int) ((key * HASH_MULTIPLIER) >>> shift) & mask;
+    }
+
+    private int find(long key) {
+        int slot = slotOf(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value mapped to the given key, or null if there is none.
+     *
+     * @param key the key to look up
+     * @return the value mapped to the key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Maps the given key to the given value, replacing any previous value.
+     *
+     * @param key the key, which must not be 0
+     * @param value the value
+     * @return the previous value mapped to the key, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        assert key != 0 : "0 cannot be used as a key";
+
+        int slot = slotOf(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        // Keep the table at most half full, so that probe sequences stay short
+        if (++size > keys.length / 2) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping of the given key.
+     *
+     * @param key the key to remove
+     * @return the value that was mapped to the key, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+
+        V value = (V) values[slot];
+        --size;
+
+        // Shift later entries of the probe sequence back into the gap, instead of leaving a tombstone
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != 0) {
+            int home = slotOf(keys[next]);
+            // The entry can fill the gap unless its home slot lies cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+        return value;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] == 0) {
+                continue;
+            }
+            int slot = slotOf(oldKeys[i]);
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Performs the given action on every value, in no particular order. The map must not be modified meanwhile.
+     *
+     * @param action the action to perform
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<V> action) {
+        for (int i = 0; i < keys.length; ++i) {
+            if (keys[i] != 0) {
+                action.accept((V) values[i]);
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every mapping, keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,247 @@
+package bob.util;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel, which keeps values that expire at given ticks, such as seconds since the epoch.
+ * A value is scheduled and cancelled in O(1), no matter how many values are pending or how far away they expire.
+ * <p>
+ * The wheel has a level for every 6 bits of a tick, each with 64 slots. A value is kept in the level of the
+ * highest bit in which its tick differs from the current tick, in the slot given by its tick's bits at that
+ * level. When the current tick reaches a slot of a higher level, the values in it are moved down to the
+ * levels below, and a value expires once it reaches the slot of its own tick in the lowest level. Every value
+ * is moved at most once per level, and the wheel can tell when the next slot is reached without scanning the
+ * slots in between, so it costs nothing while no value is due.
+ * This class is not thread-safe.
+ *
+ * @param <T> the type of the values
+ */
+public class TimingWheel<T> {
+    /**
+     * Returned by {@link #getNextTick()} if no value is scheduled.
+     */
+    public static final long NEVER = Long.MAX_VALUE;
+    private static final int BITS_PER_LEVEL = 6;
+    private static final int SLOTS_PER_LEVEL = 1 << BITS_PER_LEVEL;
+    private static final int LEVELS = (Long.SIZE + BITS_PER_LEVEL - 1) / BITS_PER_LEVEL;
+
+    // The first and last timers in each slot, with the slots of each level next to each other
+    private final Timer<T>[] heads;
+    private final Timer<T>[] tails;
+    // The slots of each level that are not empty, one bit per slot
+    private final long[] occupied = new long[LEVELS];
+    private long currentTick;
+    private int size = 0;
+
+    /**
+     * A value that is scheduled on a wheel, which can be used to cancel it.
+     *
+     * @param <T> the type of the value
+     */
+    public static class Timer<T> {
+        private final T value;
+        private final long tick;
+        private Timer<T> previous;
+        private Timer<T> next;
+        // The slot that the timer is in, or -1 once it expired or was cancelled
+        private int slot = -1;
+
+        private Timer(T value, long tick) {
+            this.value = value;
+            this.tick = tick;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public long getTick() {
+            return tick;
+        }
+
+        public boolean isPending() {
+            return slot >= 0;
+        }
+    }
+
+    /**
+     * Constructs an empty wheel.
+     *
+     * @param currentTick the current tick, which must not be negative
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long currentTick) {
+        assert currentTick >= 0 : "ticks should not be negative";
+        this.currentTick = currentTick;
+        this.heads = (Timer<T>[]) new Timer<?>[LEVELS * SLOTS_PER_LEVEL];
+        this.tails = (Timer<T>[]) new Timer<?>[LEVELS * SLOTS_PER_LEVEL];
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Schedules the given value to expire at the given tick.
+     * A tick that has already passed is treated as the current tick, so the value expires at the next
+     * {@link #advance(long, Consumer)}.
+     *
+     * @param tick the tick that the value expires at
+     * @param value the value
+     * @return the timer of the value, which can be passed to {@link #cancel(Timer)}
+     */
+    public Timer<T> schedule(long tick, T value) {
+        Timer<T> timer = new Timer<>(value, Math.max(tick, currentTick));
+        insert(timer);
+        ++size;
+        return timer;
+    }
+
+    /**
+     * Cancels the given timer, so that its value never expires.
+     *
+     * @param timer a timer returned by {@link #schedule(long, Object)} on this wheel
+     * @return false if the value already expired or was cancelled
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (!timer.isPending()) {
+            return false;
+        }
+
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            heads[timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        } else {
+            tails[timer.slot] = timer.previous;
+        }
+        if (heads[timer.slot] == null) {
+            occupied[timer.slot / SLOTS_PER_LEVEL] &= ~(1L << (timer.slot % SLOTS_PER_LEVEL));
+        }
+        timer.previous = null;
+        timer.next = null;
+        timer.slot = -1;
+        --size;
+        return true;
+    }
+
+    /**
+     * Returns the tick by which the wheel has to be advanced next, which is the tick that the next value expires
+     * at, or earlier if values have to be moved between levels before then.
+     *
+     * @return the tick, or {@code NEVER} if no value is scheduled
+     */
+    public long getNextTick() {
+        long nextTick = NEVER;
+        for (int level = 0; level < LEVELS; ++level) {
+            if (occupied[level] == 0) {
+                continue;
+            }
+
+            // Values above the lowest level are always in a later slot than the current tick
+            int digit = digitOf(currentTick, level);
+            long later = level == 0 ? -1L << digit : digit == SLOTS_PER_LEVEL - 1 ? 0 : -1L << (digit + 1);
+            long candidates = occupied[level] & later;
+            assert candidates != 0 : "values should never be in a slot that has passed";
+
+            int slot = Long.numberOfTrailingZeros(candidates);
+            int shift = BITS_PER_LEVEL * level;
+            long prefix = shift + BITS_PER_LEVEL >= Long.SIZE ? 0 : currentTick >>> (shift + BITS_PER_LEVEL)
+                    << (shift + BITS_PER_LEVEL);
+            nextTick = Math.min(nextTick, prefix | ((long) slot << shift));
+        }
+        return nextTick;
+    }
+
+    /**
+     * Advances the wheel to the given tick, passing every value that expires on the way to {@code onExpired}
+     * in the order of their ticks.
+     *
+     * @param tick the new current tick, which is ignored if it has already passed
+     * @param onExpired receives the values that expire
+     */
+    public void advance(long tick, Consumer<T> onExpired) {
+        for (long nextTick = getNextTick(); nextTick <= tick; nextTick = getNextTick()) {
+            currentTick = nextTick;
+            for (int level = LEVELS - 1; level > 0; --level) {
+                cascade(level, digitOf(currentTick, level));
+            }
+            expire(digitOf(currentTick, 0), onExpired);
+        }
+        currentTick = Math.max(currentTick, tick);
+    }
+
+    private static int digitOf(long tick, int level) {
+        return (int) (tick >>> (BITS_PER_LEVEL * level)) & (SLOTS_PER_LEVEL - 1);
+    }
+
+    private void insert(Timer<T> timer) {
+        long differentBits = timer.tick ^ currentTick;
+        int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(differentBits);
+        int level = differentBits == 0 ? 0 : highestBit / BITS_PER_LEVEL;
+        int digit = digitOf(timer.tick, level);
+        int slot = level * SLOTS_PER_LEVEL + digit;
+
+        Timer<T> last = tails[slot];
+        if (last == null) {
+            heads[slot] = timer;
+            occupied[level] |= 1L << digit;
+        } else {
+            last.next = timer;
+            timer.previous = last;
+        }
+        tails[slot] = timer;
+        timer.slot = slot;
+    }
+
+    /**
+     * Removes every timer from the given slot, returning the first of them.
+     */
+    private Timer<T> detach(int level, int digit) {
+        int slot = level * SLOTS_PER_LEVEL + digit;
+        Timer<T> first = heads[slot];
+        heads[slot] = null;
+        tails[slot] = null;
+        occupied[level] &= ~(1L << digit);
+        return first;
+    }
+
+    private void cascade(int level, int digit) {
+        if ((occupied[level] & (1L << digit)) == 0) {
+            return;
+        }
+
+        Timer<T> timer = detach(level, digit);
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.previous = null;
+            timer.next = null;
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    private void expire(int digit, Consumer<T> onExpired) {
+        if ((occupied[0] & (1L << digit)) == 0) {
+            return;
+        }
+
+        Timer<T> timer = detach(0, digit);
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.previous = null;
+            timer.next = null;
+            timer.slot = -1;
+            --size;
+            onExpired.accept(timer.value);
+            timer = next;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package bob;
+
+import bob.server.ApiServer;
+import bob.server.CommandService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ApiServerLoadTest {
+    private static final int CLIENTS = 32;
+    private static final int REQUESTS_PER_CLIENT = 200;
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    public void concurrentClients_mixedRequests_allSucceedAndNoUpdateLost() throws Exception {
+        CommandService service = new CommandService(dataDir.resolve("Bob.txt").toString());
+        ApiServer server = new ApiServer(service, 0);
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getPort();
+        HttpClient client = HttpClient.newHttpClient();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; ++c) {
+                int clientId = c;
+                futures.add(clients.submit(() -> runClient(client, baseUrl, clientId)));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+
+            // Every other request of every client adds a task
+            int expectedTasks = CLIENTS * REQUESTS_PER_CLIENT / 2;
+            assertEquals(expectedTasks, (int) service.read(TaskList::size));
+        } finally {
+            clients.shutdown();
+            server.stop(0);
+        }
+    }
+
+    private static Void runClient(HttpClient client, String baseUrl, int clientId) throws Exception {
+        for (int i = 0; i < REQUESTS_PER_CLIENT; ++i) {
+            HttpRequest request;
+            if (i % 2 == 0) {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/commands"))
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"input\": \"todo task " + clientId + "-" + i + "\"}"))
+                        .build();
+            } else {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/find?keyword=" + clientId + "-"))
+                        .GET()
+                        .build();
+            }
+
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), response.body());
+        }
+        return null;
+    }
+}
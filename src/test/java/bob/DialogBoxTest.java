@@ -0,0 +1,84 @@
+package bob;
+
+import bob.gui.DialogBox;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DialogBoxTest {
+    private static Image image;
+
+    @BeforeAll
+    public static void startToolkit() throws InterruptedException {
+        // Runs JavaFX without a display, using the Monocle headless platform
+        System.setProperty("glass.platform", "Monocle");
+        System.setProperty("monocle.platform", "Headless");
+        System.setProperty("prism.order", "sw");
+
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            Platform.startup(latch::countDown);
+        } catch (IllegalStateException e) {
+            // The toolkit was already started by another test
+            latch.countDown();
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        image = new WritableImage(8, 8);
+    }
+
+    private static <T> T runOnFxThread(Supplier<T> supplier) throws Exception {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future.get(60, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void showBobMessage_commandType_styleFromTable() throws Exception {
+        DialogBox box = runOnFxThread(() -> DialogBox.getBobDialog("oops", image, "Error"));
+        Node dialog = box.lookup("#dialog");
+
+        assertTrue(dialog.getStyleClass().contains("reply-label"));
+        assertTrue(dialog.getStyleClass().contains("error-label"));
+
+        // Reusing the box for the user's message resets the style and flips the layout back
+        runOnFxThread(() -> {
+            box.showUserMessage("hello", image);
+            return null;
+        });
+        assertEquals(1, dialog.getStyleClass().size());
+        assertEquals(dialog, box.getChildren().get(0));
+    }
+
+    @Test
+    public void showBobMessage_reusedBox_textReplacedAndLayoutFlipped() throws Exception {
+        DialogBox box = runOnFxThread(() -> DialogBox.getUserDialog("todo read book", image));
+        Label dialog = (Label) box.lookup("#dialog");
+        assertEquals("todo read book", dialog.getText());
+
+        runOnFxThread(() -> {
+            box.showBobMessage("added: [T][ ] read book", image, "TodoCommand");
+            return null;
+        });
+        assertEquals("added: [T][ ] read book", dialog.getText());
+        assertTrue(dialog.getStyleClass().contains("add-label"));
+        assertEquals(dialog, box.getChildren().get(1));
+    }
+}
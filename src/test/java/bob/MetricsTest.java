@@ -0,0 +1,68 @@
+package bob;
+
+import bob.metrics.LatencyHistogram;
+import bob.metrics.Metrics;
+import bob.output.NullSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetricsTest {
+    @TempDir
+    Path dataDir;
+
+    @Test
+    public void latencyHistogram_percentiles_withinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; ++i) {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_500, histogram.getMean(), 0.001);
+
+        // Every bucket is at most 12.5% wide
+        long p50 = histogram.getValueAtPercentile(50);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.125, "p50 was " + p50);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99 was " + p99);
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void latencyHistogram_smallAndEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+
+        histogram.record(-5);
+        histogram.record(3);
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(3, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void metrics_commandsAndErrors_recorded() {
+        Metrics metrics = new Metrics();
+        Parser parser = new Parser();
+        TaskList tasks = new TaskList();
+        Ui ui = new Ui(NullSink.INSTANCE);
+        Storage storage = new Storage(dataDir.resolve("Bob.txt").toString());
+
+        metrics.execute(metrics.parse(parser, "todo read"), tasks, ui, storage);
+        try {
+            metrics.parse(parser, "unknown");
+        } catch (RuntimeException ignored) {
+            // Counted as an error
+        }
+
+        assertEquals(1, metrics.getHistogram("TodoCommand", Metrics.Stage.PARSE).getCount());
+        assertEquals(1, metrics.getHistogram("TodoCommand", Metrics.Stage.EXECUTE).getCount());
+        assertEquals(1, metrics.getHistogram("TodoCommand", Metrics.Stage.RENDER).getCount());
+        assertEquals(1, metrics.getErrorCount("UnknownCommandException"));
+    }
+}
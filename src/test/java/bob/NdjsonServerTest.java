@@ -0,0 +1,52 @@
+package bob;
+
+import bob.server.CommandService;
+import bob.server.NdjsonServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NdjsonServerTest {
+    @TempDir
+    Path dataDir;
+
+    private String serve(String... requests) throws Exception {
+        CommandService service = new CommandService(dataDir.resolve("Bob.txt").toString());
+        StringWriter out = new StringWriter();
+        new NdjsonServer(service, new StringReader(String.join("\n", requests)), out).serve();
+        return out.toString();
+    }
+
+    @Test
+    public void serve_pipelinedRequests_answeredInOrderWithIds() throws Exception {
+        String responses = serve(
+                "{\"id\":1,\"input\":\"todo read book\"}",
+                "",
+                "{\"id\":\"two\",\"op\":\"task\",\"index\":1}",
+                "{\"id\":3,\"op\":\"find\",\"keyword\":\"BOOK\"}");
+
+        String task = "{\"index\":1,\"id\":1,\"type\":\"todo\",\"description\":\"read book\",\"done\":false,\"tags\":[]}";
+        assertEquals("{\"id\":1,\"ok\":true,\"command\":\"TodoCommand\",\"message\":\"added: [T][ ] read book\"}\n"
+                + "{\"id\":\"two\",\"ok\":true,\"task\":" + task + "}\n"
+                + "{\"id\":3,\"ok\":true,\"tasks\":[" + task + "]}\n", responses);
+    }
+
+    @Test
+    public void serve_invalidRequests_errorResponsesAndServingContinues() throws Exception {
+        String deeplyNested = "{\"id\":4,\"input\":" + "[".repeat(100_000) + "]".repeat(100_000) + "}";
+        String[] responses = serve("not json", "{\"id\":2,\"op\":\"task\",\"index\":5}", "{\"id\":3,\"op\":\"tags\"}",
+                deeplyNested).split("\n");
+
+        assertEquals(4, responses.length);
+        assertTrue(responses[0].startsWith("{\"id\":null,\"ok\":false,\"error\":"));
+        assertEquals("{\"id\":2,\"ok\":false,\"error\":\"There is no task 5.\"}", responses[1]);
+        assertEquals("{\"id\":3,\"ok\":true,\"tags\":[]}", responses[2]);
+        assertTrue(responses[3].startsWith("{\"id\":null,\"ok\":false,\"error\":"));
+    }
+}
@@ -54,6 +54,22 @@ public class ParserTest {
                 Parser.tokenize("test /dummy /another"));
     }
 
+    @Test
+    public void tokenize_prefixNotStartingWord_notArgument() {
+        // Dates and other words that contain the prefix are not argument names
+        assertEquals(
+                Map.of("CMD", "todo", "", "read a/b testing"),
+                Parser.tokenize("todo read a/b testing"));
+        assertEquals(
+                Map.of("CMD", "deadline", "", "report", "by", "1/2/2024 1200"),
+                Parser.tokenize("deadline report /by 1/2/2024 1200"));
+
+        // An argument name must be followed by a space or the end of the input
+        assertEquals(
+                Map.of("CMD", "todo", "", "a /b\tc"),
+                Parser.tokenize("todo a /b\tc"));
+    }
+
     @Test
     public void parse_validCommand_success() {
         Parser parser = new Parser();
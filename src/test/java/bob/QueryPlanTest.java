@@ -0,0 +1,51 @@
+package bob;
+
+import bob.exception.IncorrectArgumentException;
+import bob.query.Query;
+import bob.query.QueryPlan;
+import bob.task.Deadline;
+import bob.task.Todo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueryPlanTest {
+    @Test
+    public void execute_rarestIndexFirst_findsSameTasksAsCheckingEach() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadline("exam registration", LocalDateTime.of(2024, 9, 20, 12, 0), "URGENT"));
+        tasks.add(new Deadline("final exam prep", LocalDateTime.of(2024, 9, 25, 12, 0), "URGENT"));
+        tasks.add(new Deadline("return exam books", LocalDateTime.of(2024, 10, 30, 12, 0), "URGENT"));
+        tasks.add(new Todo("read exam notes"));
+        for (int i = 0; i < 20; ++i) {
+            tasks.add(new Todo("chore " + i));
+        }
+        tasks.mark(0);
+
+        Query query = Query.parse("\"exam\" and #URGENT and not done and due < 1/12/2024");
+        QueryPlan plan = new QueryPlan(query, tasks);
+        assertEquals(List.of(1, 2), plan.execute());
+        assertTrue(plan.explain().startsWith("1. Read the tag index for #URGENT: estimated 3, actual 3"));
+
+        assertEquals(List.of(0, 3), new QueryPlan(Query.parse("exam and (done or todo)"), tasks).execute());
+    }
+
+    @Test
+    public void parse_unclosedBracket_exceptionThrown() {
+        assertThrows(IncorrectArgumentException.class, () -> Query.parse("(\"exam\" or #URGENT"));
+        assertThrows(IncorrectArgumentException.class, () -> Query.parse("#URGENT and"));
+    }
+
+    @Test
+    public void isQuery_unparsableText_false() {
+        assertTrue(Query.isQuery("(\"exam\" or #URGENT)"));
+        assertFalse(Query.isQuery("(draft"));
+        assertFalse(Query.isQuery("essay"));
+    }
+}
@@ -0,0 +1,76 @@
+package bob;
+
+import bob.output.QueueSink;
+import bob.reminder.ReminderService;
+import bob.task.Recurrence;
+import bob.task.Recurring;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReminderServiceTest {
+    private static final Duration LEAD_TIME = Duration.ofMinutes(15);
+    private static final LocalTime TIME = LocalTime.of(18, 0);
+
+    /**
+     * Returns a clock that runs from the given time onwards.
+     */
+    private static Clock startingAt(LocalDateTime dateTime) {
+        Clock system = Clock.system(ZoneOffset.UTC);
+        return Clock.offset(system, Duration.between(system.instant(), dateTime.toInstant(ZoneOffset.UTC)));
+    }
+
+    private static List<String> waitForMessages(QueueSink sink) throws InterruptedException {
+        List<String> messages = sink.take();
+        for (int i = 0; i < 50 && messages.isEmpty(); ++i) {
+            Thread.sleep(100);
+            messages = sink.take();
+        }
+        return messages;
+    }
+
+    @Test
+    public void onAdded_recurringTaskStartedLongAgo_remindedOfNextOccurrence() {
+        LocalDate today = LocalDate.of(2024, 10, 1);
+        QueueSink sink = new QueueSink(10);
+        ReminderService reminders = new ReminderService(sink, LEAD_TIME, startingAt(today.atTime(12, 0)));
+        TaskList tasks = new TaskList();
+        tasks.addListener(reminders);
+
+        tasks.add(new Recurring("water plants", Recurrence.parse("day", today.minusYears(1)), TIME));
+        assertEquals(1, reminders.size());
+    }
+
+    @Test
+    public void start_recurringReminderSent_nextOccurrenceScheduled() throws Exception {
+        LocalDate today = LocalDate.of(2024, 10, 1);
+        QueueSink sink = new QueueSink(10);
+        LocalDateTime justBeforeReminder = today.atTime(TIME).minus(LEAD_TIME).minusSeconds(1);
+        ReminderService reminders = new ReminderService(sink, LEAD_TIME, startingAt(justBeforeReminder));
+        TaskList tasks = new TaskList();
+        tasks.addListener(reminders);
+        tasks.add(new Recurring("water plants", Recurrence.parse("day", today), TIME));
+
+        reminders.start();
+        List<String> messages = waitForMessages(sink);
+        assertEquals(1, messages.size());
+        assertTrue(messages.get(0).startsWith("Heads up! water plants is due at"));
+        assertEquals(1, reminders.size());
+
+        // Changing the task does not send the reminder of the same occurrence again
+        tasks.tag(0, "garden");
+        Thread.sleep(200);
+        reminders.stop();
+        assertEquals(List.of(), sink.take());
+        assertEquals(1, reminders.size());
+    }
+}
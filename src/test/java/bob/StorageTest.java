@@ -0,0 +1,65 @@
+package bob;
+
+import bob.output.NullSink;
+import bob.task.Task;
+import bob.task.Todo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StorageTest {
+    @TempDir
+    Path dataDir;
+
+    @Test
+    public void bye_readFailedPartWay_dataFileUnchanged() throws IOException {
+        Path file = dataDir.resolve("Bob.txt");
+        StringBuilder data = new StringBuilder(Storage.encodeHeader(1000));
+        for (int i = 0; i < 1000; ++i) {
+            Task task = new Todo("task " + i);
+            task.setId(i + 1);
+            data.append(Storage.encode(task));
+        }
+        Files.writeString(file, data);
+
+        // Fails after the first few lines have been read
+        Storage storage = new Storage(file.toString()) {
+            @Override
+            InputStream openStream() throws IOException {
+                return new FilterInputStream(super.openStream()) {
+                    private boolean hasRead = false;
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        if (hasRead) {
+                            throw new IOException("disk error");
+                        }
+                        hasRead = true;
+                        return super.read(buffer, offset, Math.min(length, 100));
+                    }
+                };
+            }
+        };
+        TaskList tasks = new TaskList();
+        try (Storage.Loader loader = storage.openLoader()) {
+            assertThrows(UncheckedIOException.class, () -> loader.loadChunk(new ArrayList<>(), 10));
+        }
+        assertTrue(storage.hasReadFailed());
+
+        Ui ui = new Ui(NullSink.INSTANCE);
+        new Parser().parse("todo read book").execute(tasks, ui, storage);
+        new Parser().parse("bye").execute(tasks, ui, storage);
+        assertEquals(data.toString(), Files.readString(file));
+    }
+}
@@ -0,0 +1,215 @@
+package bob;
+
+import bob.exception.IncorrectArgumentException;
+import bob.index.DueQueue;
+import bob.index.SortedView;
+import bob.index.TrigramIndex;
+import bob.task.Deadline;
+import bob.task.Event;
+import bob.task.Recurrence;
+import bob.task.Recurring;
+import bob.task.Task;
+import bob.task.Todo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskListTest {
+    private static class RecordingListener implements TaskListListener {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onAdded(int index, Task task) {
+            events.add("added " + index + " " + task.getDescription());
+        }
+
+        @Override
+        public void onRemoved(int index, Task task) {
+            events.add("removed " + index + " " + task.getDescription());
+        }
+
+        @Override
+        public void onUpdated(int index, Task task) {
+            events.add("updated " + index + " " + task.getDescription());
+        }
+
+        @Override
+        public void onReset() {
+            events.add("reset");
+        }
+    }
+
+    @Test
+    public void addListener_existingTasks_replayedAsAdded() {
+        TaskList tasks = new TaskList(new ArrayList<>(List.of(new Todo("a"), new Todo("b"))));
+        RecordingListener listener = new RecordingListener();
+        tasks.addListener(listener);
+
+        assertEquals(List.of("added 0 a", "added 1 b"), listener.events);
+    }
+
+    @Test
+    public void mutations_listenerNotifiedWithIndices() {
+        TaskList tasks = new TaskList();
+        RecordingListener listener = new RecordingListener();
+        tasks.addListener(listener);
+
+        tasks.add(new Todo("a"));
+        tasks.add(new Todo("b"));
+        tasks.mark(1);
+        tasks.tag(0, "URGENT");
+
+        // Tagging a task with a tag it already has does not change it
+        tasks.tag(0, "URGENT");
+        tasks.remove(0);
+        tasks.reset();
+
+        assertEquals(List.of(
+                "added 0 a",
+                "added 1 b",
+                "updated 1 b",
+                "updated 0 a",
+                "removed 0 a",
+                "reset"), listener.events);
+    }
+
+    @Test
+    public void remove_idsStableAndNeverReused() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("a"));
+        tasks.add(new Todo("b"));
+        tasks.add(new Todo("c"));
+
+        tasks.remove(0);
+        tasks.remove(1);
+        tasks.add(new Todo("d"));
+
+        assertEquals(2, tasks.get(0).getId());
+        assertEquals(4, tasks.get(1).getId());
+        assertEquals(1, tasks.indexOf(4));
+        assertEquals(-1, tasks.indexOf(3));
+        assertEquals("b", tasks.getById(2).getDescription());
+    }
+
+    @Test
+    public void addDependency_markAndRemove_readyTasksUpdated() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("a"));
+        tasks.add(new Todo("b"));
+        tasks.add(new Todo("c"));
+        tasks.addDependency(1, 0);
+        tasks.addDependency(2, 1);
+
+        assertEquals(List.of(1L), List.copyOf(tasks.getDependencies().getReadyIds()));
+        assertThrows(IncorrectArgumentException.class, () -> tasks.addDependency(0, 2));
+
+        tasks.mark(0);
+        assertEquals(List.of(2L), List.copyOf(tasks.getDependencies().getReadyIds()));
+
+        // Deleting a prerequisite that is not done unblocks the tasks that depend on it
+        tasks.remove(1);
+        assertEquals(List.of(3L), List.copyOf(tasks.getDependencies().getReadyIds()));
+        assertEquals(0, tasks.getDependencies().size());
+    }
+
+    @Test
+    public void getDueQueue_priorityThenDue_openTasksOnly() {
+        LocalDateTime due = LocalDateTime.of(2024, 9, 26, 23, 59);
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadline("later", due.plusDays(1)));
+        tasks.add(new Deadline("sooner", due));
+        tasks.add(new Todo("no date"));
+        tasks.add(new Event("urgent", due.plusDays(2), due.plusDays(3)));
+        tasks.tag(3, "p1");
+        tasks.mark(1);
+
+        List<String> next = new ArrayList<>();
+        tasks.getDueQueue().peek(5).forEach(task -> next.add(task.getDescription()));
+        assertEquals(List.of("urgent", "later"), next);
+    }
+
+    @Test
+    public void markOccurrence_recurringTask_nextOccurrenceSkipsDoneOnes() {
+        LocalDate monday = LocalDate.of(2024, 9, 30);
+        TaskList tasks = new TaskList();
+        tasks.add(new Recurring("gym", Recurrence.parse("mon,thu", monday), LocalTime.of(7, 0)));
+        Recurring gym = (Recurring) tasks.get(0);
+
+        tasks.mark(0);
+        tasks.markOccurrence(0, monday.plusDays(7));
+        assertEquals(monday.plusDays(3).atTime(7, 0), gym.getNextOccurrence());
+        assertEquals(gym.getNextOccurrence(), DueQueue.getDue(tasks.getDueQueue().peek(1).get(0)));
+
+        // Undoing the first occurrence keeps the later one done
+        tasks.unmarkOccurrence(0, monday);
+        assertEquals(monday.atTime(7, 0), gym.getNextOccurrence());
+        assertTrue(gym.isOccurrenceDone(monday.plusDays(7)));
+    }
+
+    @Test
+    public void getView_sortedByDue_keptSortedAsTasksChange() {
+        LocalDateTime due = LocalDateTime.of(2024, 9, 26, 23, 59);
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("no date"));
+        tasks.add(new Deadline("later", due.plusDays(1)));
+        SortedView view = tasks.getView(SortedView.Order.DUE, SortedView.Filter.OPEN);
+
+        tasks.add(new Event("sooner", due, due.plusHours(2)));
+        tasks.mark(1);
+        List<String> descriptions = new ArrayList<>();
+        view.get(0, view.size()).forEach(task -> descriptions.add(task.getDescription()));
+        assertEquals(List.of("sooner", "no date"), descriptions);
+
+        tasks.remove(2);
+        assertEquals("no date", view.get(0, 1).get(0).getDescription());
+        assertEquals(1, view.size());
+    }
+
+    @Test
+    public void getTrigramIndex_typos_closestMatchesFirst() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("study for midterms"));
+        tasks.add(new Todo("midterm review session"));
+        tasks.add(new Todo("buy milk"));
+        tasks.add(new Todo("return books"));
+
+        List<String> descriptions = new ArrayList<>();
+        tasks.getTrigramIndex().search(Set.of("midterns"))
+                .forEach(match -> descriptions.add(match.getTask().getDescription()));
+        assertEquals(List.of("study for midterms", "midterm review session"), descriptions);
+
+        tasks.remove(0);
+        tasks.add(new Todo("midterms"));
+        List<TrigramIndex.Match> matches = tasks.getTrigramIndex().search(Set.of("midterms", "sesion"));
+        assertEquals(1, matches.size());
+        assertEquals(2, matches.get(0).getDistance());
+    }
+
+    @Test
+    public void getTrigramIndex_mostTasksRemoved_remainingTasksFound() {
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 10; ++i) {
+            tasks.add(new Todo("draft chapter" + i));
+        }
+        TrigramIndex index = tasks.getTrigramIndex();
+
+        // Removing most of the words numbers the remaining ones again
+        for (int i = 0; i < 8; ++i) {
+            tasks.remove(0);
+        }
+        tasks.add(new Todo("chapter0 notes"));
+        assertEquals(3, index.findContaining("chapter").size());
+        assertEquals(3, index.estimateContaining("chapter"));
+        assertEquals("chapter0 notes", index.search(Set.of("chapter0")).get(0).getTask().getDescription());
+        assertEquals("draft chapter9", index.search(Set.of("chapter9")).get(0).getTask().getDescription());
+    }
+}
@@ -0,0 +1,93 @@
+package bob;
+
+import bob.tenant.Tenant;
+import bob.tenant.TenantManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TenantManagerTest {
+    @TempDir
+    Path dataDir;
+
+    private static List<String> getLoadedIds(TenantManager manager) {
+        List<String> ids = new ArrayList<>();
+        for (Tenant tenant : manager.getLoadedTenants()) {
+            ids.add(tenant.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void withTenant_moreThanMaxTenants_leastRecentlyUsedSavedAndEvicted() throws Exception {
+        TenantManager manager = new TenantManager(dataDir.toString(), 2, Long.MAX_VALUE);
+        manager.withTenant("alice", service -> service.execute("todo read book"));
+        manager.withTenant("bob", service -> service.execute("todo buy milk"));
+        manager.withTenant("alice", service -> service.read(TaskList::size));
+        manager.withTenant("carol", service -> service.read(TaskList::size));
+
+        assertEquals(List.of("alice", "carol"), getLoadedIds(manager));
+        assertTrue(Files.readString(dataDir.resolve("bob.txt")).contains("buy milk"));
+        int size = manager.withTenant("bob", service -> service.read(TaskList::size));
+        assertEquals(1, size);
+    }
+
+    @Test
+    public void withTenant_overMemoryBudget_otherTenantsEvicted() {
+        TenantManager manager = new TenantManager(dataDir.toString(), 10, 500);
+        for (int i = 0; i < 5; ++i) {
+            int number = i;
+            manager.withTenant("alice", service -> service.execute("todo task number " + number));
+        }
+        assertEquals(List.of("alice"), getLoadedIds(manager));
+
+        manager.withTenant("bob", service -> service.read(TaskList::size));
+        assertEquals(List.of("bob"), getLoadedIds(manager));
+        int size = manager.withTenant("alice", service -> service.read(TaskList::size));
+        assertEquals(5, size);
+    }
+
+    @Test
+    public void evictIdle_saveFails_tenantStaysLoaded() throws Exception {
+        TenantManager manager = new TenantManager(dataDir.toString(), 10, Long.MAX_VALUE);
+        manager.withTenant("alice", service -> service.execute("todo read book"));
+
+        // A directory where the data file should be cannot be written to
+        Path file = Files.createDirectory(dataDir.resolve("alice.txt"));
+        Thread.sleep(1);
+        assertEquals(0, manager.evictIdle(Duration.ZERO));
+        assertEquals(List.of("alice"), getLoadedIds(manager));
+
+        Files.delete(file);
+        assertEquals(1, manager.evictIdle(Duration.ZERO));
+        assertEquals(List.of(), getLoadedIds(manager));
+        assertTrue(Files.readString(file).contains("read book"));
+    }
+
+    @Test
+    public void estimatedBytes_tasksChangedThenDeleted_backToEmpty() {
+        TenantManager manager = new TenantManager(dataDir.toString(), 10, Long.MAX_VALUE);
+        manager.withTenant("alice", service -> service.execute("todo read book"));
+        manager.withTenant("alice", service -> service.execute("todo buy milk"));
+        Tenant tenant = manager.getLoadedTenants().iterator().next();
+        long added = tenant.getEstimatedBytes();
+
+        manager.withTenant("alice", service -> service.execute("tag 1 URGENT"));
+        manager.withTenant("alice", service -> service.execute("depends 1 /on 2"));
+        assertTrue(tenant.getEstimatedBytes() > added);
+
+        // The prerequisite is deleted first, so the dependency goes without the dependent changing
+        manager.withTenant("alice", service -> service.execute("delete 2"));
+        manager.withTenant("alice", service -> service.execute("delete 1"));
+        assertEquals(0, tenant.getEstimatedBytes());
+        assertEquals(0, tenant.getTaskCount());
+    }
+}
@@ -0,0 +1,47 @@
+package bob;
+
+import bob.util.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class TimingWheelTest {
+    private static final long START = 1_700_000_000L;
+
+    @Test
+    public void advance_valuesAcrossLevels_expireInOrderOfTicks() {
+        TimingWheel<String> wheel = new TimingWheel<>(START);
+        wheel.schedule(START + 86_400 * 30, "next month");
+        wheel.schedule(START + 5, "soon");
+        wheel.schedule(START + 3_600, "next hour");
+        wheel.schedule(START - 10, "overdue");
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(START + 3_600, expired::add);
+        assertEquals(List.of("overdue", "soon", "next hour"), expired);
+        assertEquals(START + 3_600, wheel.getCurrentTick());
+
+        wheel.advance(START + 86_400 * 30, expired::add);
+        assertEquals(List.of("overdue", "soon", "next hour", "next month"), expired);
+        assertEquals(TimingWheel.NEVER, wheel.getNextTick());
+    }
+
+    @Test
+    public void cancel_pendingValue_neverExpires() {
+        TimingWheel<String> wheel = new TimingWheel<>(START);
+        TimingWheel.Timer<String> cancelled = wheel.schedule(START + 100_000, "cancelled");
+        wheel.schedule(START + 100_000, "kept");
+
+        wheel.cancel(cancelled);
+        assertFalse(wheel.cancel(cancelled));
+        assertEquals(1, wheel.size());
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(START + 200_000, expired::add);
+        assertEquals(List.of("kept"), expired);
+    }
+}
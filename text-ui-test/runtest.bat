@@ -3,15 +3,20 @@
 REM create bin directory if it doesn't exist
 if not exist ..\bin mkdir ..\bin
 
-REM delete output from previous run
+REM delete output and data from previous run
 if exist ACTUAL.TXT del ACTUAL.TXT
+if exist data rmdir /s /q data
 
 REM compile the code into the bin folder
-javac  -cp ..\src\main\java\ -Xlint:none -d ..\bin ..\src\main\java\bob\Bob.java
+REM the JavaFX GUI is left out, since only the console is tested here
+dir /s /b ..\src\main\java\*.java | findstr /v /i /l /c:"\gui\" /c:"\Main.java" /c:"\Launcher.java" > sources.txt
+javac -encoding UTF-8 -Xlint:none -d ..\bin @sources.txt
 IF ERRORLEVEL 1 (
+    del sources.txt
     echo ********** BUILD FAILURE **********
     exit /b 1
 )
+del sources.txt
 REM no error here, errorlevel == 0
 
 REM run the program, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
@@ -6,21 +6,23 @@ then
     mkdir ../bin
 fi
 
-# delete output from previous run
+# delete output and data from previous run
 if [ -e "./ACTUAL.TXT" ]
 then
     rm ACTUAL.TXT
 fi
+rm -rf ./data
 
 # compile the code into the bin folder, terminates if error occurred
-if ! javac -cp ../src/main/java -Xlint:none -d ../bin ../src/main/java/*.java
+# the JavaFX GUI is left out, since only the console is tested here
+if ! javac -encoding UTF-8 -Xlint:none -d ../bin $(find ../src/main/java -name '*.java' ! -path '*/gui/*' ! -name 'Main.java' ! -name 'Launcher.java')
 then
     echo "********** BUILD FAILURE **********"
     exit 1
 fi
 
 # run the program, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
-java -classpath ../bin Duke < input.txt > ACTUAL.TXT
+java -classpath ../bin bob.Bob < input.txt > ACTUAL.TXT
 
 # convert to UNIX format
 cp EXPECTED.TXT EXPECTED-UNIX.TXT